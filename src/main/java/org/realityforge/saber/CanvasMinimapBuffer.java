@@ -0,0 +1,116 @@
+package org.realityforge.saber;
+
+import elemental2.core.Uint8ClampedArray;
+import elemental2.dom.CanvasRenderingContext2D;
+import elemental2.dom.DomGlobal;
+import elemental2.dom.HTMLCanvasElement;
+import elemental2.dom.ImageData;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import jsinterop.base.Js;
+import org.realityforge.saber.minimap.MinimapBuffer;
+
+/**
+ * A minimap buffer backed by an ImageData and an offscreen canvas.
+ * Pixels are written into the ImageData and the region that changed is copied into the canvas
+ * when next drawn, so drawing the minimap costs a single scaled draw call per frame.
+ */
+public final class CanvasMinimapBuffer
+  implements MinimapBuffer
+{
+  @Nonnull
+  private final HTMLCanvasElement _canvas;
+  @Nonnull
+  private final CanvasRenderingContext2D _context;
+  @Nullable
+  private ImageData _imageData;
+  @Nullable
+  private Uint8ClampedArray _data;
+  /**
+   * The bounds of the pixels changed since the canvas was last updated. The bounds are empty if minX > maxX.
+   */
+  private int _minX;
+  private int _minY;
+  private int _maxX = -1;
+  private int _maxY = -1;
+
+  CanvasMinimapBuffer()
+  {
+    _canvas = (HTMLCanvasElement) DomGlobal.document.createElement( "canvas" );
+    _context = Js.uncheckedCast( _canvas.getContext( "2d" ) );
+  }
+
+  @Override
+  public void reset( final int width, final int height )
+  {
+    _canvas.width = width;
+    _canvas.height = height;
+    if ( width > 0 && height > 0 )
+    {
+      _imageData = _context.createImageData( width, height );
+      _data = _imageData.data;
+    }
+    else
+    {
+      _imageData = null;
+      _data = null;
+    }
+    _minX = 0;
+    _minY = 0;
+    _maxX = width - 1;
+    _maxY = height - 1;
+  }
+
+  @Override
+  public void setPixel( final int index, final int color )
+  {
+    assert null != _data;
+    final int offset = index << 2;
+    _data.setAt( offset, (double) ( ( color >> 16 ) & 0xFF ) );
+    _data.setAt( offset + 1, (double) ( ( color >> 8 ) & 0xFF ) );
+    _data.setAt( offset + 2, (double) ( color & 0xFF ) );
+    _data.setAt( offset + 3, (double) ( color >>> 24 ) );
+
+    final int width = _canvas.width;
+    final int x = index % width;
+    final int y = index / width;
+    if ( _minX > _maxX )
+    {
+      _minX = x;
+      _maxX = x;
+      _minY = y;
+      _maxY = y;
+    }
+    else
+    {
+      _minX = Math.min( _minX, x );
+      _maxX = Math.max( _maxX, x );
+      _minY = Math.min( _minY, y );
+      _maxY = Math.max( _maxY, y );
+    }
+  }
+
+  /**
+   * Draw the minimap onto the context, scaled to the specified rectangle.
+   */
+  public void draw( @Nonnull final CanvasRenderingContext2D context,
+                    final double x,
+                    final double y,
+                    final double width,
+                    final double height )
+  {
+    if ( null != _imageData )
+    {
+      if ( _minX <= _maxX )
+      {
+        _context.putImageData( _imageData, 0, 0, _minX, _minY, _maxX - _minX + 1, _maxY - _minY + 1 );
+        _minX = 0;
+        _maxX = -1;
+      }
+      final boolean imageSmoothingEnabled = context.imageSmoothingEnabled;
+      context.imageSmoothingEnabled = false;
+      context.drawImage( _canvas, x, y, width, height );
+      context.imageSmoothingEnabled = imageSmoothingEnabled;
+    }
+  }
+}
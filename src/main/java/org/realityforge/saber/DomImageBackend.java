@@ -0,0 +1,24 @@
+package org.realityforge.saber;
+
+import elemental2.dom.DomGlobal;
+import elemental2.dom.HTMLImageElement;
+import javax.annotation.Nonnull;
+
+/**
+ * Load textures into image elements from the png of the same name.
+ */
+public final class DomImageBackend
+  implements ImageBackend
+{
+  @Override
+  public void load( @Nonnull final Texture texture, @Nonnull final Runnable onLoad, @Nonnull final Runnable onError )
+  {
+    final HTMLImageElement image = (HTMLImageElement) DomGlobal.document.createElement( "img" );
+    image.addEventListener( "load", e -> {
+      texture.setImage( image );
+      onLoad.run();
+    } );
+    image.addEventListener( "error", e -> onError.run() );
+    image.src = texture.getName() + ".png";
+  }
+}
@@ -3,10 +3,31 @@ package org.realityforge.saber;
 import elemental2.dom.DomGlobal;
 import elemental2.dom.HTMLCanvasElement;
 import elemental2.dom.KeyboardEvent;
+import elemental2.promise.Promise;
+import java.util.Collection;
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.saber.ai.Planner;
+import org.realityforge.saber.floor.Floor;
+import org.realityforge.saber.floor.FloorManager;
+import org.realityforge.saber.floor.IdleFloorGenerationScheduler;
+import org.realityforge.saber.game.SeedData;
+import org.realityforge.saber.game.TileRegistry;
 import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.generator.SeedIndex;
+import org.realityforge.saber.light.Light;
+import org.realityforge.saber.light.LightMap;
+import org.realityforge.saber.minimap.Minimap;
+import org.realityforge.saber.spawn.SpawnTable;
+import org.realityforge.saber.stream.MemoryChunkStore;
+import org.realityforge.saber.stream.StreamedViewport;
+import org.realityforge.saber.stream.StreamedWorld;
+import org.realityforge.saber.turn.TurnScheduler;
 import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelHistory;
+import org.realityforge.saber.world.PositionStore;
 import org.realityforge.saber.world.Tile;
 import org.realityforge.saber.world.TileType;
 import org.realityforge.saber.world.TileTypeManager;
@@ -16,15 +37,79 @@ public final class Game
   private static final int FRAMES_PER_SECOND = 30;
   private static final int MILLIS_PER_SECOND = 1000;
   private static final int FRAME_DELAY = MILLIS_PER_SECOND / FRAMES_PER_SECOND;
+  private static final int LEVEL_SIZE = 19;
+  /**
+   * The time in milliseconds that may be spent planning monster behaviour each frame.
+   */
+  private static final double PLANNING_BUDGET = 4;
+  /**
+   * The number of tiles that can be retained by visited floors before they are compacted.
+   */
+  private static final int MAX_RESIDENT_TILES = LEVEL_SIZE * LEVEL_SIZE * 8;
+  /**
+   * The number of turns of history retained for the current floor.
+   */
+  private static final int MAX_HISTORY_VERSIONS = 1000;
+  /**
+   * The light that reaches tiles that are not lit by any light.
+   */
+  private static final int AMBIENT_LIGHT = 40;
+  private static final int PLAYER_TORCH_RADIUS = 5;
+  private static final int PLAYER_TORCH_INTENSITY = 255;
+  private static final int TORCH_RADIUS = 3;
+  private static final int TORCH_INTENSITY = 160;
+  /**
+   * The column and row of each torch on the first floor.
+   */
+  private static final int[] TORCH_LOCATIONS = { 3, 9, 7, 7, 11, 11, 13, 15, 15, 3 };
+  /**
+   * The distance from the edge of the screen at which the open world is recentred on the player.
+   */
+  private static final int OPEN_WORLD_MARGIN = 4;
+  /**
+   * The number of chunks around the player that are kept resident in the open world.
+   */
+  private static final int OPEN_WORLD_LOAD_RADIUS = 1;
+  private static final int OPEN_WORLD_MAX_RESIDENT_CHUNKS = 16;
   public static Game c_game;
   @Nonnull
   private final Renderer _renderer;
   @Nonnull
   private final TileTypeManager _tileTypeManager = new TileTypeManager();
   @Nonnull
-  private final TextureManager _textureManager = new TextureManager( this::texturesLoaded );
-  private Level _level;
+  private final TextureManager _textureManager = new TextureManager( new DomImageBackend() );
+  @Nullable
+  private FloorManager _floorManager;
+  @Nonnull
+  private final TurnScheduler _turnScheduler = new TurnScheduler();
+  @Nonnull
+  private final Planner _planner = new Planner( () -> DomGlobal.performance.now() );
+  private int _playerEntityId = -1;
+  @Nonnull
+  private final PositionStore _positionStore = new PositionStore();
+  @Nonnull
+  private final LightMap _lightMap = new LightMap( AMBIENT_LIGHT );
+  @Nonnull
+  private final Light _playerTorch = new Light( 0, 0, PLAYER_TORCH_RADIUS, PLAYER_TORCH_INTENSITY );
+  @Nonnull
+  private final Minimap _minimap;
+  @Nullable
+  private LevelHistory _levelHistory;
+  @Nonnull
+  private final SpawnTable<Texture> _itemTable = new SpawnTable<>();
+  @Nonnull
+  private final SpawnTable<Texture> _enemyTable = new SpawnTable<>();
   private boolean _texturesLoaded;
+  /**
+   * The textures referenced by the current level and the entities on it.
+   */
+  @Nullable
+  private TextureGroup _levelTextures;
+  /**
+   * The window onto the streamed world when playing in the open world, otherwise null.
+   */
+  @Nullable
+  private StreamedViewport _openWorld;
   @Nonnull
   private final SaberApplication _application;
   @Nonnull
@@ -40,6 +125,7 @@ public final class Game
   {
     c_game = this;
     _renderer = Objects.requireNonNull( renderer );
+    _minimap = new Minimap( renderer.getMinimapBuffer(), PLAYER_TORCH_RADIUS );
     _application = SaberApplication.create();
   }
 
@@ -63,51 +149,168 @@ public final class Game
 
   public Level getLevel()
   {
-    return _level;
-  }
-
-  public void init()
-  {
-    registerTile( "resources/tiles/spr_tile_door_locked", Tiles.WALL_DOOR_LOCKED );
-    registerTile( "resources/tiles/spr_tile_door_unlocked", Tiles.WALL_DOOR_UNLOCKED, TileType.Flags.SOLID );
-    registerTile( "resources/tiles/spr_tile_floor", Tiles.FLOOR, TileType.Flags.SOLID | TileType.Flags.FLOOR );
-    registerTile( "resources/tiles/spr_tile_floor_alt", Tiles.FLOOR_ALT, TileType.Flags.SOLID | TileType.Flags.FLOOR );
-    registerTile( "resources/tiles/spr_tile_wall_bottom_end", Tiles.WALL_BOTTOM_END );
-    registerTile( "resources/tiles/spr_tile_wall_bottom_left", Tiles.WALL_BOTTOM_LEFT );
-    registerTile( "resources/tiles/spr_tile_wall_bottom_right", Tiles.WALL_BOTTOM_RIGHT );
-    registerTile( "resources/tiles/spr_tile_wall_bottom_t", Tiles.WALL_BOTTOM_T );
-    registerTile( "resources/tiles/spr_tile_wall_entrance", Tiles.WALL_ENTRANCE );
-    registerTile( "resources/tiles/spr_tile_wall_intersection", Tiles.WALL_INTERSECTION );
-    registerTile( "resources/tiles/spr_tile_wall_side", Tiles.WALL_SIDE );
-    registerTile( "resources/tiles/spr_tile_wall_side_left_end", Tiles.WALL_SIDE_LEFT_END );
-    registerTile( "resources/tiles/spr_tile_wall_side_left_t", Tiles.WALL_SIDE_LEFT_T );
-    registerTile( "resources/tiles/spr_tile_wall_side_right_end", Tiles.WALL_SIDE_RIGHT_END );
-    registerTile( "resources/tiles/spr_tile_wall_side_right_t", Tiles.WALL_SIDE_RIGHT_T );
-    registerTile( "resources/tiles/spr_tile_wall_single", Tiles.WALL_SINGLE );
-    registerTile( "resources/tiles/spr_tile_wall_top", Tiles.WALL_TOP );
-    registerTile( "resources/tiles/spr_tile_wall_top_end", Tiles.WALL_TOP_END );
-    registerTile( "resources/tiles/spr_tile_wall_top_left", Tiles.WALL_TOP_LEFT );
-    registerTile( "resources/tiles/spr_tile_wall_top_right", Tiles.WALL_TOP_RIGHT );
-    registerTile( "resources/tiles/spr_tile_wall_top_t", Tiles.WALL_TOP_T );
-    final TileType emptyTileType = _tileTypeManager.registerEmptyTileType( Tiles.EMPTY, 0 );
-
-    initLevel( emptyTileType );
+    return getFloorManager().getCurrentFloor().getLevel();
+  }
+
+  @Nonnull
+  public PositionStore getPositionStore()
+  {
+    return _positionStore;
+  }
+
+  /**
+   * Return the history of the tiles of the current floor, with a version committed after every turn.
+   */
+  @Nonnull
+  public LevelHistory getLevelHistory()
+  {
+    assert null != _levelHistory;
+    return _levelHistory;
+  }
+
+  @Nonnull
+  public LightMap getLightMap()
+  {
+    return _lightMap;
+  }
+
+  @Nonnull
+  public Light getPlayerTorch()
+  {
+    return _playerTorch;
+  }
+
+  /**
+   * Load the textures of the current level and of the entities on it ahead of any other textures.
+   * This is invoked once the floor has been populated.
+   */
+  public void requestLevelTextures( @Nonnull final Collection<Texture> entityTextures )
+  {
+    _levelTextures = _textureManager.requestLevelTextures( getLevel(), entityTextures );
+  }
+
+  @Nonnull
+  public Minimap getMinimap()
+  {
+    return _minimap;
+  }
+
+  /**
+   * Return the table of items spawned on each floor, keyed by the texture of the item.
+   */
+  @Nonnull
+  public SpawnTable<Texture> getItemTable()
+  {
+    return _itemTable;
+  }
+
+  /**
+   * Return the table of enemies spawned on each floor, keyed by the texture of the enemy.
+   */
+  @Nonnull
+  public SpawnTable<Texture> getEnemyTable()
+  {
+    return _enemyTable;
+  }
+
+  /**
+   * Return the window onto the streamed world when playing in the open world, otherwise null.
+   */
+  @Nullable
+  public StreamedViewport getOpenWorld()
+  {
+    return _openWorld;
+  }
+
+  @Nonnull
+  public Planner getPlanner()
+  {
+    return _planner;
+  }
+
+  public int getPlayerEntityId()
+  {
+    assert -1 != _playerEntityId;
+    return _playerEntityId;
+  }
+
+  public void setPlayerEntityId( final int playerEntityId )
+  {
+    _playerEntityId = playerEntityId;
+  }
+
+  @Nonnull
+  public TurnScheduler getTurnScheduler()
+  {
+    return _turnScheduler;
+  }
+
+  @Nonnull
+  public FloorManager getFloorManager()
+  {
+    assert null != _floorManager;
+    return _floorManager;
+  }
+
+  /**
+   * Initialise the game.
+   *
+   * @param seed the master seed from which the seeds of every floor are derived. The same seed replays the same floors.
+   */
+  public void init( final int seed )
+  {
+    registerTiles();
+    final TileType emptyTileType = _tileTypeManager.getTileType( Tiles.EMPTY );
+
+    _floorManager = new FloorManager( new IdleFloorGenerationScheduler(),
+                                      _tileTypeManager,
+                                      emptyTileType,
+                                      SeedIndex.decode( SeedData.FLOOR_SEEDS ),
+                                      seed,
+                                      LEVEL_SIZE,
+                                      LEVEL_SIZE,
+                                      MAX_RESIDENT_TILES,
+                                      this::onFloorChanged );
 
     _textureManager.registerTexture( "resources/players/warrior/spr_warrior_idle_down" );
+    registerSpawnTables();
   }
 
-  private void initLevel( @Nonnull final TileType emptyTileType )
+  private void registerSpawnTables()
   {
-    _level = new Level( 19, 19, emptyTileType );
+    final SpawnTable<Texture> gold = new SpawnTable<Texture>()
+      .add( _textureManager.registerTexture( "resources/loot/gold/spr_pickup_gold_small" ), 6 )
+      .add( _textureManager.registerTexture( "resources/loot/gold/spr_pickup_gold_medium" ), 3 )
+      .add( _textureManager.registerTexture( "resources/loot/gold/spr_pickup_gold_large" ), 1, 3, Integer.MAX_VALUE );
+    final SpawnTable<Texture> potions = new SpawnTable<Texture>()
+      .add( _textureManager.registerTexture( "resources/loot/potions/spr_potion_health" ), 3 )
+      .add( _textureManager.registerTexture( "resources/loot/potions/spr_potion_mana" ), 2, 2, Integer.MAX_VALUE );
+    _itemTable
+      .addTable( gold, 40 )
+      .addTable( potions, 20 )
+      .add( _textureManager.registerTexture( "resources/loot/gem/spr_pickup_gem" ), 15 )
+      .add( _textureManager.registerTexture( "resources/loot/heart/spr_pickup_heart" ), 15 );
+
+    _enemyTable
+      .add( _textureManager.registerTexture( "resources/enemies/slime/spr_slime_idle_down" ), 6, 1, 4 )
+      .add( _textureManager.registerTexture( "resources/enemies/goblin/spr_goblin_idle_down" ), 4, 2, Integer.MAX_VALUE )
+      .add( _textureManager.registerTexture( "resources/enemies/skeleton/spr_skeleton_idle_down" ),
+            3,
+            3,
+            Integer.MAX_VALUE );
+  }
 
+  private void onFloorChanged( @Nonnull final Floor floor )
+  {
+    final Level level = floor.getLevel();
     final HTMLCanvasElement canvas = _renderer.getCanvas();
-    final double cellWidth = canvas.width / ( _level.getColumnCount() * 1D );
-    final double cellHeight = canvas.height / ( _level.getRowCount() * 1D );
+    final double cellWidth = canvas.width / ( level.getColumnCount() * 1D );
+    final double cellHeight = canvas.height / ( level.getRowCount() * 1D );
 
     int index = 0;
-    final int columnCount = _level.getColumnCount();
-    final int rowCount = _level.getRowCount();
-    final Tile[] tiles = _level.getTiles();
+    final int columnCount = level.getColumnCount();
+    final int rowCount = level.getRowCount();
+    final Tile[] tiles = level.getTiles();
     double topLeftY = 0;
     for ( int i = 0; i < rowCount; i++ )
     {
@@ -121,15 +324,62 @@ public final class Game
       }
       topLeftY += cellHeight;
     }
+
+    startLevelHistory( level );
+
+    _lightMap.setLevel( level );
+    _lightMap.clearLights();
+    _lightMap.addLight( _playerTorch );
+    if ( 1 == floor.getFloorNumber() && null == _openWorld )
+    {
+      for ( int i = 0; i < TORCH_LOCATIONS.length; i += 2 )
+      {
+        _lightMap.addLight( new Light( TORCH_LOCATIONS[ i ], TORCH_LOCATIONS[ i + 1 ], TORCH_RADIUS, TORCH_INTENSITY ) );
+      }
+    }
+  }
+
+  private void startLevelHistory( @Nonnull final Level level )
+  {
+    _levelHistory = new LevelHistory( level, MAX_HISTORY_VERSIONS );
+    _levelHistory.commit();
   }
 
   public void start( @Nonnull final String levelData )
   {
-    _textureManager.startTextureLoad();
-    loadFromData( levelData );
+    final Level level = new Level( LEVEL_SIZE, LEVEL_SIZE, _tileTypeManager.getTileType( Tiles.EMPTY ) );
+    loadFromData( level, levelData );
+    final LevelLayout layout = LevelLayout.fromLevel( level );
+    getFloorManager().enterFloor( new Floor( 1, 0, level, layout.getEntranceIndex(), layout.getExitIndex() ) );
+    run();
+  }
 
+  /**
+   * Start the game in an open world streamed from the seed rather than descending through fixed size floors.
+   * The screen shows a window onto the world that follows the player.
+   */
+  public void startOpenWorld( final int seed )
+  {
+    final Level level = new Level( LEVEL_SIZE, LEVEL_SIZE, _tileTypeManager.getTileType( Tiles.EMPTY ) );
+    final StreamedWorld world =
+      new StreamedWorld( seed, new MemoryChunkStore(), OPEN_WORLD_LOAD_RADIUS, OPEN_WORLD_MAX_RESIDENT_CHUNKS );
+    _openWorld = new StreamedViewport( world, level, _tileTypeManager, OPEN_WORLD_MARGIN );
+    // The player starts at the centre of the window so it must be centred on a floor tile
+    _openWorld.centreOnFloor( 0, 0, StreamedWorld.CHUNK_SIZE );
+    // The open world has no stairs so the entrance and exit indexes never match a tile
+    getFloorManager().enterFloor( new Floor( 1, seed, level, -1, -1 ) );
+    run();
+  }
+
+  private void run()
+  {
     getApplication().sim().process( 1 );
 
+    // Rendering starts once the textures of the first level are available and the remainder of the
+    // textures are loaded in the background
+    assert null != _levelTextures;
+    _levelTextures.getPromise().then( this::texturesLoaded );
+
     runFrame();
     DomGlobal.setInterval( v -> runFrame(), FRAME_DELAY );
     DomGlobal.document.addEventListener( "keydown", e -> onKeyUp( (KeyboardEvent) e ) );
@@ -167,7 +417,27 @@ public final class Game
   private void executeTurn( @Nonnull final CommandType commandType )
   {
     _commandType = commandType;
+    // Complete the plans due this turn so that the plans applied do not depend upon how much of the
+    // planning budget the intervening frames used
+    _planner.beginTurn();
     getApplication().sim().process( 1 );
+    if ( null != _openWorld )
+    {
+      _openWorld.store();
+    }
+    getLevelHistory().commit();
+  }
+
+  /**
+   * Invoked when the open world window has been recentred so that the state derived from tile positions moves
+   * with the tiles. The minimap is translated, while outstanding plans and the history of the level are
+   * expressed in the previous positions and so are discarded.
+   */
+  public void onOpenWorldRecentred( final int deltaColumn, final int deltaRow )
+  {
+    _minimap.translate( deltaColumn, deltaRow );
+    _planner.invalidate();
+    startLevelHistory( getLevel() );
   }
 
   @Nonnull
@@ -178,6 +448,7 @@ public final class Game
 
   private void runFrame()
   {
+    _planner.process( PLANNING_BUDGET );
     if ( _texturesLoaded )
     {
       renderWorld();
@@ -189,36 +460,55 @@ public final class Game
     getApplication().renderStage().process( 1 );
   }
 
-  private void registerTile( @Nonnull final String textureName, final int value )
+  private void registerTiles()
   {
-    registerTile( textureName, value, 0 );
-  }
-
-  private void registerTile( @Nonnull final String textureName, final int value, final int flags )
-  {
-    _tileTypeManager.registerTileType( value, _textureManager.registerTexture( textureName ), flags );
+    final Texture[] textures = new Texture[ TileRegistry.TEXTURE_COUNT ];
+    for ( int i = 0; i < textures.length; i++ )
+    {
+      textures[ i ] = _textureManager.registerTexture( TileRegistry.getTexture( i ) );
+    }
+    for ( int i = 0; i < TileRegistry.COUNT; i++ )
+    {
+      final int id = TileRegistry.getId( i );
+      final int flags = TileRegistry.getFlags( id );
+      final int textureIndex = TileRegistry.getTextureIndex( id );
+      if ( -1 == textureIndex )
+      {
+        _tileTypeManager.registerEmptyTileType( id, flags );
+      }
+      else
+      {
+        _tileTypeManager.registerTileType( id, textures[ textureIndex ], flags );
+      }
+    }
   }
 
-  private void texturesLoaded()
+  @Nullable
+  private Promise<Object> texturesLoaded( @Nonnull final TextureGroup group )
   {
-    DomGlobal.console.log( "Textures loaded" );
+    DomGlobal.console.log( "Textures loaded: " + group.getLoadedCount() + " of " + group.getTextureCount() );
+    for ( final Texture texture : group.getFailedTextures() )
+    {
+      DomGlobal.console.warn( "Failed to load texture " + texture.getName() );
+    }
     _texturesLoaded = true;
+    _textureManager.loadAll();
+    return null;
   }
 
-  public void loadFromData( @Nonnull final String data )
+  public void loadFromData( @Nonnull final Level level, @Nonnull final String data )
   {
     int index = 0;
     int charIndex = 0;
-    final int columnCount = _level.getColumnCount();
-    final int rowCount = _level.getRowCount();
-    final Tile[] tiles = _level.getTiles();
+    final int columnCount = level.getColumnCount();
+    final int rowCount = level.getRowCount();
     for ( int j = 0; j < columnCount; j++ )
     {
       for ( int i = 0; i < rowCount; i++ )
       {
         // Format for each cell is [\d\d]
         final int tileId = ( data.charAt( charIndex + 1 ) - '0' ) * 10 + data.charAt( charIndex + 2 ) - '0';
-        tiles[ index++ ].setTileType( _tileTypeManager.getTileType( tileId ) );
+        level.setTileType( index++, _tileTypeManager.getTileType( tileId ) );
         charIndex += 4;
       }
 
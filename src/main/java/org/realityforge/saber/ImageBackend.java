@@ -0,0 +1,16 @@
+package org.realityforge.saber;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The mechanism by which the {@link TextureManager} loads images.
+ */
+public interface ImageBackend
+{
+  /**
+   * Start loading the image for the texture.
+   * The backend must invoke exactly one of the callbacks once the load completes.
+   * The backend is responsible for supplying the image to the texture before invoking {@code onLoad}.
+   */
+  void load( @Nonnull Texture texture, @Nonnull Runnable onLoad, @Nonnull Runnable onError );
+}
@@ -0,0 +1,97 @@
+package org.realityforge.saber;
+
+import elemental2.dom.CanvasRenderingContext2D;
+import elemental2.dom.DomGlobal;
+import elemental2.dom.HTMLCanvasElement;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import jsinterop.base.Js;
+import org.realityforge.saber.light.LightMap;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelJournal;
+
+/**
+ * An offscreen canvas containing the darkness of each tile of the current level.
+ * The layer consumes the changes recorded by the light map so that only tiles whose light has changed are
+ * redrawn and the layer is copied to the screen with a single draw call per frame.
+ */
+public final class LightLayer
+{
+  private static final CanvasRenderingContext2D.FillStyleUnionType DARKNESS =
+    CanvasRenderingContext2D.FillStyleUnionType.of( "black" );
+  @Nonnull
+  private final HTMLCanvasElement _canvas;
+  @Nonnull
+  private final CanvasRenderingContext2D _context;
+  @Nonnull
+  private final LevelJournal.ChangeListener _drawTile = this::drawTile;
+  @Nullable
+  private Level _level;
+  @Nullable
+  private LightMap _lightMap;
+  private int _cellWidth;
+  private int _cellHeight;
+
+  LightLayer( final int width, final int height )
+  {
+    _canvas = (HTMLCanvasElement) DomGlobal.document.createElement( "canvas" );
+    _canvas.width = width;
+    _canvas.height = height;
+    _context = Js.uncheckedCast( _canvas.getContext( "2d" ) );
+    _context.fillStyle = DARKNESS;
+  }
+
+  @Nonnull
+  public HTMLCanvasElement getCanvas()
+  {
+    return _canvas;
+  }
+
+  /**
+   * Bring the layer up to date with the light map.
+   * The light map should have been updated prior to invoking this method.
+   */
+  public void update( @Nonnull final Level level, @Nonnull final LightMap lightMap )
+  {
+    if ( _level != level || _lightMap != lightMap )
+    {
+      _level = level;
+      _lightMap = lightMap;
+      _cellWidth = _canvas.width / level.getColumnCount();
+      _cellHeight = _canvas.height / level.getRowCount();
+      lightMap.syncChanges( _drawTile );
+      drawAll();
+    }
+    else if ( !lightMap.syncChanges( _drawTile ) )
+    {
+      drawAll();
+    }
+  }
+
+  private void drawAll()
+  {
+    assert null != _level;
+    _context.clearRect( 0, 0, _canvas.width, _canvas.height );
+    final int tileCount = _level.getTiles().length;
+    for ( int i = 0; i < tileCount; i++ )
+    {
+      drawTile( i );
+    }
+  }
+
+  private void drawTile( final int index )
+  {
+    assert null != _level;
+    assert null != _lightMap;
+    final int columnCount = _level.getColumnCount();
+    final int x = ( index % columnCount ) * _cellWidth;
+    final int y = ( index / columnCount ) * _cellHeight;
+    _context.clearRect( x, y, _cellWidth, _cellHeight );
+    final int darkness = LightMap.MAX_LIGHT - _lightMap.getLight( index );
+    if ( 0 != darkness )
+    {
+      _context.globalAlpha = darkness / ( LightMap.MAX_LIGHT * 1D );
+      _context.fillRect( x, y, _cellWidth, _cellHeight );
+    }
+  }
+}
@@ -12,6 +12,14 @@ public final class Renderer
   private final HTMLCanvasElement _canvas;
   @Nonnull
   private final CanvasRenderingContext2D _context;
+  @Nonnull
+  private final TileLayer _tileLayer;
+  @Nonnull
+  private final LightLayer _lightLayer;
+  @Nonnull
+  private final SpriteBatch _spriteBatch = new SpriteBatch();
+  @Nonnull
+  private final CanvasMinimapBuffer _minimapBuffer = new CanvasMinimapBuffer();
 
   public Renderer( final int width, final int height )
   {
@@ -20,6 +28,8 @@ public final class Renderer
     _canvas.height = height;
     DomGlobal.document.documentElement.appendChild( _canvas );
     _context = Js.uncheckedCast( _canvas.getContext( "2d" ) );
+    _tileLayer = new TileLayer( width, height );
+    _lightLayer = new LightLayer( width, height );
   }
 
   @Nonnull
@@ -33,4 +43,28 @@ public final class Renderer
   {
     return _context;
   }
+
+  @Nonnull
+  public TileLayer getTileLayer()
+  {
+    return _tileLayer;
+  }
+
+  @Nonnull
+  public LightLayer getLightLayer()
+  {
+    return _lightLayer;
+  }
+
+  @Nonnull
+  public SpriteBatch getSpriteBatch()
+  {
+    return _spriteBatch;
+  }
+
+  @Nonnull
+  public CanvasMinimapBuffer getMinimapBuffer()
+  {
+    return _minimapBuffer;
+  }
 }
@@ -1,16 +1,59 @@
 package org.realityforge.saber;
 
 import com.google.gwt.core.client.EntryPoint;
+import elemental2.dom.DomGlobal;
+import javax.annotation.Nonnull;
 import org.realityforge.saber.game.LevelData;
 
 public class Saber
   implements EntryPoint
 {
+  /**
+   * The query parameter that selects the open world rather than the fixed floors.
+   */
+  private static final String OPEN_WORLD_PARAMETER = "world=open";
+  /**
+   * The query parameter that replays a previous game by supplying its seed.
+   */
+  private static final String SEED_PARAMETER = "seed=";
+
   @Override
   public void onModuleLoad()
   {
+    final String search = DomGlobal.location.search;
+    final int seed = parseSeed( search );
+    DomGlobal.console.log( "Seed: " + seed + " (replay with ?" + SEED_PARAMETER + seed + ")" );
     final Game game = new Game( new Renderer( 950, 950 ) );
-    game.init();
-    game.start( LevelData.LEVEL1_DATA );
+    game.init( seed );
+    if ( search.contains( OPEN_WORLD_PARAMETER ) )
+    {
+      game.startOpenWorld( seed );
+    }
+    else
+    {
+      game.start( LevelData.LEVEL1_DATA );
+    }
+  }
+
+  /**
+   * Return the seed supplied in the query string or a seed derived from the current time if none was supplied.
+   */
+  private static int parseSeed( @Nonnull final String search )
+  {
+    final int start = search.indexOf( SEED_PARAMETER );
+    if ( -1 != start )
+    {
+      final int valueStart = start + SEED_PARAMETER.length();
+      final int end = search.indexOf( '&', valueStart );
+      try
+      {
+        return Integer.parseInt( -1 == end ? search.substring( valueStart ) : search.substring( valueStart, end ) );
+      }
+      catch ( final NumberFormatException ignored )
+      {
+        DomGlobal.console.warn( "Ignoring invalid seed in " + search );
+      }
+    }
+    return (int) System.currentTimeMillis();
   }
 }
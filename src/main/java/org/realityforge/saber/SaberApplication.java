@@ -4,17 +4,29 @@ import galdr.Stage;
 import galdr.annotations.GaldrApplication;
 import galdr.annotations.GaldrStage;
 import javax.annotation.Nonnull;
+import org.realityforge.saber.components.Actor;
 import org.realityforge.saber.components.CommandTarget;
 import org.realityforge.saber.components.Hello;
+import org.realityforge.saber.components.Monster;
 import org.realityforge.saber.components.Player;
 import org.realityforge.saber.components.Position;
 import org.realityforge.saber.components.Sprite;
+import org.realityforge.saber.systems.AiSystem;
 import org.realityforge.saber.systems.CommandSystem;
+import org.realityforge.saber.systems.FloorTransitionSystem;
 import org.realityforge.saber.systems.HelloWorldSystem;
 import org.realityforge.saber.systems.InitializerSystem;
 import org.realityforge.saber.systems.RenderSystem;
+import org.realityforge.saber.systems.SpawnSystem;
+import org.realityforge.saber.systems.TurnSystem;
 
-@GaldrApplication( components = { CommandTarget.class, Hello.class, Position.class, Sprite.class, Player.class } )
+@GaldrApplication( components = { Actor.class,
+                                  CommandTarget.class,
+                                  Hello.class,
+                                  Monster.class,
+                                  Position.class,
+                                  Sprite.class,
+                                  Player.class } )
 abstract class SaberApplication
 {
   @Nonnull
@@ -23,7 +35,13 @@ abstract class SaberApplication
     return new Galdr_SaberApplication();
   }
 
-  @GaldrStage( { InitializerSystem.class, CommandSystem.class, HelloWorldSystem.class } )
+  @GaldrStage( { InitializerSystem.class,
+                 CommandSystem.class,
+                 FloorTransitionSystem.class,
+                 SpawnSystem.class,
+                 TurnSystem.class,
+                 AiSystem.class,
+                 HelloWorldSystem.class } )
   @Nonnull
   abstract Stage sim();
 
@@ -0,0 +1,161 @@
+package org.realityforge.saber;
+
+import elemental2.dom.CanvasRenderingContext2D;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Collects the sprites to draw in a frame and draws them in depth order.
+ *
+ * <p>Each sprite is assigned a sort key that packs the layer, the row and the texture id so that sprites are
+ * drawn layer by layer, back to front within a layer and grouped by texture within a row. The keys are sorted
+ * with a least significant digit radix sort that also permutes the slot of each sprite. All buffers are
+ * retained between frames so that a frame does not allocate unless the number of sprites grows.</p>
+ */
+public final class SpriteBatch
+{
+  public static final int MAX_LAYER = 7;
+  private static final int LAYER_SHIFT = 28;
+  private static final int ROW_SHIFT = 16;
+  private static final int ROW_MASK = 0xFFF;
+  private static final int TEXTURE_MASK = 0xFFFF;
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX_SIZE = 1 << RADIX_BITS;
+  private static final int RADIX_MASK = RADIX_SIZE - 1;
+  private static final int INITIAL_CAPACITY = 64;
+  @Nonnull
+  private final int[] _counts = new int[ RADIX_SIZE ];
+  @Nonnull
+  private int[] _keys = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _slots = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _sortedKeys = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _sortedSlots = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private Texture[] _textures = new Texture[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _columns = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _rows = new int[ INITIAL_CAPACITY ];
+  private int _count;
+
+  /**
+   * Discard the sprites collected in the previous frame.
+   */
+  public void begin()
+  {
+    // Release references to textures so the batch does not retain them
+    Arrays.fill( _textures, 0, _count, null );
+    _count = 0;
+  }
+
+  public int size()
+  {
+    return _count;
+  }
+
+  public void add( final int layer, final int column, final int row, @Nonnull final Texture texture )
+  {
+    assert layer >= 0 && layer <= MAX_LAYER;
+    if ( _count == _keys.length )
+    {
+      grow();
+    }
+    final int slot = _count++;
+    _keys[ slot ] =
+      ( layer << LAYER_SHIFT ) | ( ( row & ROW_MASK ) << ROW_SHIFT ) | ( texture.getId() & TEXTURE_MASK );
+    _slots[ slot ] = slot;
+    _textures[ slot ] = texture;
+    _columns[ slot ] = column;
+    _rows[ slot ] = row;
+  }
+
+  /**
+   * Sort the collected sprites and draw them.
+   */
+  public void draw( @Nonnull final CanvasRenderingContext2D context, final int cellWidth, final int cellHeight )
+  {
+    sort();
+    final int[] slots = _slots;
+    boolean placeholderStyleSet = false;
+    for ( int i = 0; i < _count; i++ )
+    {
+      final int slot = slots[ i ];
+      final Texture texture = _textures[ slot ];
+      final int x = _columns[ slot ] * cellWidth;
+      final int y = _rows[ slot ] * cellHeight;
+      if ( texture.isReady() )
+      {
+        context.drawImage( texture.getImage(), x, y );
+      }
+      else
+      {
+        if ( !placeholderStyleSet )
+        {
+          context.fillStyle = CanvasRenderingContext2D.FillStyleUnionType.of( Texture.PLACEHOLDER_COLOR );
+          placeholderStyleSet = true;
+        }
+        context.fillRect( x, y, cellWidth, cellHeight );
+      }
+    }
+  }
+
+  private void sort()
+  {
+    final int count = _count;
+    if ( 0 == count )
+    {
+      return;
+    }
+    final int[] counts = _counts;
+    for ( int shift = 0; shift < 32; shift += RADIX_BITS )
+    {
+      Arrays.fill( counts, 0 );
+      final int[] keys = _keys;
+      for ( int i = 0; i < count; i++ )
+      {
+        counts[ ( keys[ i ] >>> shift ) & RADIX_MASK ]++;
+      }
+      // Skip the pass if every key has the same digit as the pass would not change the order
+      if ( count == counts[ ( keys[ 0 ] >>> shift ) & RADIX_MASK ] )
+      {
+        continue;
+      }
+      int offset = 0;
+      for ( int i = 0; i < RADIX_SIZE; i++ )
+      {
+        final int bucketSize = counts[ i ];
+        counts[ i ] = offset;
+        offset += bucketSize;
+      }
+      final int[] slots = _slots;
+      final int[] sortedKeys = _sortedKeys;
+      final int[] sortedSlots = _sortedSlots;
+      for ( int i = 0; i < count; i++ )
+      {
+        final int key = keys[ i ];
+        final int position = counts[ ( key >>> shift ) & RADIX_MASK ]++;
+        sortedKeys[ position ] = key;
+        sortedSlots[ position ] = slots[ i ];
+      }
+      _sortedKeys = keys;
+      _sortedSlots = slots;
+      _keys = sortedKeys;
+      _slots = sortedSlots;
+    }
+  }
+
+  private void grow()
+  {
+    final int capacity = _keys.length * 2;
+    _keys = Arrays.copyOf( _keys, capacity );
+    _slots = Arrays.copyOf( _slots, capacity );
+    _sortedKeys = new int[ capacity ];
+    _sortedSlots = new int[ capacity ];
+    _textures = Arrays.copyOf( _textures, capacity );
+    _columns = Arrays.copyOf( _columns, capacity );
+    _rows = Arrays.copyOf( _rows, capacity );
+  }
+}
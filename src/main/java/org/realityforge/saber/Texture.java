@@ -1,27 +1,53 @@
 package org.realityforge.saber;
 
-import elemental2.dom.DomGlobal;
 import elemental2.dom.HTMLImageElement;
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public final class Texture
 {
+  public enum State
+  {
+    // The texture has been registered but no load has been requested
+    REGISTERED,
+    // The texture is waiting for a free load slot
+    QUEUED,
+    // The image backend is loading the texture
+    LOADING,
+    LOADED,
+    FAILED
+  }
+
+  /**
+   * The colour drawn in place of a texture that is not ready.
+   */
+  @Nonnull
+  public static final String PLACEHOLDER_COLOR = "#303030";
+  private final int _id;
   @Nonnull
   private final String _name;
   @Nonnull
-  private final HTMLImageElement _image;
+  private State _state = State.REGISTERED;
+  /**
+   * True if the texture was queued as a priority load.
+   */
+  private boolean _priority;
+  @Nullable
+  private HTMLImageElement _image;
 
-  Texture( @Nonnull final String name )
+  Texture( final int id, @Nonnull final String name )
   {
+    _id = id;
     _name = Objects.requireNonNull( name );
-    _image = (HTMLImageElement) DomGlobal.document.createElement( "img" );
   }
 
-  void startLoad( @Nonnull final HTMLImageElement.OnloadFn onImageLoaded )
+  /**
+   * Return the id of the texture. Ids are allocated sequentially from 0 as textures are registered.
+   */
+  public int getId()
   {
-    _image.onload = onImageLoaded;
-    _image.src = _name + ".png";
+    return _id;
   }
 
   @Nonnull
@@ -30,9 +56,53 @@ public final class Texture
     return _name;
   }
 
+  @Nonnull
+  public State getState()
+  {
+    return _state;
+  }
+
+  void setState( @Nonnull final State state )
+  {
+    _state = Objects.requireNonNull( state );
+  }
+
+  boolean isPriority()
+  {
+    return _priority;
+  }
+
+  void setPriority( final boolean priority )
+  {
+    _priority = priority;
+  }
+
+  /**
+   * Return true if the image has loaded and can be drawn.
+   * Textures that are not ready should be drawn as a placeholder.
+   */
+  public boolean isReady()
+  {
+    return State.LOADED == _state;
+  }
+
+  /**
+   * Return true if the texture has either loaded or failed to load.
+   */
+  public boolean isSettled()
+  {
+    return State.LOADED == _state || State.FAILED == _state;
+  }
+
   @Nonnull
   public HTMLImageElement getImage()
   {
+    assert null != _image;
     return _image;
   }
+
+  void setImage( @Nonnull final HTMLImageElement image )
+  {
+    _image = Objects.requireNonNull( image );
+  }
 }
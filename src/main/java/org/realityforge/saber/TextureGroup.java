@@ -0,0 +1,133 @@
+package org.realityforge.saber;
+
+import elemental2.promise.Promise;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A set of textures requested together, such as those referenced by the current level.
+ * The group tracks the progress of the loads and becomes complete once every texture in
+ * the group has either loaded or failed. A failed texture does not prevent completion, it
+ * is reported via {@link #getFailedTextures()} and drawn as a placeholder.
+ */
+public final class TextureGroup
+{
+  @Nonnull
+  private final Texture[] _textures;
+  /**
+   * Bitset indexed by texture id identifying the members of the group.
+   */
+  @Nonnull
+  private final int[] _members;
+  @Nonnull
+  private final List<Texture> _failedTextures = new ArrayList<>();
+  @Nonnull
+  private final List<Runnable> _onComplete = new ArrayList<>();
+  private int _loadedCount;
+  @Nullable
+  private Promise<TextureGroup> _promise;
+
+  TextureGroup( @Nonnull final Texture[] textures, final int textureIdCount )
+  {
+    _textures = Objects.requireNonNull( textures );
+    _members = new int[ ( textureIdCount + 31 ) >> 5 ];
+    for ( final Texture texture : textures )
+    {
+      final int id = texture.getId();
+      _members[ id >> 5 ] |= 1 << ( id & 31 );
+      if ( texture.isReady() )
+      {
+        _loadedCount++;
+      }
+      else if ( Texture.State.FAILED == texture.getState() )
+      {
+        _failedTextures.add( texture );
+      }
+    }
+  }
+
+  public int getTextureCount()
+  {
+    return _textures.length;
+  }
+
+  public int getLoadedCount()
+  {
+    return _loadedCount;
+  }
+
+  public int getFailedCount()
+  {
+    return _failedTextures.size();
+  }
+
+  @Nonnull
+  public List<Texture> getFailedTextures()
+  {
+    return Collections.unmodifiableList( _failedTextures );
+  }
+
+  public boolean isComplete()
+  {
+    return _loadedCount + _failedTextures.size() == _textures.length;
+  }
+
+  boolean contains( @Nonnull final Texture texture )
+  {
+    final int id = texture.getId();
+    return id < ( _members.length << 5 ) && 0 != ( _members[ id >> 5 ] & ( 1 << ( id & 31 ) ) );
+  }
+
+  /**
+   * Register a callback to run once the group is complete.
+   * The callback is run immediately if the group is already complete.
+   */
+  public void whenComplete( @Nonnull final Runnable action )
+  {
+    if ( isComplete() )
+    {
+      action.run();
+    }
+    else
+    {
+      _onComplete.add( Objects.requireNonNull( action ) );
+    }
+  }
+
+  /**
+   * Return a promise that resolves with the group once the group is complete.
+   */
+  @Nonnull
+  public Promise<TextureGroup> getPromise()
+  {
+    if ( null == _promise )
+    {
+      _promise = new Promise<>( ( resolve, reject ) -> whenComplete( () -> resolve.onInvoke( this ) ) );
+    }
+    return _promise;
+  }
+
+  void onTextureSettled( @Nonnull final Texture texture )
+  {
+    if ( texture.isReady() )
+    {
+      _loadedCount++;
+    }
+    else
+    {
+      _failedTextures.add( texture );
+    }
+    if ( isComplete() )
+    {
+      for ( final Runnable action : _onComplete )
+      {
+        action.run();
+      }
+      _onComplete.clear();
+    }
+  }
+}
@@ -1,57 +1,229 @@
 package org.realityforge.saber;
 
-import elemental2.dom.Event;
-import elemental2.dom.HTMLImageElement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.Tile;
 
+/**
+ * Registry and loader of textures.
+ * Textures are loaded on demand. Textures requested via {@link #requestTexture(Texture)} or as part of a
+ * {@link TextureGroup} are loaded before textures queued via {@link #loadAll()} and at most
+ * {@link #MAX_CONCURRENT_LOADS} loads are in flight at any one time so that priority loads are not stuck
+ * behind the rest of the catalogue.
+ */
 public final class TextureManager
 {
+  /**
+   * The maximum number of textures loading at any one time.
+   * This matches the number of concurrent connections most browsers make to a single host.
+   */
+  public static final int MAX_CONCURRENT_LOADS = 6;
+  @Nonnull
+  private final ImageBackend _backend;
   @Nonnull
   private final Map<String, Texture> _textures = new HashMap<>();
   @Nonnull
-  private final Runnable _onReady;
-  private int _loadedImageCount;
+  private final List<Texture> _textureList = new ArrayList<>();
+  @Nonnull
+  private final ArrayDeque<Texture> _priorityQueue = new ArrayDeque<>();
+  @Nonnull
+  private final ArrayDeque<Texture> _backgroundQueue = new ArrayDeque<>();
+  @Nonnull
+  private final List<TextureGroup> _pendingGroups = new ArrayList<>();
+  @Nonnull
+  private final List<Texture> _failedTextures = new ArrayList<>();
+  private int _activeLoadCount;
+  private int _loadedCount;
+  /**
+   * A counter incremented every time a texture loads. Consumers that draw placeholders
+   * compare the generation to determine whether they need to redraw.
+   */
+  private int _loadGeneration;
 
-  public TextureManager( @Nonnull final Runnable onReady )
+  public TextureManager( @Nonnull final ImageBackend backend )
   {
-    _onReady = Objects.requireNonNull( onReady );
+    _backend = Objects.requireNonNull( backend );
   }
 
   @Nonnull
   Texture registerTexture( @Nonnull final String name )
   {
-    final Texture texture = new Texture( name );
+    final Texture texture = new Texture( _textureList.size(), name );
     _textures.put( Objects.requireNonNull( name ), texture );
+    _textureList.add( texture );
     return texture;
   }
 
-  void startTextureLoad()
+  @Nonnull
+  public Texture getImageByName( @Nonnull final String name )
+  {
+    return Objects.requireNonNull( _textures.get( name ) );
+  }
+
+  public int getTextureCount()
+  {
+    return _textureList.size();
+  }
+
+  public int getLoadedCount()
+  {
+    return _loadedCount;
+  }
+
+  public int getFailedCount()
+  {
+    return _failedTextures.size();
+  }
+
+  @Nonnull
+  public List<Texture> getFailedTextures()
+  {
+    return Collections.unmodifiableList( _failedTextures );
+  }
+
+  public int getLoadGeneration()
+  {
+    return _loadGeneration;
+  }
+
+  /**
+   * Load the texture ahead of any background loads.
+   * This is a no-op if the texture is already loading, loaded or failed.
+   */
+  public void requestTexture( @Nonnull final Texture texture )
   {
-    final HTMLImageElement.OnloadFn onImageLoaded = this::onImageLoaded;
-    for ( final Texture texture : _textures.values() )
+    final Texture.State state = texture.getState();
+    if ( Texture.State.REGISTERED == state || ( Texture.State.QUEUED == state && !texture.isPriority() ) )
     {
-      texture.startLoad( onImageLoaded );
+      // A texture promoted from the background queue is left in that queue and skipped when dequeued
+      texture.setState( Texture.State.QUEUED );
+      texture.setPriority( true );
+      _priorityQueue.add( texture );
+      startLoads();
     }
   }
 
-  @Nullable
-  private Object onImageLoaded( @Nonnull final Event event )
+  /**
+   * Load the textures ahead of any background loads and return a group that tracks their progress.
+   */
+  @Nonnull
+  public TextureGroup requestTextures( @Nonnull final Collection<Texture> textures )
   {
-    _loadedImageCount++;
-    if ( _textures.size() == _loadedImageCount )
+    final int[] seen = new int[ ( _textureList.size() + 31 ) >> 5 ];
+    final List<Texture> members = new ArrayList<>();
+    for ( final Texture texture : textures )
+    {
+      final int id = texture.getId();
+      if ( 0 == ( seen[ id >> 5 ] & ( 1 << ( id & 31 ) ) ) )
+      {
+        seen[ id >> 5 ] |= 1 << ( id & 31 );
+        members.add( texture );
+      }
+    }
+    final TextureGroup group = new TextureGroup( members.toArray( new Texture[ 0 ] ), _textureList.size() );
+    if ( !group.isComplete() )
     {
-      _onReady.run();
+      _pendingGroups.add( group );
+      for ( final Texture texture : members )
+      {
+        requestTexture( texture );
+      }
     }
-    return null;
+    return group;
   }
 
+  /**
+   * Load the textures referenced by the tiles of the level and any additional textures, such as those
+   * of the entities initially visible, ahead of any background loads.
+   */
   @Nonnull
-  public Texture getImageByName( @Nonnull final String name )
+  public TextureGroup requestLevelTextures( @Nonnull final Level level, @Nonnull final Collection<Texture> additional )
   {
-    return Objects.requireNonNull( _textures.get( name ) );
+    final List<Texture> textures = new ArrayList<>( additional );
+    for ( final Tile tile : level.getTiles() )
+    {
+      final Texture texture = tile.getTileType().getTexture();
+      if ( null != texture )
+      {
+        textures.add( texture );
+      }
+    }
+    return requestTextures( textures );
+  }
+
+  /**
+   * Queue every texture that has not yet been requested so that it loads after any priority loads.
+   */
+  public void loadAll()
+  {
+    for ( final Texture texture : _textureList )
+    {
+      if ( Texture.State.REGISTERED == texture.getState() )
+      {
+        texture.setState( Texture.State.QUEUED );
+        _backgroundQueue.add( texture );
+      }
+    }
+    startLoads();
+  }
+
+  private void startLoads()
+  {
+    while ( _activeLoadCount < MAX_CONCURRENT_LOADS )
+    {
+      final Texture texture =
+        !_priorityQueue.isEmpty() ? _priorityQueue.poll() :
+        !_backgroundQueue.isEmpty() ? _backgroundQueue.poll() :
+        null;
+      if ( null == texture )
+      {
+        break;
+      }
+      else if ( Texture.State.QUEUED == texture.getState() )
+      {
+        texture.setState( Texture.State.LOADING );
+        _activeLoadCount++;
+        _backend.load( texture,
+                       () -> onTextureSettled( texture, Texture.State.LOADED ),
+                       () -> onTextureSettled( texture, Texture.State.FAILED ) );
+      }
+    }
+  }
+
+  private void onTextureSettled( @Nonnull final Texture texture, @Nonnull final Texture.State state )
+  {
+    assert Texture.State.LOADING == texture.getState();
+    _activeLoadCount--;
+    texture.setState( state );
+    if ( Texture.State.LOADED == state )
+    {
+      _loadedCount++;
+      _loadGeneration++;
+    }
+    else
+    {
+      _failedTextures.add( texture );
+    }
+    // Iterate over a copy as completion callbacks may request further textures
+    for ( final TextureGroup group : _pendingGroups.toArray( new TextureGroup[ 0 ] ) )
+    {
+      if ( group.contains( texture ) )
+      {
+        group.onTextureSettled( texture );
+        if ( group.isComplete() )
+        {
+          _pendingGroups.remove( group );
+        }
+      }
+    }
+    startLoads();
   }
 }
@@ -0,0 +1,122 @@
+package org.realityforge.saber;
+
+import elemental2.dom.CanvasRenderingContext2D;
+import elemental2.dom.DomGlobal;
+import elemental2.dom.HTMLCanvasElement;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import jsinterop.base.Js;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelJournal;
+import org.realityforge.saber.world.Tile;
+
+/**
+ * An offscreen canvas containing the rendered tiles of the current level.
+ * The layer consumes the level journal so that only tiles that have changed are redrawn and the layer is
+ * copied to the screen with a single draw call per frame.
+ */
+public final class TileLayer
+{
+  private static final CanvasRenderingContext2D.FillStyleUnionType BACKGROUND =
+    CanvasRenderingContext2D.FillStyleUnionType.of( "black" );
+  private static final CanvasRenderingContext2D.FillStyleUnionType PLACEHOLDER =
+    CanvasRenderingContext2D.FillStyleUnionType.of( Texture.PLACEHOLDER_COLOR );
+  @Nonnull
+  private final HTMLCanvasElement _canvas;
+  @Nonnull
+  private final CanvasRenderingContext2D _context;
+  @Nonnull
+  private final LevelJournal.ChangeListener _drawTile = this::drawTile;
+  @Nullable
+  private Level _level;
+  @Nullable
+  private LevelJournal.Cursor _cursor;
+  private double _cellWidth;
+  private double _cellHeight;
+  /**
+   * True if a placeholder has been drawn for a texture that was not ready.
+   */
+  private boolean _hasPlaceholders;
+  private int _textureGeneration;
+
+  TileLayer( final int width, final int height )
+  {
+    _canvas = (HTMLCanvasElement) DomGlobal.document.createElement( "canvas" );
+    _canvas.width = width;
+    _canvas.height = height;
+    _context = Js.uncheckedCast( _canvas.getContext( "2d" ) );
+  }
+
+  @Nonnull
+  public HTMLCanvasElement getCanvas()
+  {
+    return _canvas;
+  }
+
+  /**
+   * Bring the layer up to date with the level.
+   * The textureGeneration is the load generation of the texture manager and the layer is redrawn if
+   * textures have loaded since placeholders were drawn.
+   */
+  public void update( @Nonnull final Level level, final int textureGeneration )
+  {
+    if ( _hasPlaceholders && textureGeneration != _textureGeneration )
+    {
+      _cursor = null;
+    }
+    _textureGeneration = textureGeneration;
+    if ( _level != level || null == _cursor )
+    {
+      _level = level;
+      _cursor = level.getJournal().createCursor();
+      _cellWidth = _canvas.width / ( level.getColumnCount() * 1D );
+      _cellHeight = _canvas.height / ( level.getRowCount() * 1D );
+      drawAll();
+    }
+    else if ( _cursor.hasChanges() && !_cursor.sync( _drawTile ) )
+    {
+      drawAll();
+    }
+  }
+
+  /**
+   * Force the layer to be redrawn in full when next updated.
+   */
+  public void invalidate()
+  {
+    _cursor = null;
+  }
+
+  private void drawAll()
+  {
+    assert null != _level;
+    _hasPlaceholders = false;
+    final int tileCount = _level.getTiles().length;
+    for ( int i = 0; i < tileCount; i++ )
+    {
+      drawTile( i );
+    }
+  }
+
+  private void drawTile( final int index )
+  {
+    assert null != _level;
+    final Tile tile = _level.getTiles()[ index ];
+    final Texture texture = tile.getTileType().getTexture();
+    _context.fillStyle = BACKGROUND;
+    _context.fillRect( tile.getTopLeftX(), tile.getTopLeftY(), _cellWidth, _cellHeight );
+    if ( null != texture )
+    {
+      if ( texture.isReady() )
+      {
+        _context.drawImage( texture.getImage(), tile.getTopLeftX(), tile.getTopLeftY() );
+      }
+      else
+      {
+        _context.fillStyle = PLACEHOLDER;
+        _context.fillRect( tile.getTopLeftX(), tile.getTopLeftY(), _cellWidth, _cellHeight );
+        _hasPlaceholders = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package org.realityforge.saber.ai;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.DoubleSupplier;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.PathFinder;
+
+/**
+ * Performs expensive monster planning outside of the turn.
+ *
+ * <p>Each request is assigned the turn by which it is due when it is requested. A request is due on the turn
+ * after it was requested unless {@link #MAX_PLANS_PER_TURN} requests are already due on that turn, in which
+ * case it is due on the first later turn with room. The queue is processed from the frame loop in order of
+ * due turn and priority until the per-frame time budget is consumed, so the cost added to any frame is bounded
+ * by the budget plus a single bounded search regardless of how many monsters are waiting. At the start of
+ * each turn only the requests that are due and were not reached by the frame loop are planned, so the work
+ * forced into a turn is bounded by {@link #MAX_PLANS_PER_TURN} searches. Completed plans are held until the
+ * turn they are due and then applied in the order they were requested. The turn a plan is applied on depends
+ * only upon the order of requests, so the frame budget moves the cost of planning out of the turn and never
+ * changes the outcome.</p>
+ */
+public final class Planner
+{
+  /**
+   * The number of steps retained from each plan.
+   */
+  public static final int MAX_PLAN_LENGTH = 16;
+  /**
+   * The maximum number of tiles a single search may visit.
+   */
+  private static final int MAX_SEARCH_NODES = 4096;
+  /**
+   * The maximum number of requests that may fall due on a single turn.
+   * This bounds the planning that a turn may be forced to perform before it is processed.
+   */
+  public static final int MAX_PLANS_PER_TURN = 8;
+
+  /**
+   * Receives completed plans at the turn boundary.
+   */
+  @FunctionalInterface
+  public interface PlanHandler
+  {
+    /**
+     * Invoked for each completed plan.
+     *
+     * @param entityId   the entity that requested the plan.
+     * @param level      the level the plan was computed against.
+     * @param goal       the tile index the plan leads to.
+     * @param steps      the steps of the plan. Only the first stepCount elements are valid.
+     * @param stepCount  the number of valid steps or 0 if no path was found.
+     */
+    void onPlan( int entityId, @Nonnull Level level, int goal, @Nonnull int[] steps, int stepCount );
+  }
+
+  @Nonnull
+  private final DoubleSupplier _clock;
+  @Nonnull
+  private final PathFinder _pathFinder = new PathFinder();
+  @Nonnull
+  private final PriorityQueue<PlanRequest> _pending =
+    new PriorityQueue<>( ( a, b ) -> a._dueTurn != b._dueTurn ? Integer.compare( a._dueTurn, b._dueTurn ) :
+                                     a._priority != b._priority ? Integer.compare( a._priority, b._priority ) :
+                                     Integer.compare( a._sequence, b._sequence ) );
+  @Nonnull
+  private final ArrayList<PlanRequest> _completed = new ArrayList<>();
+  @Nonnull
+  private final ArrayList<PlanRequest> _pool = new ArrayList<>();
+  private int _nextSequence;
+  /**
+   * The current turn.
+   */
+  private int _turn;
+  /**
+   * The latest turn that requests have been assigned to.
+   */
+  private int _lastDueTurn;
+  /**
+   * The number of requests due on the latest turn.
+   */
+  private int _lastDueCount;
+
+  /**
+   * Create the planner.
+   *
+   * @param clock returns the current time in milliseconds.
+   */
+  public Planner( @Nonnull final DoubleSupplier clock )
+  {
+    _clock = Objects.requireNonNull( clock );
+  }
+
+  /**
+   * Queue a request for a path from start to goal.
+   *
+   * @param priority requests with a lower priority value are planned first.
+   */
+  public void requestPath( final int entityId,
+                           @Nonnull final Level level,
+                           final int start,
+                           final int goal,
+                           final int priority )
+  {
+    final PlanRequest request = _pool.isEmpty() ? new PlanRequest() : _pool.remove( _pool.size() - 1 );
+    request._entityId = entityId;
+    request._level = Objects.requireNonNull( level );
+    request._start = start;
+    request._goal = goal;
+    request._priority = priority;
+    request._sequence = _nextSequence++;
+    request._dueTurn = nextDueTurn();
+    request._stepCount = 0;
+    _pending.add( request );
+  }
+
+  private int nextDueTurn()
+  {
+    if ( _lastDueTurn <= _turn )
+    {
+      _lastDueTurn = _turn + 1;
+      _lastDueCount = 0;
+    }
+    else if ( MAX_PLANS_PER_TURN == _lastDueCount )
+    {
+      _lastDueTurn++;
+      _lastDueCount = 0;
+    }
+    _lastDueCount++;
+    return _lastDueTurn;
+  }
+
+  public int getPendingCount()
+  {
+    return _pending.size();
+  }
+
+  /**
+   * Plan queued requests until the budget is consumed.
+   *
+   * @param budgetMillis the time that may be spent planning.
+   */
+  public void process( final double budgetMillis )
+  {
+    final double deadline = _clock.getAsDouble() + budgetMillis;
+    while ( !_pending.isEmpty() && _clock.getAsDouble() < deadline )
+    {
+      plan( _pending.poll() );
+    }
+  }
+
+  /**
+   * Start the next turn by planning the requests that fall due on it and were not reached by the frame loop.
+   * This must be invoked immediately before each turn and before {@link #applyPlans(PlanHandler)}.
+   */
+  public void beginTurn()
+  {
+    _turn++;
+    while ( !_pending.isEmpty() && _pending.peek()._dueTurn <= _turn )
+    {
+      plan( _pending.poll() );
+    }
+  }
+
+  /**
+   * Discard the results of every outstanding request, typically because the tile indexes the requests were
+   * expressed in no longer identify the same tiles. Each request is still applied on the turn it is due but
+   * with no steps and a goal of -1, so that every requester observes the completion of its request.
+   */
+  public void invalidate()
+  {
+    while ( !_pending.isEmpty() )
+    {
+      _completed.add( _pending.poll() );
+    }
+    for ( final PlanRequest request : _completed )
+    {
+      request._goal = -1;
+      request._stepCount = 0;
+    }
+  }
+
+  public int getTurn()
+  {
+    return _turn;
+  }
+
+  /**
+   * Apply the completed plans that are due in the order they were requested.
+   * Plans that were completed ahead of time are retained until the turn they are due.
+   * This should be invoked at the turn boundary.
+   */
+  public void applyPlans( @Nonnull final PlanHandler handler )
+  {
+    if ( !_completed.isEmpty() )
+    {
+      _completed.sort( ( a, b ) -> Integer.compare( a._sequence, b._sequence ) );
+      int retained = 0;
+      final int completedCount = _completed.size();
+      for ( int i = 0; i < completedCount; i++ )
+      {
+        final PlanRequest request = _completed.get( i );
+        if ( request._dueTurn <= _turn )
+        {
+          assert null != request._level;
+          handler.onPlan( request._entityId, request._level, request._goal, request._steps, request._stepCount );
+          request._level = null;
+          _pool.add( request );
+        }
+        else
+        {
+          _completed.set( retained++, request );
+        }
+      }
+      while ( _completed.size() > retained )
+      {
+        _completed.remove( _completed.size() - 1 );
+      }
+    }
+  }
+
+  private void plan( @Nonnull final PlanRequest request )
+  {
+    assert null != request._level;
+    final int length =
+      _pathFinder.findPath( request._level, request._start, request._goal, MAX_SEARCH_NODES, request._steps );
+    request._stepCount = Math.max( 0, Math.min( length, MAX_PLAN_LENGTH ) );
+    _completed.add( request );
+  }
+
+  private static final class PlanRequest
+  {
+    @Nonnull
+    private final int[] _steps = new int[ MAX_PLAN_LENGTH ];
+    private int _entityId;
+    private Level _level;
+    private int _start;
+    private int _goal;
+    private int _priority;
+    private int _sequence;
+    private int _dueTurn;
+    private int _stepCount;
+  }
+}
@@ -0,0 +1,17 @@
+package org.realityforge.saber.components;
+
+import galdr.annotations.Component;
+import org.realityforge.saber.turn.TurnScheduler;
+
+@Component
+public final class Actor
+{
+  /**
+   * The energy gained by the actor each tick.
+   */
+  public int speed = TurnScheduler.NORMAL_SPEED;
+  /**
+   * The energy spent by the actors most recent action.
+   */
+  public int actionCost = TurnScheduler.ENERGY_THRESHOLD;
+}
@@ -0,0 +1,28 @@
+package org.realityforge.saber.components;
+
+import galdr.annotations.Component;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.ai.Planner;
+
+@Component
+public final class Monster
+{
+  /**
+   * The tile indexes of the planned path towards the target.
+   */
+  @Nonnull
+  public final int[] path = new int[ Planner.MAX_PLAN_LENGTH ];
+  public int pathLength;
+  /**
+   * The index into path of the next step to take.
+   */
+  public int pathIndex;
+  /**
+   * The tile index that the current plan leads to or -1 if the monster has no plan.
+   */
+  public int planGoal = -1;
+  /**
+   * True if the monster has requested a plan that has not been applied yet.
+   */
+  public boolean planPending;
+}
@@ -1,12 +1,13 @@
 package org.realityforge.saber.components;
 
 import galdr.annotations.Component;
-import javax.annotation.Nonnull;
-import org.realityforge.saber.world.LevelPosition;
 
+/**
+ * Marks an entity as positioned on the level.
+ * The coordinates are held in the {@link org.realityforge.saber.world.PositionStore} so that systems can scan
+ * them contiguously.
+ */
 @Component
 public final class Position
 {
-  @Nonnull
-  public final LevelPosition position = new LevelPosition( 0, 0 );
 }
@@ -7,6 +7,12 @@ import org.realityforge.saber.Texture;
 @Component
 public final class Sprite
 {
+  public static final int ITEM_LAYER = 1;
+  public static final int ACTOR_LAYER = 2;
   @Nullable
   public Texture texture;
+  /**
+   * The layer the sprite is drawn in. Sprites in higher layers are drawn over sprites in lower layers.
+   */
+  public int layer = ACTOR_LAYER;
 }
@@ -0,0 +1,39 @@
+package org.realityforge.saber.floor;
+
+import com.google.gwt.core.shared.GwtIncompatible;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.LevelGenerator;
+
+/**
+ * Generates floors on a dedicated worker thread on the JVM.
+ */
+@GwtIncompatible
+public final class ExecutorFloorGenerationScheduler
+  implements FloorGenerationScheduler, AutoCloseable
+{
+  /**
+   * The generator is only accessed from the single worker thread.
+   */
+  @Nonnull
+  private final LevelGenerator _generator = new LevelGenerator();
+  @Nonnull
+  private final ExecutorService _executor = Executors.newSingleThreadExecutor( r -> {
+    final Thread thread = new Thread( r, "FloorGenerator" );
+    thread.setDaemon( true );
+    return thread;
+  } );
+
+  @Override
+  public void schedule( @Nonnull final PendingFloor floor )
+  {
+    _executor.execute( () -> floor.generate( _generator ) );
+  }
+
+  @Override
+  public void close()
+  {
+    _executor.shutdownNow();
+  }
+}
@@ -0,0 +1,74 @@
+package org.realityforge.saber.floor;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.world.Level;
+
+/**
+ * A resident floor of the dungeon.
+ */
+public final class Floor
+{
+  private final int _floorNumber;
+  private final int _seed;
+  @Nonnull
+  private final Level _level;
+  private final int _entranceIndex;
+  private final int _exitIndex;
+
+  public Floor( final int floorNumber,
+                final int seed,
+                @Nonnull final Level level,
+                final int entranceIndex,
+                final int exitIndex )
+  {
+    assert floorNumber > 0;
+    _floorNumber = floorNumber;
+    _seed = seed;
+    _level = Objects.requireNonNull( level );
+    _entranceIndex = entranceIndex;
+    _exitIndex = exitIndex;
+  }
+
+  public int getFloorNumber()
+  {
+    return _floorNumber;
+  }
+
+  public int getSeed()
+  {
+    return _seed;
+  }
+
+  @Nonnull
+  public Level getLevel()
+  {
+    return _level;
+  }
+
+  public int getEntranceIndex()
+  {
+    return _entranceIndex;
+  }
+
+  public int getExitIndex()
+  {
+    return _exitIndex;
+  }
+
+  /**
+   * Return the index of the tile the player occupies when arriving through the entrance.
+   */
+  public int getArrivalIndex()
+  {
+    return _entranceIndex - _level.getColumnCount();
+  }
+
+  /**
+   * Return the index of the tile the player occupies when returning through the exit.
+   */
+  public int getReturnIndex()
+  {
+    return _exitIndex + _level.getColumnCount();
+  }
+}
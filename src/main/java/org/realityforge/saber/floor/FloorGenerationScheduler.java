@@ -0,0 +1,16 @@
+package org.realityforge.saber.floor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Strategy for generating floors in the background before the player reaches them.
+ */
+public interface FloorGenerationScheduler
+{
+  /**
+   * Arrange for the floor to be generated at some point in the future.
+   * Implementations must generate floors using their own {@link org.realityforge.saber.generator.LevelGenerator}
+   * as generators are not thread-safe.
+   */
+  void schedule( @Nonnull PendingFloor floor );
+}
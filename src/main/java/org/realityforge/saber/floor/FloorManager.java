@@ -0,0 +1,231 @@
+package org.realityforge.saber.floor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.braincheck.BrainCheckConfig;
+import org.realityforge.saber.generator.LevelGenerator;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.generator.Rng;
+import org.realityforge.saber.generator.SeedIndex;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.TileType;
+import org.realityforge.saber.world.TileTypeManager;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * Manages the floors of the dungeon.
+ * The manager keeps the current floor resident, asks the scheduler to generate the next floor before the
+ * player reaches it and keeps recently visited floors in an LRU cache bounded by the number of resident tiles.
+ * Floors evicted from the cache are compacted into a {@link FloorSnapshot} and restored if revisited.
+ */
+public final class FloorManager
+{
+  /**
+   * Listener notified when the current floor changes.
+   */
+  @FunctionalInterface
+  public interface Listener
+  {
+    void onFloorChanged( @Nonnull Floor floor );
+  }
+
+  @Nonnull
+  private final FloorGenerationScheduler _scheduler;
+  @Nonnull
+  private final TileTypeManager _tileTypeManager;
+  @Nonnull
+  private final TileType _defaultTileType;
+  @Nonnull
+  private final SeedIndex _seedIndex;
+  private final int _masterSeed;
+  private final int _columnCount;
+  private final int _rowCount;
+  private final int _maxResidentTiles;
+  @Nonnull
+  private final Listener _listener;
+  /**
+   * Used to generate floors on the main thread if the player reaches a floor before the scheduler has generated it.
+   */
+  @Nonnull
+  private final LevelGenerator _generator = new LevelGenerator();
+  /**
+   * The visited floors other than the current floor, in least recently used order.
+   */
+  @Nonnull
+  private final LinkedHashMap<Integer, Floor> _residentFloors = new LinkedHashMap<>( 16, 0.75F, true );
+  @Nonnull
+  private final Map<Integer, FloorSnapshot> _snapshots = new HashMap<>();
+  @Nullable
+  private Floor _currentFloor;
+  @Nullable
+  private PendingFloor _nextFloor;
+
+  public FloorManager( @Nonnull final FloorGenerationScheduler scheduler,
+                       @Nonnull final TileTypeManager tileTypeManager,
+                       @Nonnull final TileType defaultTileType,
+                       @Nonnull final SeedIndex seedIndex,
+                       final int masterSeed,
+                       final int columnCount,
+                       final int rowCount,
+                       final int maxResidentTiles,
+                       @Nonnull final Listener listener )
+  {
+    _scheduler = Objects.requireNonNull( scheduler );
+    _tileTypeManager = Objects.requireNonNull( tileTypeManager );
+    _defaultTileType = Objects.requireNonNull( defaultTileType );
+    _seedIndex = Objects.requireNonNull( seedIndex );
+    _masterSeed = masterSeed;
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _maxResidentTiles = maxResidentTiles;
+    _listener = Objects.requireNonNull( listener );
+  }
+
+  /**
+   * Return the seed from which the seed of every floor is derived.
+   */
+  public int getMasterSeed()
+  {
+    return _masterSeed;
+  }
+
+  @Nonnull
+  public Floor getCurrentFloor()
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> null != _currentFloor,
+                    () -> "Saber-0007: FloorManager.getCurrentFloor() invoked before a floor was entered" );
+    }
+    assert null != _currentFloor;
+    return _currentFloor;
+  }
+
+  /**
+   * Enter a floor that was created outside the manager, such as a hand-authored floor.
+   */
+  public void enterFloor( @Nonnull final Floor floor )
+  {
+    Objects.requireNonNull( floor );
+    if ( null != _currentFloor )
+    {
+      _residentFloors.put( _currentFloor.getFloorNumber(), _currentFloor );
+    }
+    _residentFloors.remove( floor.getFloorNumber() );
+    _snapshots.remove( floor.getFloorNumber() );
+    _currentFloor = floor;
+    evictFloors();
+    pregenerateNextFloor();
+    _listener.onFloorChanged( floor );
+  }
+
+  /**
+   * Move to the floor below the current floor.
+   * The floor is normally already generated by the scheduler so the transition does not stall.
+   */
+  @Nonnull
+  public Floor descend()
+  {
+    final int floorNumber = getCurrentFloor().getFloorNumber() + 1;
+    Floor floor = findVisitedFloor( floorNumber );
+    if ( null == floor )
+    {
+      final PendingFloor pending = _nextFloor;
+      final LevelLayout layout =
+        null != pending && floorNumber == pending.getFloorNumber() ?
+        pending.generate( _generator ) :
+        _generator.generate( seedForFloor( floorNumber ), _columnCount, _rowCount );
+      floor = createFloor( floorNumber, layout );
+    }
+    enterFloor( floor );
+    return floor;
+  }
+
+  /**
+   * Return to the floor above the current floor.
+   */
+  @Nonnull
+  public Floor ascend()
+  {
+    final int floorNumber = getCurrentFloor().getFloorNumber() - 1;
+    final Floor floor = findVisitedFloor( floorNumber );
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> null != floor,
+                    () -> "Saber-0008: FloorManager.ascend() invoked but floor " + floorNumber + " has not been visited" );
+    }
+    assert null != floor;
+    enterFloor( floor );
+    return floor;
+  }
+
+  public boolean hasVisitedFloor( final int floorNumber )
+  {
+    return _residentFloors.containsKey( floorNumber ) || _snapshots.containsKey( floorNumber );
+  }
+
+  @Nullable
+  private Floor findVisitedFloor( final int floorNumber )
+  {
+    final Floor floor = _residentFloors.get( floorNumber );
+    if ( null != floor )
+    {
+      return floor;
+    }
+    else
+    {
+      final FloorSnapshot snapshot = _snapshots.get( floorNumber );
+      return null != snapshot ? snapshot.restore( _tileTypeManager, _defaultTileType ) : null;
+    }
+  }
+
+  @Nonnull
+  private Floor createFloor( final int floorNumber, @Nonnull final LevelLayout layout )
+  {
+    final Level level = new Level( layout.getColumnCount(), layout.getRowCount(), _defaultTileType );
+    layout.applyTo( level, _tileTypeManager );
+    return new Floor( floorNumber, layout.getSeed(), level, layout.getEntranceIndex(), layout.getExitIndex() );
+  }
+
+  private void pregenerateNextFloor()
+  {
+    final int floorNumber = getCurrentFloor().getFloorNumber() + 1;
+    if ( !hasVisitedFloor( floorNumber ) &&
+         ( null == _nextFloor || floorNumber != _nextFloor.getFloorNumber() ) )
+    {
+      _nextFloor = new PendingFloor( floorNumber, seedForFloor( floorNumber ), _columnCount, _rowCount );
+      _scheduler.schedule( _nextFloor );
+    }
+  }
+
+  /**
+   * Compact the least recently used floors until the resident floors fit within the tile budget.
+   */
+  private void evictFloors()
+  {
+    int residentTiles = getCurrentFloor().getLevel().getTiles().length;
+    for ( final Floor floor : _residentFloors.values() )
+    {
+      residentTiles += floor.getLevel().getTiles().length;
+    }
+    final Iterator<Floor> iterator = _residentFloors.values().iterator();
+    while ( residentTiles > _maxResidentTiles && iterator.hasNext() )
+    {
+      final Floor floor = iterator.next();
+      iterator.remove();
+      residentTiles -= floor.getLevel().getTiles().length;
+      _snapshots.put( floor.getFloorNumber(), FloorSnapshot.capture( floor ) );
+    }
+  }
+
+  private int seedForFloor( final int floorNumber )
+  {
+    final Rng rng = new Rng( _masterSeed + floorNumber );
+    return _seedIndex.isEmpty() ? rng.nextInt() : _seedIndex.pick( rng );
+  }
+}
@@ -0,0 +1,87 @@
+package org.realityforge.saber.floor;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.Tile;
+import org.realityforge.saber.world.TileRunCodec;
+import org.realityforge.saber.world.TileType;
+import org.realityforge.saber.world.TileTypeManager;
+
+/**
+ * The compact form of a floor that has been evicted from the floor cache.
+ * Tile ids are run-length encoded by the {@link TileRunCodec} so a 19x19 floor typically compacts to a couple
+ * of hundred bytes.
+ */
+final class FloorSnapshot
+{
+  private final int _floorNumber;
+  private final int _seed;
+  private final int _columnCount;
+  private final int _rowCount;
+  private final int _entranceIndex;
+  private final int _exitIndex;
+  @Nonnull
+  private final byte[] _data;
+
+  private FloorSnapshot( final int floorNumber,
+                         final int seed,
+                         final int columnCount,
+                         final int rowCount,
+                         final int entranceIndex,
+                         final int exitIndex,
+                         @Nonnull final byte[] data )
+  {
+    _floorNumber = floorNumber;
+    _seed = seed;
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _entranceIndex = entranceIndex;
+    _exitIndex = exitIndex;
+    _data = data;
+  }
+
+  @Nonnull
+  static FloorSnapshot capture( @Nonnull final Floor floor )
+  {
+    final Level level = floor.getLevel();
+    final Tile[] tiles = level.getTiles();
+    final int[] tileIds = new int[ tiles.length ];
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      tileIds[ i ] = tiles[ i ].getTileType().getId();
+    }
+    return new FloorSnapshot( floor.getFloorNumber(),
+                              floor.getSeed(),
+                              level.getColumnCount(),
+                              level.getRowCount(),
+                              floor.getEntranceIndex(),
+                              floor.getExitIndex(),
+                              TileRunCodec.encode( tileIds ) );
+  }
+
+  @Nonnull
+  Floor restore( @Nonnull final TileTypeManager tileTypeManager, @Nonnull final TileType defaultTileType )
+  {
+    final Level level = new Level( _columnCount, _rowCount, defaultTileType );
+    final int[] tileIds = new int[ _columnCount * _rowCount ];
+    TileRunCodec.decode( _data, tileIds );
+    for ( int i = 0; i < tileIds.length; i++ )
+    {
+      level.setTileType( i, tileTypeManager.getTileType( tileIds[ i ] ) );
+    }
+    return new Floor( _floorNumber, _seed, level, _entranceIndex, _exitIndex );
+  }
+
+  int getFloorNumber()
+  {
+    return _floorNumber;
+  }
+
+  /**
+   * Return the approximate number of bytes retained by the snapshot.
+   */
+  int getSize()
+  {
+    return _data.length;
+  }
+}
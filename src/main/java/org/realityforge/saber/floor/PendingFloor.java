@@ -0,0 +1,55 @@
+package org.realityforge.saber.floor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.saber.generator.LevelGenerator;
+import org.realityforge.saber.generator.LevelLayout;
+
+/**
+ * A floor that has been requested ahead of time but may not yet have been generated.
+ * Generation only produces a {@link LevelLayout} and touches no shared state, so it can safely run on a worker
+ * thread on the JVM. The floor is generated at most once, whichever of the scheduler or the floor manager
+ * reaches it first.
+ */
+public final class PendingFloor
+{
+  private final int _floorNumber;
+  private final int _seed;
+  private final int _columnCount;
+  private final int _rowCount;
+  @Nullable
+  private volatile LevelLayout _layout;
+
+  PendingFloor( final int floorNumber, final int seed, final int columnCount, final int rowCount )
+  {
+    _floorNumber = floorNumber;
+    _seed = seed;
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+  }
+
+  public int getFloorNumber()
+  {
+    return _floorNumber;
+  }
+
+  public boolean isComplete()
+  {
+    return null != _layout;
+  }
+
+  /**
+   * Generate the floor if it has not already been generated.
+   */
+  @Nonnull
+  public synchronized LevelLayout generate( @Nonnull final LevelGenerator generator )
+  {
+    LevelLayout layout = _layout;
+    if ( null == layout )
+    {
+      layout = generator.generate( _seed, _columnCount, _rowCount );
+      _layout = layout;
+    }
+    return layout;
+  }
+}
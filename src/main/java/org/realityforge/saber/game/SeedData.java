@@ -0,0 +1,21 @@
+package org.realityforge.saber.game;
+
+import javax.annotation.Nonnull;
+
+public final class SeedData
+{
+  /**
+   * The best 64 of the first million seeds for 19x19 floors.
+   * Produced by running "SeedSearch 19 19 1000000 64" and must be regenerated if the generator changes.
+   */
+  @Nonnull
+  public static final String FLOOR_SEEDS =
+    "de2m,f2zx,cjxv,8jgm,avv1,em5i,jkvu,eanr,1q9z,bi60,5oc6,6s46,24uu,c3uw,1dts,204n," +
+    "kprt,499w,cpk,3i,azt1,6z9d,2oxo,a5vw,goks,e3yo,g8i4,g69v,ccdk,865m,i29t,3x0h," +
+    "2qxz,eswj,k2r3,4cqz,8b9n,8sz1,53ml,137o,3oz9,idy9,5qwc,7qtu,2ibn,5xxm,furo,knf8," +
+    "81sa,hry6,l6a5,ghql,7y6i,ptr,d5xk,94kb,3p6o,ars9,g6mp,ld3x,fast,jrlq,i5zy,lbh0";
+
+  private SeedData()
+  {
+  }
+}
@@ -0,0 +1,30 @@
+package org.realityforge.saber.game;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.PrefabLibrary;
+
+/**
+ * Hand designed rooms that are stamped into generated floors.
+ */
+public final class Vaults
+{
+  @Nonnull
+  public static final PrefabLibrary LIBRARY =
+    new PrefabLibrary()
+      .add( "[**][**][**][**][**][**][**]\n" +
+            "[**][19][19][19][19][19][**]\n" +
+            "[**][19][00][19][00][19][**]\n" +
+            "[**][19][19][20][19][19][**]\n" +
+            "[**][19][00][19][00][19][**]\n" +
+            "[**][19][19][19][19][19][**]\n" +
+            "[**][**][**][**][**][**][**]\n" )
+      .add( "[**][**][**][**][**][**][**]\n" +
+            "[**][19][19][19][19][19][**]\n" +
+            "[**][19][00][00][20][19][**]\n" +
+            "[**][19][19][19][19][19][**]\n" +
+            "[**][**][**][**][**][**][**]\n" );
+
+  private Vaults()
+  {
+  }
+}
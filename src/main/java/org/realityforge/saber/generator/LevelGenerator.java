@@ -0,0 +1,287 @@
+package org.realityforge.saber.generator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.braincheck.BrainCheckConfig;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.game.Vaults;
+import org.realityforge.saber.noise.FractalNoise;
+import org.realityforge.saber.noise.NoiseField;
+import org.realityforge.saber.noise.ValueNoise;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * Generates a maze based level from a seed.
+ * The maze is carved using a recursive backtracker over the odd cells of the grid, a number of small
+ * rooms are punched through the maze walls, vaults are stamped onto the wall lines of the maze, the walls
+ * are auto-tiled based on their neighbours, patches of floor are varied using noise and finally an entrance
+ * and exit are placed on the bottom and top walls.
+ *
+ * <p>The generator retains scratch buffers between invocations so that a single instance can be used
+ * to generate many layouts without allocating. Instances are not thread-safe.</p>
+ */
+public final class LevelGenerator
+{
+  public static final int DEFAULT_ROOM_COUNT = 10;
+  public static final int DEFAULT_VAULT_COUNT = 1;
+  /**
+   * Vaults are aligned to the wall lines of the maze which lie on even columns and rows.
+   */
+  private static final int VAULT_ALIGNMENT = 2;
+  private static final double FLOOR_NOISE_FREQUENCY = 0.3;
+  /**
+   * Floor tiles where the noise exceeds the threshold use the alternative floor tile.
+   */
+  private static final float FLOOR_ALT_THRESHOLD = 0.2F;
+  private static final int WALL_TOP_MASK = 1;
+  private static final int WALL_RIGHT_MASK = 2;
+  private static final int WALL_BOTTOM_MASK = 4;
+  private static final int WALL_LEFT_MASK = 8;
+  @Nonnull
+  private final Rng _rng = new Rng( 0 );
+  private final int _roomCount;
+  @Nullable
+  private final PrefabLibrary _vaults;
+  private final int _vaultCount;
+  @Nonnull
+  private final PrefabPlacer _placer = new PrefabPlacer();
+  @Nonnull
+  private final ValueNoise _valueNoise = new ValueNoise( 0 );
+  @Nonnull
+  private final FractalNoise _floorNoise = new FractalNoise( _valueNoise, 3 );
+  @Nonnull
+  private float[] _noise = new float[ 0 ];
+  @Nonnull
+  private int[] _stack = new int[ 0 ];
+  @Nonnull
+  private final int[] _candidates = new int[ 4 ];
+
+  public LevelGenerator()
+  {
+    this( DEFAULT_ROOM_COUNT, Vaults.LIBRARY, DEFAULT_VAULT_COUNT );
+  }
+
+  public LevelGenerator( final int roomCount )
+  {
+    this( roomCount, null, 0 );
+  }
+
+  public LevelGenerator( final int roomCount, @Nullable final PrefabLibrary vaults, final int vaultCount )
+  {
+    assert roomCount >= 0;
+    assert vaultCount >= 0;
+    _roomCount = roomCount;
+    _vaults = null != vaults && !vaults.isEmpty() ? vaults : null;
+    _vaultCount = vaultCount;
+  }
+
+  @Nonnull
+  public LevelLayout generate( final int seed, final int columnCount, final int rowCount )
+  {
+    final LevelLayout layout = new LevelLayout( columnCount, rowCount );
+    generate( seed, layout );
+    return layout;
+  }
+
+  /**
+   * Generate a level into an existing layout, overwriting any tiles already present.
+   */
+  public void generate( final int seed, @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> columnCount >= 5 && rowCount >= 5 && 1 == ( columnCount & 1 ) && 1 == ( rowCount & 1 ),
+                    () -> "Saber-0005: Unable to generate level with dimensions " + columnCount + "x" + rowCount +
+                          " as dimensions must be odd and at least 5" );
+    }
+    _rng.setSeed( seed );
+    layout.setSeed( seed );
+    fillGrid( layout );
+    carvePath( layout );
+    createRooms( layout );
+    placeVaults( layout );
+    calculateTextures( layout );
+    varyFloors( seed, layout );
+    generateEntryExit( layout );
+  }
+
+  private void fillGrid( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    int index = 0;
+    for ( int row = 0; row < rowCount; row++ )
+    {
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        // Odd cells are the nodes of the maze and start out unvisited
+        tiles[ index++ ] = 1 == ( column & row & 1 ) ? Tiles.EMPTY : Tiles.WALL_SINGLE;
+      }
+    }
+  }
+
+  private void carvePath( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int[] tiles = layout.getTiles();
+    if ( _stack.length < tiles.length )
+    {
+      _stack = new int[ tiles.length ];
+    }
+    final int[] stack = _stack;
+    int stackSize = 0;
+
+    final int start = 1 + columnCount;
+    tiles[ start ] = Tiles.FLOOR;
+    stack[ stackSize++ ] = start;
+    while ( stackSize > 0 )
+    {
+      final int index = stack[ stackSize - 1 ];
+      final int column = index % columnCount;
+      final int row = index / columnCount;
+
+      int candidateCount = 0;
+      if ( layout.isValidTile( column, row - 2 ) && Tiles.EMPTY == tiles[ index - columnCount * 2 ] )
+      {
+        _candidates[ candidateCount++ ] = -columnCount;
+      }
+      if ( layout.isValidTile( column + 2, row ) && Tiles.EMPTY == tiles[ index + 2 ] )
+      {
+        _candidates[ candidateCount++ ] = 1;
+      }
+      if ( layout.isValidTile( column, row + 2 ) && Tiles.EMPTY == tiles[ index + columnCount * 2 ] )
+      {
+        _candidates[ candidateCount++ ] = columnCount;
+      }
+      if ( layout.isValidTile( column - 2, row ) && Tiles.EMPTY == tiles[ index - 2 ] )
+      {
+        _candidates[ candidateCount++ ] = -1;
+      }
+
+      if ( 0 == candidateCount )
+      {
+        stackSize--;
+      }
+      else
+      {
+        final int step = _candidates[ _rng.nextInt( candidateCount ) ];
+        tiles[ index + step ] = Tiles.FLOOR;
+        tiles[ index + step * 2 ] = Tiles.FLOOR;
+        stack[ stackSize++ ] = index + step * 2;
+      }
+    }
+  }
+
+  private void createRooms( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    for ( int i = 0; i < _roomCount; i++ )
+    {
+      final int roomWidth = _rng.nextInt( 1, 2 );
+      final int roomHeight = _rng.nextInt( 1, 2 );
+      final int startColumn = _rng.nextInt( 1, columnCount - 2 );
+      final int startRow = _rng.nextInt( 1, rowCount - 2 );
+      for ( int column = startColumn - 1; column < startColumn + roomWidth; column++ )
+      {
+        for ( int row = startRow - 1; row < startRow + roomHeight; row++ )
+        {
+          // Never remove the outer wall
+          if ( column > 0 && row > 0 && column < columnCount - 1 && row < rowCount - 1 )
+          {
+            layout.setTile( column, row, Tiles.FLOOR );
+          }
+        }
+      }
+    }
+  }
+
+  private void placeVaults( @Nonnull final LevelLayout layout )
+  {
+    if ( null != _vaults )
+    {
+      _placer.reset( layout.getColumnCount(), layout.getRowCount() );
+      for ( int i = 0; i < _vaultCount; i++ )
+      {
+        _placer.placeRandom( layout, _vaults.get( _rng.nextInt( _vaults.size() ) ), VAULT_ALIGNMENT, _rng );
+      }
+    }
+  }
+
+  private void calculateTextures( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    int index = 0;
+    for ( int row = 0; row < rowCount; row++ )
+    {
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        if ( LevelLayout.isWall( tiles[ index ] ) )
+        {
+          // The wall tile ids are laid out so that the id is the mask of the neighbouring walls
+          int mask = 0;
+          if ( row > 0 && LevelLayout.isWall( tiles[ index - columnCount ] ) )
+          {
+            mask |= WALL_TOP_MASK;
+          }
+          if ( column < columnCount - 1 && LevelLayout.isWall( tiles[ index + 1 ] ) )
+          {
+            mask |= WALL_RIGHT_MASK;
+          }
+          if ( row < rowCount - 1 && LevelLayout.isWall( tiles[ index + columnCount ] ) )
+          {
+            mask |= WALL_BOTTOM_MASK;
+          }
+          if ( column > 0 && LevelLayout.isWall( tiles[ index - 1 ] ) )
+          {
+            mask |= WALL_LEFT_MASK;
+          }
+          tiles[ index ] = mask;
+        }
+        index++;
+      }
+    }
+  }
+
+  private void varyFloors( final int seed, @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    if ( _noise.length < tiles.length )
+    {
+      _noise = new float[ tiles.length ];
+    }
+    _valueNoise.setSeed( seed );
+    NoiseField.fill( _floorNoise, _noise, columnCount, rowCount, 0, 0, FLOOR_NOISE_FREQUENCY );
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      if ( Tiles.FLOOR == tiles[ i ] && _noise[ i ] > FLOOR_ALT_THRESHOLD )
+      {
+        tiles[ i ] = Tiles.FLOOR_ALT;
+      }
+    }
+  }
+
+  private void generateEntryExit( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    // Odd columns are always adjacent to a maze node so the doors always open onto the floor
+    final int oddColumnCount = columnCount / 2;
+    final int entranceColumn = 1 + 2 * _rng.nextInt( oddColumnCount );
+    final int exitColumn = 1 + 2 * _rng.nextInt( oddColumnCount );
+
+    final int entranceIndex = entranceColumn + ( rowCount - 1 ) * columnCount;
+    layout.getTiles()[ entranceIndex ] = Tiles.WALL_ENTRANCE;
+    layout.setEntranceIndex( entranceIndex );
+
+    layout.getTiles()[ exitColumn ] = Tiles.WALL_DOOR_LOCKED;
+    layout.setExitIndex( exitColumn );
+  }
+}
@@ -0,0 +1,152 @@
+package org.realityforge.saber.generator;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.Tile;
+import org.realityforge.saber.world.TileTypeManager;
+
+/**
+ * The raw output of the level generator.
+ * Tile ids are stored in row-major order so that generating and evaluating a layout does not require
+ * tile types, textures or any other browser resources.
+ */
+public final class LevelLayout
+{
+  private final int _columnCount;
+  private final int _rowCount;
+  @Nonnull
+  private final int[] _tiles;
+  private int _seed;
+  private int _entranceIndex = -1;
+  private int _exitIndex = -1;
+
+  public LevelLayout( final int columnCount, final int rowCount )
+  {
+    assert columnCount > 0;
+    assert rowCount > 0;
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _tiles = new int[ columnCount * rowCount ];
+  }
+
+  /**
+   * Create a layout from the tiles present in a level.
+   * The entrance and exit are located by scanning for the entrance and locked door tiles.
+   */
+  @Nonnull
+  public static LevelLayout fromLevel( @Nonnull final Level level )
+  {
+    final LevelLayout layout = new LevelLayout( level.getColumnCount(), level.getRowCount() );
+    final Tile[] tiles = level.getTiles();
+    final int[] ids = layout._tiles;
+    for ( int i = 0; i < ids.length; i++ )
+    {
+      final int id = tiles[ i ].getTileType().getId();
+      ids[ i ] = id;
+      if ( Tiles.WALL_ENTRANCE == id )
+      {
+        layout._entranceIndex = i;
+      }
+      else if ( Tiles.WALL_DOOR_LOCKED == id || Tiles.WALL_DOOR_UNLOCKED == id )
+      {
+        layout._exitIndex = i;
+      }
+    }
+    return layout;
+  }
+
+  /**
+   * Copy the layout into the level, resolving tile ids using the supplied manager.
+   */
+  public void applyTo( @Nonnull final Level level, @Nonnull final TileTypeManager tileTypeManager )
+  {
+    assert level.getColumnCount() == _columnCount;
+    assert level.getRowCount() == _rowCount;
+    Objects.requireNonNull( tileTypeManager );
+    for ( int i = 0; i < _tiles.length; i++ )
+    {
+      level.setTileType( i, tileTypeManager.getTileType( _tiles[ i ] ) );
+    }
+  }
+
+  public int getColumnCount()
+  {
+    return _columnCount;
+  }
+
+  public int getRowCount()
+  {
+    return _rowCount;
+  }
+
+  @Nonnull
+  public int[] getTiles()
+  {
+    return _tiles;
+  }
+
+  public int getTile( final int column, final int row )
+  {
+    assert isValidTile( column, row );
+    return _tiles[ column + row * _columnCount ];
+  }
+
+  public void setTile( final int column, final int row, final int tileId )
+  {
+    assert isValidTile( column, row );
+    _tiles[ column + row * _columnCount ] = tileId;
+  }
+
+  public boolean isValidTile( final int column, final int row )
+  {
+    return column >= 0 && column < _columnCount && row >= 0 && row < _rowCount;
+  }
+
+  public int getSeed()
+  {
+    return _seed;
+  }
+
+  void setSeed( final int seed )
+  {
+    _seed = seed;
+  }
+
+  /**
+   * Return the index of the entrance tile or -1 if the layout has no entrance.
+   */
+  public int getEntranceIndex()
+  {
+    return _entranceIndex;
+  }
+
+  void setEntranceIndex( final int entranceIndex )
+  {
+    _entranceIndex = entranceIndex;
+  }
+
+  /**
+   * Return the index of the exit door tile or -1 if the layout has no exit.
+   */
+  public int getExitIndex()
+  {
+    return _exitIndex;
+  }
+
+  void setExitIndex( final int exitIndex )
+  {
+    _exitIndex = exitIndex;
+  }
+
+  public static boolean isFloor( final int tileId )
+  {
+    return Tiles.FLOOR == tileId || Tiles.FLOOR_ALT == tileId;
+  }
+
+  public static boolean isWall( final int tileId )
+  {
+    return tileId <= Tiles.WALL_INTERSECTION;
+  }
+}
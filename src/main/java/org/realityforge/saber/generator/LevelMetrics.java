@@ -0,0 +1,94 @@
+package org.realityforge.saber.generator;
+
+/**
+ * Measurements of a generated layout used to judge the quality of a seed.
+ * Instances are reused by the {@link SeedEvaluator} and are only valid until the next evaluation.
+ */
+public final class LevelMetrics
+{
+  int _seed;
+  int _tileCount;
+  int _floorCount;
+  int _roomCount;
+  int _pathLength;
+  int _deadEndCount;
+  boolean _doorPlacementValid;
+  int _doorSeparation;
+
+  public int getSeed()
+  {
+    return _seed;
+  }
+
+  public int getTileCount()
+  {
+    return _tileCount;
+  }
+
+  public int getFloorCount()
+  {
+    return _floorCount;
+  }
+
+  public double getFloorRatio()
+  {
+    return 0 == _tileCount ? 0 : _floorCount / (double) _tileCount;
+  }
+
+  /**
+   * Return the number of open areas that are wider than a single corridor.
+   */
+  public int getRoomCount()
+  {
+    return _roomCount;
+  }
+
+  /**
+   * Return the number of steps required to walk from the entrance to the exit or -1 if the exit is unreachable.
+   */
+  public int getPathLength()
+  {
+    return _pathLength;
+  }
+
+  public boolean isExitReachable()
+  {
+    return _pathLength >= 0;
+  }
+
+  /**
+   * Return the number of floor tiles that have exactly one neighbouring floor tile.
+   */
+  public int getDeadEndCount()
+  {
+    return _deadEndCount;
+  }
+
+  /**
+   * Return true if the entrance is on the bottom wall, the exit is on the top wall and both open onto the floor.
+   */
+  public boolean isDoorPlacementValid()
+  {
+    return _doorPlacementValid;
+  }
+
+  /**
+   * Return the manhattan distance between the entrance and the exit.
+   */
+  public int getDoorSeparation()
+  {
+    return _doorSeparation;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "LevelMetrics[seed=" + _seed +
+           " floorRatio=" + getFloorRatio() +
+           " roomCount=" + _roomCount +
+           " pathLength=" + _pathLength +
+           " deadEndCount=" + _deadEndCount +
+           " doorPlacementValid=" + _doorPlacementValid +
+           " doorSeparation=" + _doorSeparation + "]";
+  }
+}
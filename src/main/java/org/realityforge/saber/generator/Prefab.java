@@ -0,0 +1,166 @@
+package org.realityforge.saber.generator;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * A small hand designed template of tiles that can be stamped into a layout.
+ * Wildcard cells leave the underlying tile unchanged. Walls are re-tiled after stamping so any wall id may
+ * be used for a wall cell.
+ *
+ * <p>Prefabs are parsed from the same format as the level data with each cell written as [dd] and a
+ * wildcard cell written as [**]. A prefab placed on even coordinates with odd dimensions lies on the wall
+ * lines of the maze. If the border of such a prefab is wildcard and the interior cells adjacent to the border
+ * are connected floor then every maze passage that crosses the prefab remains connected.</p>
+ */
+public final class Prefab
+{
+  public static final int WILDCARD = -1;
+  /**
+   * The maximum width or height of a prefab, so that each row of the prefab fits in a single bitset word.
+   */
+  public static final int MAX_SIZE = 32;
+  private final int _columnCount;
+  private final int _rowCount;
+  @Nonnull
+  private final int[] _tiles;
+  /**
+   * The bitset of non-wildcard cells in each row.
+   */
+  @Nonnull
+  private final int[] _rowMasks;
+
+  Prefab( final int columnCount, final int rowCount, @Nonnull final int[] tiles )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> columnCount > 0 && columnCount <= MAX_SIZE && rowCount > 0 && rowCount <= MAX_SIZE,
+                    () -> "Saber-0017: Prefab dimensions " + columnCount + "x" + rowCount + " must be between " +
+                          "1 and " + MAX_SIZE );
+    }
+    assert tiles.length == columnCount * rowCount;
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _tiles = Objects.requireNonNull( tiles );
+    _rowMasks = new int[ rowCount ];
+    for ( int row = 0; row < rowCount; row++ )
+    {
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        if ( WILDCARD != tiles[ column + row * columnCount ] )
+        {
+          _rowMasks[ row ] |= 1 << column;
+        }
+      }
+    }
+  }
+
+  /**
+   * Parse a prefab from the level data format.
+   */
+  @Nonnull
+  public static Prefab parse( @Nonnull final String data )
+  {
+    final String[] lines = data.trim().split( "\n" );
+    final int rowCount = lines.length;
+    final int columnCount = lines[ 0 ].length() / 4;
+    final int[] tiles = new int[ columnCount * rowCount ];
+    int index = 0;
+    for ( final String line : lines )
+    {
+      assert line.length() == columnCount * 4;
+      for ( int i = 0; i < columnCount; i++ )
+      {
+        final char high = line.charAt( i * 4 + 1 );
+        final char low = line.charAt( i * 4 + 2 );
+        tiles[ index++ ] = '*' == high ? WILDCARD : ( high - '0' ) * 10 + low - '0';
+      }
+    }
+    return new Prefab( columnCount, rowCount, tiles );
+  }
+
+  public int getColumnCount()
+  {
+    return _columnCount;
+  }
+
+  public int getRowCount()
+  {
+    return _rowCount;
+  }
+
+  /**
+   * Return the tile id at the specified cell or {@link #WILDCARD}.
+   */
+  public int getTile( final int column, final int row )
+  {
+    return _tiles[ column + row * _columnCount ];
+  }
+
+  int getRowMask( final int row )
+  {
+    return _rowMasks[ row ];
+  }
+
+  /**
+   * Return the prefab rotated 90 degrees clockwise.
+   */
+  @Nonnull
+  public Prefab rotate()
+  {
+    final int[] tiles = new int[ _tiles.length ];
+    for ( int row = 0; row < _rowCount; row++ )
+    {
+      for ( int column = 0; column < _columnCount; column++ )
+      {
+        // The rotated prefab has _rowCount columns
+        tiles[ ( _rowCount - 1 - row ) + column * _rowCount ] = getTile( column, row );
+      }
+    }
+    return new Prefab( _rowCount, _columnCount, tiles );
+  }
+
+  /**
+   * Return the prefab mirrored left to right.
+   */
+  @Nonnull
+  public Prefab mirror()
+  {
+    final int[] tiles = new int[ _tiles.length ];
+    for ( int row = 0; row < _rowCount; row++ )
+    {
+      for ( int column = 0; column < _columnCount; column++ )
+      {
+        tiles[ ( _columnCount - 1 - column ) + row * _columnCount ] = getTile( column, row );
+      }
+    }
+    return new Prefab( _columnCount, _rowCount, tiles );
+  }
+
+  @Override
+  public boolean equals( final Object o )
+  {
+    if ( this == o )
+    {
+      return true;
+    }
+    else if ( !( o instanceof Prefab ) )
+    {
+      return false;
+    }
+    else
+    {
+      final Prefab other = (Prefab) o;
+      return _columnCount == other._columnCount && Arrays.equals( _tiles, other._tiles );
+    }
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return 31 * _columnCount + Arrays.hashCode( _tiles );
+  }
+}
@@ -0,0 +1,63 @@
+package org.realityforge.saber.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * A collection of prefabs including every distinct rotation and mirror image of each prefab added.
+ */
+public final class PrefabLibrary
+{
+  @Nonnull
+  private final List<Prefab> _prefabs = new ArrayList<>();
+
+  /**
+   * Add the prefab and its distinct rotated and mirrored variants.
+   */
+  @Nonnull
+  public PrefabLibrary add( @Nonnull final Prefab prefab )
+  {
+    Prefab variant = prefab;
+    for ( int i = 0; i < 4; i++ )
+    {
+      addVariant( variant );
+      addVariant( variant.mirror() );
+      variant = variant.rotate();
+    }
+    return this;
+  }
+
+  /**
+   * Parse the prefab and add it and its variants.
+   */
+  @Nonnull
+  public PrefabLibrary add( @Nonnull final String data )
+  {
+    return add( Prefab.parse( data ) );
+  }
+
+  private void addVariant( @Nonnull final Prefab prefab )
+  {
+    if ( !_prefabs.contains( prefab ) )
+    {
+      _prefabs.add( prefab );
+    }
+  }
+
+  public int size()
+  {
+    return _prefabs.size();
+  }
+
+  public boolean isEmpty()
+  {
+    return _prefabs.isEmpty();
+  }
+
+  @Nonnull
+  public Prefab get( final int index )
+  {
+    return _prefabs.get( index );
+  }
+}
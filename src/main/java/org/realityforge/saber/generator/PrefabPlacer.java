@@ -0,0 +1,216 @@
+package org.realityforge.saber.generator;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Finds the legal placements of prefabs within a layout and stamps prefabs into the layout.
+ *
+ * <p>The placer tracks a bitset of blocked tiles with one row of words per layout row. The outer ring of the
+ * layout and the area of every stamped prefab is blocked. A placement is legal if no non-wildcard cell of the
+ * prefab covers a blocked tile. Rather than testing each placement cell by cell, the placer tests every column
+ * of a row at once by shifting the blocked row by the offset of each non-wildcard cell of the prefab row and
+ * clearing the shifted bits from the set of candidate columns. A row is abandoned as soon as no candidates
+ * remain.</p>
+ *
+ * <p>The placer retains its buffers between layouts so that it does not allocate once warmed up.
+ * Instances are not thread-safe.</p>
+ */
+public final class PrefabPlacer
+{
+  private int _columnCount;
+  private int _rowCount;
+  private int _wordsPerRow;
+  @Nonnull
+  private int[] _blocked = new int[ 0 ];
+  @Nonnull
+  private int[] _candidates = new int[ 0 ];
+  @Nonnull
+  private int[] _validColumns = new int[ 0 ];
+  @Nonnull
+  private int[] _placements = new int[ 0 ];
+  private int _placementCount;
+
+  /**
+   * Prepare to place prefabs into a layout with the specified dimensions.
+   */
+  public void reset( final int columnCount, final int rowCount )
+  {
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _wordsPerRow = ( columnCount + 31 ) >> 5;
+    final int size = _wordsPerRow * rowCount;
+    if ( _blocked.length < size )
+    {
+      _blocked = new int[ size ];
+    }
+    else
+    {
+      Arrays.fill( _blocked, 0, size, 0 );
+    }
+    if ( _candidates.length < _wordsPerRow )
+    {
+      _candidates = new int[ _wordsPerRow ];
+      _validColumns = new int[ _wordsPerRow ];
+    }
+    _placementCount = 0;
+
+    // Never replace the outer wall
+    block( 0, 0, columnCount, 1 );
+    block( 0, rowCount - 1, columnCount, 1 );
+    block( 0, 0, 1, rowCount );
+    block( columnCount - 1, 0, 1, rowCount );
+  }
+
+  /**
+   * Prevent prefabs from being stamped over the specified rectangle of tiles.
+   */
+  public void block( final int column, final int row, final int width, final int height )
+  {
+    for ( int r = row; r < row + height; r++ )
+    {
+      final int base = r * _wordsPerRow;
+      for ( int c = column; c < column + width; c++ )
+      {
+        _blocked[ base + ( c >> 5 ) ] |= 1 << ( c & 31 );
+      }
+    }
+  }
+
+  public boolean isBlocked( final int column, final int row )
+  {
+    return 0 != ( _blocked[ row * _wordsPerRow + ( column >> 5 ) ] & ( 1 << ( column & 31 ) ) );
+  }
+
+  /**
+   * Find every legal placement of the prefab whose top left corner lies on a multiple of the alignment.
+   *
+   * @return the number of placements found.
+   */
+  public int findPlacements( @Nonnull final Prefab prefab, final int alignment )
+  {
+    assert alignment > 0;
+    _placementCount = 0;
+    final int prefabColumnCount = prefab.getColumnCount();
+    final int prefabRowCount = prefab.getRowCount();
+    final int wordsPerRow = _wordsPerRow;
+    final int[] blocked = _blocked;
+    final int[] candidates = _candidates;
+    final int[] validColumns = _validColumns;
+
+    Arrays.fill( validColumns, 0, wordsPerRow, 0 );
+    for ( int column = 0; column <= _columnCount - prefabColumnCount; column += alignment )
+    {
+      validColumns[ column >> 5 ] |= 1 << ( column & 31 );
+    }
+
+    for ( int row = 0; row <= _rowCount - prefabRowCount; row += alignment )
+    {
+      System.arraycopy( validColumns, 0, candidates, 0, wordsPerRow );
+      boolean hasCandidates = true;
+      for ( int prefabRow = 0; prefabRow < prefabRowCount && hasCandidates; prefabRow++ )
+      {
+        final int base = ( row + prefabRow ) * wordsPerRow;
+        int mask = prefab.getRowMask( prefabRow );
+        while ( 0 != mask && hasCandidates )
+        {
+          final int offset = Integer.numberOfTrailingZeros( mask );
+          mask &= mask - 1;
+          // A candidate column is illegal if the tile at column + offset is blocked
+          int remaining = 0;
+          for ( int word = 0; word < wordsPerRow; word++ )
+          {
+            int shifted = blocked[ base + word ] >>> offset;
+            if ( 0 != offset && word + 1 < wordsPerRow )
+            {
+              shifted |= blocked[ base + word + 1 ] << ( 32 - offset );
+            }
+            candidates[ word ] &= ~shifted;
+            remaining |= candidates[ word ];
+          }
+          hasCandidates = 0 != remaining;
+        }
+      }
+      if ( hasCandidates )
+      {
+        for ( int word = 0; word < wordsPerRow; word++ )
+        {
+          int bits = candidates[ word ];
+          while ( 0 != bits )
+          {
+            final int column = ( word << 5 ) + Integer.numberOfTrailingZeros( bits );
+            bits &= bits - 1;
+            addPlacement( column + row * _columnCount );
+          }
+        }
+      }
+    }
+    return _placementCount;
+  }
+
+  /**
+   * Return the index of the top left tile of the specified placement found by the last search.
+   */
+  public int getPlacement( final int index )
+  {
+    assert index < _placementCount;
+    return _placements[ index ];
+  }
+
+  /**
+   * Stamp the prefab into the layout at a random legal placement.
+   *
+   * @return the index of the top left tile of the placement or -1 if there is no legal placement.
+   */
+  public int placeRandom( @Nonnull final LevelLayout layout,
+                          @Nonnull final Prefab prefab,
+                          final int alignment,
+                          @Nonnull final Rng rng )
+  {
+    final int count = findPlacements( prefab, alignment );
+    if ( 0 == count )
+    {
+      return -1;
+    }
+    else
+    {
+      final int placement = _placements[ rng.nextInt( count ) ];
+      stamp( layout, prefab, placement % _columnCount, placement / _columnCount );
+      return placement;
+    }
+  }
+
+  /**
+   * Copy the non-wildcard cells of the prefab into the layout and block the area covered by the prefab.
+   */
+  public void stamp( @Nonnull final LevelLayout layout,
+                     @Nonnull final Prefab prefab,
+                     final int column,
+                     final int row )
+  {
+    assert layout.getColumnCount() == _columnCount && layout.getRowCount() == _rowCount;
+    final int prefabColumnCount = prefab.getColumnCount();
+    final int prefabRowCount = prefab.getRowCount();
+    for ( int r = 0; r < prefabRowCount; r++ )
+    {
+      for ( int c = 0; c < prefabColumnCount; c++ )
+      {
+        final int tile = prefab.getTile( c, r );
+        if ( Prefab.WILDCARD != tile )
+        {
+          layout.setTile( column + c, row + r, tile );
+        }
+      }
+    }
+    block( column, row, prefabColumnCount, prefabRowCount );
+  }
+
+  private void addPlacement( final int placement )
+  {
+    if ( _placementCount == _placements.length )
+    {
+      _placements = Arrays.copyOf( _placements, Math.max( 16, _placements.length * 2 ) );
+    }
+    _placements[ _placementCount++ ] = placement;
+  }
+}
@@ -0,0 +1,69 @@
+package org.realityforge.saber.generator;
+
+/**
+ * Deterministic xorshift random number generator.
+ * Only int shifts and xors are used so the sequence is identical on the JVM and when compiled by GWT.
+ */
+public final class Rng
+{
+  private int _state;
+
+  public Rng( final int seed )
+  {
+    setSeed( seed );
+  }
+
+  public void setSeed( final int seed )
+  {
+    // Scramble the seed so that adjacent seeds do not produce correlated sequences
+    int state = seed ^ 0x5DEECE66;
+    state ^= state << 13;
+    state ^= state >>> 17;
+    state ^= state << 5;
+    _state = 0 == state ? 0x2545F491 : state;
+    // Discard the first few values as they are poorly mixed for small seeds
+    nextInt();
+    nextInt();
+  }
+
+  public int nextInt()
+  {
+    int state = _state;
+    state ^= state << 13;
+    state ^= state >>> 17;
+    state ^= state << 5;
+    _state = state;
+    return state;
+  }
+
+  /**
+   * Return a value in the range [0, bound).
+   */
+  public int nextInt( final int bound )
+  {
+    assert bound > 0;
+    return ( nextInt() >>> 1 ) % bound;
+  }
+
+  /**
+   * Return a value in the range [min, max].
+   */
+  public int nextInt( final int min, final int max )
+  {
+    assert max >= min;
+    return min + nextInt( max - min + 1 );
+  }
+
+  public boolean nextBoolean()
+  {
+    return nextInt() < 0;
+  }
+
+  /**
+   * Return a value in the range [0, 1).
+   */
+  public double nextDouble()
+  {
+    return ( nextInt() >>> 8 ) / (double) ( 1 << 24 );
+  }
+}
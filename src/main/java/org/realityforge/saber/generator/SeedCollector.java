@@ -0,0 +1,185 @@
+package org.realityforge.saber.generator;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Retains the best scoring seeds offered to it, optionally restricted to seeds whose metrics match a filter.
+ * The seeds are retained in a bounded min-heap so that offering a seed costs O(log capacity).
+ * Ties in score are broken in favour of the lower seed so that the result does not depend upon the order
+ * in which seeds were offered or collectors were merged.
+ */
+public final class SeedCollector
+{
+  private static final int INITIAL_SIZE = 16;
+  private final int _capacity;
+  @Nullable
+  private final Predicate<LevelMetrics> _filter;
+  @Nonnull
+  private int[] _seeds;
+  @Nonnull
+  private double[] _scores;
+  private int _size;
+
+  public SeedCollector( final int capacity )
+  {
+    this( capacity, null );
+  }
+
+  public SeedCollector( final int capacity, @Nullable final Predicate<LevelMetrics> filter )
+  {
+    assert capacity > 0;
+    _capacity = capacity;
+    _filter = filter;
+    _seeds = new int[ Math.min( capacity, INITIAL_SIZE ) ];
+    _scores = new double[ _seeds.length ];
+  }
+
+  /**
+   * Offer the evaluated seed to the collector.
+   *
+   * @return true if the seed was retained.
+   */
+  public boolean offer( @Nonnull final LevelMetrics metrics, final double score )
+  {
+    return ( null == _filter || _filter.test( metrics ) ) && offer( metrics.getSeed(), score );
+  }
+
+  /**
+   * Offer a seed that has already passed the filter to the collector.
+   *
+   * @return true if the seed was retained.
+   */
+  public boolean offer( final int seed, final double score )
+  {
+    if ( Double.isNaN( score ) || Double.NEGATIVE_INFINITY == score )
+    {
+      return false;
+    }
+    else if ( _size < _capacity )
+    {
+      if ( _size == _seeds.length )
+      {
+        final int newLength = (int) Math.min( _capacity, _seeds.length * 2L );
+        _seeds = Arrays.copyOf( _seeds, newLength );
+        _scores = Arrays.copyOf( _scores, newLength );
+      }
+      _seeds[ _size ] = seed;
+      _scores[ _size ] = score;
+      siftUp( _size++ );
+      return true;
+    }
+    else if ( isWorse( _scores[ 0 ], _seeds[ 0 ], score, seed ) )
+    {
+      _seeds[ 0 ] = seed;
+      _scores[ 0 ] = score;
+      siftDown( 0 );
+      return true;
+    }
+    else
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Merge the seeds retained by another collector into this collector.
+   */
+  public void merge( @Nonnull final SeedCollector other )
+  {
+    Objects.requireNonNull( other );
+    for ( int i = 0; i < other._size; i++ )
+    {
+      offer( other._seeds[ i ], other._scores[ i ] );
+    }
+  }
+
+  public int size()
+  {
+    return _size;
+  }
+
+  /**
+   * Create an index containing the retained seeds ordered from best to worst.
+   */
+  @Nonnull
+  public SeedIndex toIndex()
+  {
+    final Integer[] order = new Integer[ _size ];
+    for ( int i = 0; i < _size; i++ )
+    {
+      order[ i ] = i;
+    }
+    Arrays.sort( order, ( a, b ) -> isWorse( _scores[ a ], _seeds[ a ], _scores[ b ], _seeds[ b ] ) ? 1 :
+                                    isWorse( _scores[ b ], _seeds[ b ], _scores[ a ], _seeds[ a ] ) ? -1 : 0 );
+    final int[] seeds = new int[ _size ];
+    final double[] scores = new double[ _size ];
+    for ( int i = 0; i < _size; i++ )
+    {
+      seeds[ i ] = _seeds[ order[ i ] ];
+      scores[ i ] = _scores[ order[ i ] ];
+    }
+    return new SeedIndex( seeds, scores );
+  }
+
+  private static boolean isWorse( final double score, final int seed, final double otherScore, final int otherSeed )
+  {
+    return score < otherScore || ( score == otherScore && seed > otherSeed );
+  }
+
+  private void siftUp( final int start )
+  {
+    int index = start;
+    while ( index > 0 )
+    {
+      final int parent = ( index - 1 ) >>> 1;
+      if ( isWorse( _scores[ index ], _seeds[ index ], _scores[ parent ], _seeds[ parent ] ) )
+      {
+        swap( index, parent );
+        index = parent;
+      }
+      else
+      {
+        break;
+      }
+    }
+  }
+
+  private void siftDown( final int start )
+  {
+    int index = start;
+    while ( true )
+    {
+      final int left = index * 2 + 1;
+      final int right = left + 1;
+      int smallest = index;
+      if ( left < _size && isWorse( _scores[ left ], _seeds[ left ], _scores[ smallest ], _seeds[ smallest ] ) )
+      {
+        smallest = left;
+      }
+      if ( right < _size && isWorse( _scores[ right ], _seeds[ right ], _scores[ smallest ], _seeds[ smallest ] ) )
+      {
+        smallest = right;
+      }
+      if ( smallest == index )
+      {
+        return;
+      }
+      swap( index, smallest );
+      index = smallest;
+    }
+  }
+
+  private void swap( final int a, final int b )
+  {
+    final int seed = _seeds[ a ];
+    final double score = _scores[ a ];
+    _seeds[ a ] = _seeds[ b ];
+    _scores[ a ] = _scores[ b ];
+    _seeds[ b ] = seed;
+    _scores[ b ] = score;
+  }
+}
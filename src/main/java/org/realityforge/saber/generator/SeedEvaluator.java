@@ -0,0 +1,324 @@
+package org.realityforge.saber.generator;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Generates layouts and measures their quality without requiring any browser resources.
+ * The evaluator retains its layout, metrics and scratch buffers between evaluations so that a single
+ * instance can evaluate many seeds without allocating. Instances are not thread-safe.
+ */
+public final class SeedEvaluator
+{
+  /**
+   * Calculates a score from the metrics of a layout. Higher scores are better.
+   */
+  @FunctionalInterface
+  public interface Scorer
+  {
+    double score( @Nonnull LevelMetrics metrics );
+  }
+
+  /**
+   * The default scorer rewards long walks between the doors, a moderate number of rooms and a floor ratio close
+   * to one half while penalising dead ends. Layouts where the exit can not be reached are rejected outright.
+   */
+  @Nonnull
+  public static final Scorer DEFAULT_SCORER = metrics -> {
+    if ( !metrics.isExitReachable() || !metrics.isDoorPlacementValid() )
+    {
+      return Double.NEGATIVE_INFINITY;
+    }
+    final double floorCount = Math.max( 1, metrics.getFloorCount() );
+    final double pathScore = metrics.getPathLength() / Math.sqrt( metrics.getTileCount() );
+    final double roomScore = Math.min( metrics.getRoomCount(), 6 ) / 6D;
+    final double floorScore = 1D - Math.abs( metrics.getFloorRatio() - 0.5D ) * 2D;
+    final double deadEndPenalty = metrics.getDeadEndCount() / floorCount;
+    return pathScore + roomScore + floorScore - deadEndPenalty * 4D;
+  };
+  @Nonnull
+  private final LevelGenerator _generator;
+  @Nonnull
+  private final LevelLayout _layout;
+  @Nonnull
+  private final Scorer _scorer;
+  @Nonnull
+  private final LevelMetrics _metrics = new LevelMetrics();
+  @Nonnull
+  private int[] _distances = new int[ 0 ];
+  @Nonnull
+  private int[] _queue = new int[ 0 ];
+  @Nonnull
+  private int[] _labels = new int[ 0 ];
+
+  public SeedEvaluator( final int columnCount, final int rowCount )
+  {
+    this( new LevelGenerator(), columnCount, rowCount, DEFAULT_SCORER );
+  }
+
+  public SeedEvaluator( @Nonnull final LevelGenerator generator,
+                        final int columnCount,
+                        final int rowCount,
+                        @Nonnull final Scorer scorer )
+  {
+    _generator = Objects.requireNonNull( generator );
+    _layout = new LevelLayout( columnCount, rowCount );
+    _scorer = Objects.requireNonNull( scorer );
+  }
+
+  /**
+   * Generate the layout for the seed and measure it.
+   * The returned metrics are overwritten by the next call to the evaluator.
+   */
+  @Nonnull
+  public LevelMetrics evaluate( final int seed )
+  {
+    _generator.generate( seed, _layout );
+    return measure( _layout );
+  }
+
+  public double score( @Nonnull final LevelMetrics metrics )
+  {
+    return _scorer.score( metrics );
+  }
+
+  /**
+   * Measure an existing layout.
+   * The returned metrics are overwritten by the next call to the evaluator.
+   */
+  @Nonnull
+  public LevelMetrics measure( @Nonnull final LevelLayout layout )
+  {
+    final int[] tiles = layout.getTiles();
+    ensureScratchCapacity( tiles.length );
+
+    final LevelMetrics metrics = _metrics;
+    metrics._seed = layout.getSeed();
+    metrics._tileCount = tiles.length;
+    measureFloor( layout, metrics );
+    measureDoors( layout, metrics );
+    metrics._pathLength = measurePathLength( layout );
+    metrics._roomCount = countRooms( layout );
+    return metrics;
+  }
+
+  private void ensureScratchCapacity( final int tileCount )
+  {
+    if ( _distances.length < tileCount )
+    {
+      _distances = new int[ tileCount ];
+      _queue = new int[ tileCount ];
+      _labels = new int[ tileCount ];
+    }
+  }
+
+  private void measureFloor( @Nonnull final LevelLayout layout, @Nonnull final LevelMetrics metrics )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    int floorCount = 0;
+    int deadEndCount = 0;
+    int index = 0;
+    for ( int row = 0; row < rowCount; row++ )
+    {
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        if ( LevelLayout.isFloor( tiles[ index ] ) )
+        {
+          floorCount++;
+          int neighbours = 0;
+          if ( row > 0 && LevelLayout.isFloor( tiles[ index - columnCount ] ) )
+          {
+            neighbours++;
+          }
+          if ( row < rowCount - 1 && LevelLayout.isFloor( tiles[ index + columnCount ] ) )
+          {
+            neighbours++;
+          }
+          if ( column > 0 && LevelLayout.isFloor( tiles[ index - 1 ] ) )
+          {
+            neighbours++;
+          }
+          if ( column < columnCount - 1 && LevelLayout.isFloor( tiles[ index + 1 ] ) )
+          {
+            neighbours++;
+          }
+          if ( 1 == neighbours )
+          {
+            deadEndCount++;
+          }
+        }
+        index++;
+      }
+    }
+    metrics._floorCount = floorCount;
+    metrics._deadEndCount = deadEndCount;
+  }
+
+  private void measureDoors( @Nonnull final LevelLayout layout, @Nonnull final LevelMetrics metrics )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    final int entranceIndex = layout.getEntranceIndex();
+    final int exitIndex = layout.getExitIndex();
+    if ( entranceIndex < 0 || exitIndex < 0 )
+    {
+      metrics._doorPlacementValid = false;
+      metrics._doorSeparation = 0;
+    }
+    else
+    {
+      final int entranceColumn = entranceIndex % columnCount;
+      final int entranceRow = entranceIndex / columnCount;
+      final int exitColumn = exitIndex % columnCount;
+      final int exitRow = exitIndex / columnCount;
+      metrics._doorPlacementValid =
+        rowCount - 1 == entranceRow &&
+        0 == exitRow &&
+        LevelLayout.isFloor( tiles[ entranceIndex - columnCount ] ) &&
+        LevelLayout.isFloor( tiles[ exitIndex + columnCount ] );
+      metrics._doorSeparation = Math.abs( entranceColumn - exitColumn ) + Math.abs( entranceRow - exitRow );
+    }
+  }
+
+  /**
+   * Breadth first search from the tile inside the entrance to the tile inside the exit.
+   */
+  private int measurePathLength( @Nonnull final LevelLayout layout )
+  {
+    final int entranceIndex = layout.getEntranceIndex();
+    final int exitIndex = layout.getExitIndex();
+    final int columnCount = layout.getColumnCount();
+    final int[] tiles = layout.getTiles();
+    if ( entranceIndex < columnCount || exitIndex < 0 || exitIndex + columnCount >= tiles.length )
+    {
+      return -1;
+    }
+    final int start = entranceIndex - columnCount;
+    final int goal = exitIndex + columnCount;
+    if ( !LevelLayout.isFloor( tiles[ start ] ) || !LevelLayout.isFloor( tiles[ goal ] ) )
+    {
+      return -1;
+    }
+
+    final int[] distances = _distances;
+    final int[] queue = _queue;
+    Arrays.fill( distances, 0, tiles.length, -1 );
+    int head = 0;
+    int tail = 0;
+    distances[ start ] = 0;
+    queue[ tail++ ] = start;
+    while ( head < tail )
+    {
+      final int index = queue[ head++ ];
+      final int distance = distances[ index ];
+      if ( goal == index )
+      {
+        return distance;
+      }
+      final int column = index % columnCount;
+      tail = visit( tiles, distances, queue, tail, index - columnCount, index >= columnCount, distance );
+      tail = visit( tiles, distances, queue, tail, index + columnCount, index + columnCount < tiles.length, distance );
+      tail = visit( tiles, distances, queue, tail, index - 1, column > 0, distance );
+      tail = visit( tiles, distances, queue, tail, index + 1, column < columnCount - 1, distance );
+    }
+    return -1;
+  }
+
+  private int visit( @Nonnull final int[] tiles,
+                     @Nonnull final int[] distances,
+                     @Nonnull final int[] queue,
+                     final int tail,
+                     final int index,
+                     final boolean valid,
+                     final int distance )
+  {
+    if ( valid && distances[ index ] < 0 && LevelLayout.isFloor( tiles[ index ] ) )
+    {
+      distances[ index ] = distance + 1;
+      queue[ tail ] = index;
+      return tail + 1;
+    }
+    else
+    {
+      return tail;
+    }
+  }
+
+  /**
+   * Count the connected regions of floor tiles that are part of a 2x2 block of floor.
+   * Corridors carved by the maze are a single tile wide so only rooms contain such blocks.
+   */
+  private int countRooms( @Nonnull final LevelLayout layout )
+  {
+    final int columnCount = layout.getColumnCount();
+    final int rowCount = layout.getRowCount();
+    final int[] tiles = layout.getTiles();
+    final int[] labels = _labels;
+    Arrays.fill( labels, 0, tiles.length, 0 );
+
+    // Mark every tile that is part of an open 2x2 block with -1
+    for ( int row = 0; row < rowCount - 1; row++ )
+    {
+      int index = row * columnCount;
+      for ( int column = 0; column < columnCount - 1; column++ )
+      {
+        if ( LevelLayout.isFloor( tiles[ index ] ) &&
+             LevelLayout.isFloor( tiles[ index + 1 ] ) &&
+             LevelLayout.isFloor( tiles[ index + columnCount ] ) &&
+             LevelLayout.isFloor( tiles[ index + columnCount + 1 ] ) )
+        {
+          labels[ index ] = -1;
+          labels[ index + 1 ] = -1;
+          labels[ index + columnCount ] = -1;
+          labels[ index + columnCount + 1 ] = -1;
+        }
+        index++;
+      }
+    }
+
+    // Flood fill the marked tiles to count the distinct rooms
+    final int[] queue = _queue;
+    int roomCount = 0;
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      if ( -1 == labels[ i ] )
+      {
+        roomCount++;
+        int head = 0;
+        int tail = 0;
+        labels[ i ] = roomCount;
+        queue[ tail++ ] = i;
+        while ( head < tail )
+        {
+          final int index = queue[ head++ ];
+          final int column = index % columnCount;
+          if ( index >= columnCount && -1 == labels[ index - columnCount ] )
+          {
+            labels[ index - columnCount ] = roomCount;
+            queue[ tail++ ] = index - columnCount;
+          }
+          if ( index + columnCount < tiles.length && -1 == labels[ index + columnCount ] )
+          {
+            labels[ index + columnCount ] = roomCount;
+            queue[ tail++ ] = index + columnCount;
+          }
+          if ( column > 0 && -1 == labels[ index - 1 ] )
+          {
+            labels[ index - 1 ] = roomCount;
+            queue[ tail++ ] = index - 1;
+          }
+          if ( column < columnCount - 1 && -1 == labels[ index + 1 ] )
+          {
+            labels[ index + 1 ] = roomCount;
+            queue[ tail++ ] = index + 1;
+          }
+        }
+      }
+    }
+    return roomCount;
+  }
+}
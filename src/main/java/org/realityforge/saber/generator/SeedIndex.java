@@ -0,0 +1,114 @@
+package org.realityforge.saber.generator;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * A precomputed list of good seeds ordered from best to worst.
+ * The index is expected to be produced offline by the {@link SeedSearch} and embedded in the game so that
+ * the game can select a good seed at runtime rather than generating and rejecting levels.
+ */
+public final class SeedIndex
+{
+  private static final char SEPARATOR = ',';
+  @Nonnull
+  private final int[] _seeds;
+  @Nonnull
+  private final double[] _scores;
+
+  SeedIndex( @Nonnull final int[] seeds, @Nonnull final double[] scores )
+  {
+    assert seeds.length == scores.length;
+    _seeds = Objects.requireNonNull( seeds );
+    _scores = Objects.requireNonNull( scores );
+  }
+
+  public int size()
+  {
+    return _seeds.length;
+  }
+
+  public boolean isEmpty()
+  {
+    return 0 == _seeds.length;
+  }
+
+  public int getSeed( final int index )
+  {
+    return _seeds[ index ];
+  }
+
+  /**
+   * Return the score of the seed at the specified index.
+   * Indexes decoded from their textual form do not retain scores and will return 0.
+   */
+  public double getScore( final int index )
+  {
+    return _scores[ index ];
+  }
+
+  /**
+   * Pick a seed from the index using the supplied generator.
+   */
+  public int pick( @Nonnull final Rng rng )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> !isEmpty(), () -> "Saber-0006: Attempted to pick a seed from an empty SeedIndex" );
+    }
+    return _seeds[ rng.nextInt( _seeds.length ) ];
+  }
+
+  /**
+   * Encode the seeds in a compact textual form suitable for embedding in the game.
+   */
+  @Nonnull
+  public String encode()
+  {
+    final StringBuilder sb = new StringBuilder();
+    for ( int i = 0; i < _seeds.length; i++ )
+    {
+      if ( 0 != i )
+      {
+        sb.append( SEPARATOR );
+      }
+      sb.append( Integer.toString( _seeds[ i ], Character.MAX_RADIX ) );
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Decode an index previously produced by {@link #encode()}.
+   */
+  @Nonnull
+  public static SeedIndex decode( @Nonnull final String data )
+  {
+    if ( data.isEmpty() )
+    {
+      return new SeedIndex( new int[ 0 ], new double[ 0 ] );
+    }
+    int count = 1;
+    for ( int i = 0; i < data.length(); i++ )
+    {
+      if ( SEPARATOR == data.charAt( i ) )
+      {
+        count++;
+      }
+    }
+    final int[] seeds = new int[ count ];
+    int start = 0;
+    for ( int i = 0; i < count; i++ )
+    {
+      int end = data.indexOf( SEPARATOR, start );
+      if ( -1 == end )
+      {
+        end = data.length();
+      }
+      seeds[ i ] = Integer.parseInt( data.substring( start, end ), Character.MAX_RADIX );
+      start = end + 1;
+    }
+    return new SeedIndex( seeds, new double[ count ] );
+  }
+}
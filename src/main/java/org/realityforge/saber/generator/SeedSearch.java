@@ -0,0 +1,120 @@
+package org.realityforge.saber.generator;
+
+import com.google.gwt.core.shared.GwtIncompatible;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Evaluates a range of seeds in parallel on the JVM and produces an index of the best seeds.
+ * The range is recursively split using fork-join and each leaf evaluates its seeds using a private
+ * {@link SeedEvaluator} and {@link SeedCollector} so that no state is shared between workers.
+ */
+@GwtIncompatible
+public final class SeedSearch
+{
+  private static final int SEEDS_PER_TASK = 4096;
+  private final int _columnCount;
+  private final int _rowCount;
+  private final int _capacity;
+  @Nullable
+  private final Predicate<LevelMetrics> _filter;
+  @Nonnull
+  private final SeedEvaluator.Scorer _scorer;
+
+  public SeedSearch( final int columnCount, final int rowCount, final int capacity )
+  {
+    this( columnCount, rowCount, capacity, null, SeedEvaluator.DEFAULT_SCORER );
+  }
+
+  public SeedSearch( final int columnCount,
+                     final int rowCount,
+                     final int capacity,
+                     @Nullable final Predicate<LevelMetrics> filter,
+                     @Nonnull final SeedEvaluator.Scorer scorer )
+  {
+    _columnCount = columnCount;
+    _rowCount = rowCount;
+    _capacity = capacity;
+    _filter = filter;
+    _scorer = Objects.requireNonNull( scorer );
+  }
+
+  @Nonnull
+  public SeedIndex search( final int firstSeed, final int seedCount )
+  {
+    return search( ForkJoinPool.commonPool(), firstSeed, seedCount );
+  }
+
+  @Nonnull
+  public SeedIndex search( @Nonnull final ForkJoinPool pool, final int firstSeed, final int seedCount )
+  {
+    assert seedCount >= 0;
+    return pool.invoke( new SearchTask( firstSeed, firstSeed + (long) seedCount ) ).toIndex();
+  }
+
+  private final class SearchTask
+    extends RecursiveTask<SeedCollector>
+  {
+    private static final long serialVersionUID = 1L;
+    private final long _start;
+    private final long _end;
+
+    SearchTask( final long start, final long end )
+    {
+      _start = start;
+      _end = end;
+    }
+
+    @Override
+    protected SeedCollector compute()
+    {
+      if ( _end - _start <= SEEDS_PER_TASK )
+      {
+        final SeedEvaluator evaluator =
+          new SeedEvaluator( new LevelGenerator(), _columnCount, _rowCount, _scorer );
+        final SeedCollector collector = new SeedCollector( _capacity, _filter );
+        for ( long seed = _start; seed < _end; seed++ )
+        {
+          final LevelMetrics metrics = evaluator.evaluate( (int) seed );
+          collector.offer( metrics, evaluator.score( metrics ) );
+        }
+        return collector;
+      }
+      else
+      {
+        final long middle = _start + ( _end - _start ) / 2;
+        final SearchTask left = new SearchTask( _start, middle );
+        left.fork();
+        final SeedCollector collector = new SearchTask( middle, _end ).compute();
+        collector.merge( left.join() );
+        return collector;
+      }
+    }
+  }
+
+  /**
+   * Search a range of seeds and print the encoded index.
+   * Usage: SeedSearch columnCount rowCount seedCount capacity
+   */
+  public static void main( final String[] args )
+  {
+    if ( 4 != args.length )
+    {
+      System.err.println( "Usage: SeedSearch columnCount rowCount seedCount capacity" );
+      System.exit( 1 );
+    }
+    final int columnCount = Integer.parseInt( args[ 0 ] );
+    final int rowCount = Integer.parseInt( args[ 1 ] );
+    final int seedCount = Integer.parseInt( args[ 2 ] );
+    final int capacity = Integer.parseInt( args[ 3 ] );
+    final long startedAt = System.nanoTime();
+    final SeedIndex index = new SeedSearch( columnCount, rowCount, capacity ).search( 0, seedCount );
+    final long duration = ( System.nanoTime() - startedAt ) / 1_000_000L;
+    System.err.println( "Evaluated " + seedCount + " seeds in " + duration + "ms" );
+    System.out.println( index.encode() );
+  }
+}
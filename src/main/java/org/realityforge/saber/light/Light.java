@@ -0,0 +1,128 @@
+package org.realityforge.saber.light;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A point light that illuminates the tiles within its radius that are visible from its position.
+ *
+ * <p>The contribution of the light is cached in a footprint covering the square of tiles centred on the light
+ * so that the light map only recomputes the light when it moves or when a tile within the footprint changes.</p>
+ */
+public final class Light
+{
+  private final int _radius;
+  private final int _intensity;
+  /**
+   * The contribution of the light to each tile in the square centred on the light, stored row-major.
+   */
+  @Nonnull
+  private final int[] _footprint;
+  private int _column;
+  private int _row;
+  /**
+   * The column of the tile the footprint was computed at. Only meaningful while the light is applied.
+   */
+  private int _appliedColumn;
+  /**
+   * The row of the tile the footprint was computed at. Only meaningful while the light is applied.
+   */
+  private int _appliedRow;
+  private boolean _applied;
+  private boolean _dirty;
+
+  public Light( final int column, final int row, final int radius, final int intensity )
+  {
+    assert radius >= 0;
+    assert intensity >= 0 && intensity <= LightMap.MAX_LIGHT;
+    _column = column;
+    _row = row;
+    _radius = radius;
+    _intensity = intensity;
+    final int size = getFootprintSize();
+    _footprint = new int[ size * size ];
+  }
+
+  public int getColumn()
+  {
+    return _column;
+  }
+
+  public int getRow()
+  {
+    return _row;
+  }
+
+  public int getRadius()
+  {
+    return _radius;
+  }
+
+  public int getIntensity()
+  {
+    return _intensity;
+  }
+
+  int getFootprintSize()
+  {
+    return _radius * 2 + 1;
+  }
+
+  @Nonnull
+  int[] getFootprint()
+  {
+    return _footprint;
+  }
+
+  void setPosition( final int column, final int row )
+  {
+    _column = column;
+    _row = row;
+  }
+
+  int getAppliedColumn()
+  {
+    return _appliedColumn;
+  }
+
+  int getAppliedRow()
+  {
+    return _appliedRow;
+  }
+
+  boolean isApplied()
+  {
+    return _applied;
+  }
+
+  void markApplied( final int column, final int row )
+  {
+    _appliedColumn = column;
+    _appliedRow = row;
+    _applied = true;
+  }
+
+  void markUnapplied()
+  {
+    _applied = false;
+  }
+
+  boolean isDirty()
+  {
+    return _dirty;
+  }
+
+  void setDirty( final boolean dirty )
+  {
+    _dirty = dirty;
+  }
+
+  /**
+   * Return true if the footprint of the applied light covers the specified tile.
+   */
+  boolean covers( final int column, final int row )
+  {
+    return _applied &&
+           Math.abs( column - _appliedColumn ) <= _radius &&
+           Math.abs( row - _appliedRow ) <= _radius;
+  }
+}
@@ -0,0 +1,378 @@
+package org.realityforge.saber.light;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelJournal;
+import org.realityforge.saber.world.ShadowCaster;
+
+/**
+ * The amount of light that reaches each tile of a level.
+ *
+ * <p>Each light caches its contribution in a footprint and the light map sums the footprints of all applied
+ * lights. Footprints are computed by shadowcasting and moving or changing a light only subtracts the old
+ * footprint and adds the new footprint, so the cost is proportional to the area of the light rather than the
+ * size of the level or the number of lights. Lights are
+ * registered in a coarse grid of buckets so that when the journal reports that a tile has changed, only the
+ * lights whose footprint covers the tile are recomputed.</p>
+ *
+ * <p>The light map records the tiles whose light changed so that consumers, such as the renderer, can redraw
+ * only those tiles via {@link #syncChanges(LevelJournal.ChangeListener)}.</p>
+ */
+public final class LightMap
+{
+  public static final int MAX_LIGHT = 255;
+  /**
+   * Buckets are squares of 8x8 tiles.
+   */
+  private static final int BUCKET_SHIFT = 3;
+  private final int _ambient;
+  @Nonnull
+  private final List<Light> _lights = new ArrayList<>();
+  @Nonnull
+  private final List<Light> _dirtyLights = new ArrayList<>();
+  @Nonnull
+  private final List<List<Light>> _buckets = new ArrayList<>();
+  @Nonnull
+  private final LevelJournal.ChangeListener _onTileChanged = this::onTileChanged;
+  @Nonnull
+  private final ShadowCaster.Visitor _lightTile = this::lightTile;
+  /**
+   * The light whose footprint is being computed.
+   */
+  @Nullable
+  private Light _footprintLight;
+  @Nullable
+  private Level _level;
+  @Nullable
+  private LevelJournal.Cursor _cursor;
+  private int _columnCount;
+  private int _rowCount;
+  private int _bucketColumnCount;
+  @Nonnull
+  private int[] _accumulation = new int[ 0 ];
+  @Nonnull
+  private byte[] _levels = new byte[ 0 ];
+  /**
+   * The indexes of the tiles whose light changed since changes were last synchronised.
+   */
+  @Nonnull
+  private int[] _changes = new int[ 0 ];
+  /**
+   * A bitset with a bit set for every tile present in _changes.
+   */
+  @Nonnull
+  private int[] _changed = new int[ 0 ];
+  private int _changeCount;
+  /**
+   * True if every tile must be treated as changed, such as after the level changed.
+   */
+  private boolean _allChanged;
+
+  /**
+   * Create a light map.
+   *
+   * @param ambient the light that reaches every tile, irrespective of lights.
+   */
+  public LightMap( final int ambient )
+  {
+    assert ambient >= 0 && ambient <= MAX_LIGHT;
+    _ambient = ambient;
+  }
+
+  /**
+   * Start lighting the specified level. All lights are retained and recomputed against the new level.
+   */
+  public void setLevel( @Nonnull final Level level )
+  {
+    _level = level;
+    _cursor = level.getJournal().createCursor();
+    _columnCount = level.getColumnCount();
+    _rowCount = level.getRowCount();
+    final int tileCount = _columnCount * _rowCount;
+    if ( _accumulation.length != tileCount )
+    {
+      _accumulation = new int[ tileCount ];
+      _levels = new byte[ tileCount ];
+      _changes = new int[ tileCount ];
+      _changed = new int[ ( tileCount + 31 ) >> 5 ];
+    }
+    else
+    {
+      Arrays.fill( _accumulation, 0 );
+      Arrays.fill( _changed, 0 );
+    }
+    _changeCount = 0;
+    _allChanged = true;
+    Arrays.fill( _levels, (byte) Math.min( MAX_LIGHT, _ambient ) );
+
+    _bucketColumnCount = ( ( _columnCount - 1 ) >> BUCKET_SHIFT ) + 1;
+    final int bucketCount = _bucketColumnCount * ( ( ( _rowCount - 1 ) >> BUCKET_SHIFT ) + 1 );
+    _buckets.clear();
+    for ( int i = 0; i < bucketCount; i++ )
+    {
+      _buckets.add( new ArrayList<>() );
+    }
+    for ( final Light light : _lights )
+    {
+      light.markUnapplied();
+      markDirty( light );
+    }
+  }
+
+  public void addLight( @Nonnull final Light light )
+  {
+    assert !_lights.contains( light );
+    _lights.add( light );
+    markDirty( light );
+  }
+
+  public void removeLight( @Nonnull final Light light )
+  {
+    if ( _lights.remove( light ) )
+    {
+      unapply( light );
+      if ( light.isDirty() )
+      {
+        light.setDirty( false );
+        _dirtyLights.remove( light );
+      }
+    }
+  }
+
+  public void clearLights()
+  {
+    while ( !_lights.isEmpty() )
+    {
+      removeLight( _lights.get( _lights.size() - 1 ) );
+    }
+  }
+
+  /**
+   * Move the light. The light map is updated when {@link #update()} is next invoked.
+   */
+  public void moveLight( @Nonnull final Light light, final int column, final int row )
+  {
+    if ( light.getColumn() != column || light.getRow() != row )
+    {
+      light.setPosition( column, row );
+      markDirty( light );
+    }
+  }
+
+  /**
+   * Recompute the lights that have moved or that cover tiles changed since the last update.
+   */
+  public void update()
+  {
+    if ( null == _cursor )
+    {
+      return;
+    }
+    if ( _cursor.hasChanges() && !_cursor.sync( _onTileChanged ) )
+    {
+      // Too many changes to track so recompute every light
+      for ( final Light light : _lights )
+      {
+        markDirty( light );
+      }
+    }
+    final int count = _dirtyLights.size();
+    for ( int i = 0; i < count; i++ )
+    {
+      final Light light = _dirtyLights.get( i );
+      light.setDirty( false );
+      unapply( light );
+      apply( light );
+    }
+    _dirtyLights.clear();
+  }
+
+  /**
+   * Return the light that reaches the tile at the specified index, in the range 0 to {@link #MAX_LIGHT}.
+   */
+  public int getLight( final int index )
+  {
+    return _levels[ index ] & 0xFF;
+  }
+
+  public int getLight( final int column, final int row )
+  {
+    return getLight( column + row * _columnCount );
+  }
+
+  /**
+   * Deliver the indexes of the tiles whose light changed since the previous synchronisation.
+   *
+   * @return true if the changes were delivered, false if every tile must be treated as changed.
+   */
+  public boolean syncChanges( @Nonnull final LevelJournal.ChangeListener listener )
+  {
+    final boolean complete = !_allChanged;
+    for ( int i = 0; i < _changeCount; i++ )
+    {
+      final int index = _changes[ i ];
+      _changed[ index >> 5 ] &= ~( 1 << ( index & 31 ) );
+      if ( complete )
+      {
+        listener.onTileChanged( index );
+      }
+    }
+    _changeCount = 0;
+    _allChanged = false;
+    return complete;
+  }
+
+  private void onTileChanged( final int index )
+  {
+    final int column = index % _columnCount;
+    final int row = index / _columnCount;
+    final List<Light> bucket = _buckets.get( bucketIndex( column, row ) );
+    final int size = bucket.size();
+    for ( int i = 0; i < size; i++ )
+    {
+      final Light light = bucket.get( i );
+      if ( light.covers( column, row ) )
+      {
+        markDirty( light );
+      }
+    }
+  }
+
+  private void recordChange( final int index )
+  {
+    final int word = index >> 5;
+    final int bit = 1 << ( index & 31 );
+    if ( 0 == ( _changed[ word ] & bit ) )
+    {
+      _changed[ word ] |= bit;
+      _changes[ _changeCount++ ] = index;
+    }
+  }
+
+  private void markDirty( @Nonnull final Light light )
+  {
+    if ( !light.isDirty() )
+    {
+      light.setDirty( true );
+      _dirtyLights.add( light );
+    }
+  }
+
+  private int bucketIndex( final int column, final int row )
+  {
+    return ( column >> BUCKET_SHIFT ) + ( row >> BUCKET_SHIFT ) * _bucketColumnCount;
+  }
+
+  private void apply( @Nonnull final Light light )
+  {
+    assert null != _level;
+    final int column = light.getColumn();
+    final int row = light.getRow();
+    if ( !_level.isValidTile( column, row ) )
+    {
+      return;
+    }
+    computeFootprint( _level, light );
+    accumulate( light, column, row, 1 );
+    light.markApplied( column, row );
+    forEachBucket( light, true );
+  }
+
+  private void unapply( @Nonnull final Light light )
+  {
+    if ( light.isApplied() )
+    {
+      accumulate( light, light.getAppliedColumn(), light.getAppliedRow(), -1 );
+      forEachBucket( light, false );
+      light.markUnapplied();
+    }
+  }
+
+  private void accumulate( @Nonnull final Light light, final int column, final int row, final int sign )
+  {
+    final int radius = light.getRadius();
+    final int size = light.getFootprintSize();
+    final int[] footprint = light.getFootprint();
+    final int minRow = Math.max( 0, row - radius );
+    final int maxRow = Math.min( _rowCount - 1, row + radius );
+    final int minColumn = Math.max( 0, column - radius );
+    final int maxColumn = Math.min( _columnCount - 1, column + radius );
+    for ( int r = minRow; r <= maxRow; r++ )
+    {
+      int footprintIndex = ( r - row + radius ) * size + ( minColumn - column + radius );
+      int index = r * _columnCount + minColumn;
+      for ( int c = minColumn; c <= maxColumn; c++ )
+      {
+        final int contribution = footprint[ footprintIndex++ ];
+        if ( 0 != contribution )
+        {
+          final int value = _accumulation[ index ] + sign * contribution;
+          _accumulation[ index ] = value;
+          final byte level = (byte) Math.min( MAX_LIGHT, _ambient + value );
+          if ( _levels[ index ] != level )
+          {
+            _levels[ index ] = level;
+            recordChange( index );
+          }
+        }
+        index++;
+      }
+    }
+  }
+
+  private void forEachBucket( @Nonnull final Light light, final boolean add )
+  {
+    final int radius = light.getRadius();
+    final int column = light.getAppliedColumn();
+    final int row = light.getAppliedRow();
+    final int minBucketRow = Math.max( 0, row - radius ) >> BUCKET_SHIFT;
+    final int maxBucketRow = Math.min( _rowCount - 1, row + radius ) >> BUCKET_SHIFT;
+    final int minBucketColumn = Math.max( 0, column - radius ) >> BUCKET_SHIFT;
+    final int maxBucketColumn = Math.min( _columnCount - 1, column + radius ) >> BUCKET_SHIFT;
+    for ( int r = minBucketRow; r <= maxBucketRow; r++ )
+    {
+      for ( int c = minBucketColumn; c <= maxBucketColumn; c++ )
+      {
+        final List<Light> bucket = _buckets.get( c + r * _bucketColumnCount );
+        if ( add )
+        {
+          bucket.add( light );
+        }
+        else
+        {
+          bucket.remove( light );
+        }
+      }
+    }
+  }
+
+  private void computeFootprint( @Nonnull final Level level, @Nonnull final Light light )
+  {
+    Arrays.fill( light.getFootprint(), 0 );
+    _footprintLight = light;
+    ShadowCaster.castLight( level, light.getColumn(), light.getRow(), light.getRadius(), _lightTile );
+    _footprintLight = null;
+  }
+
+  private void lightTile( final int column, final int row )
+  {
+    final Light light = _footprintLight;
+    assert null != light;
+    final int radius = light.getRadius();
+    final int dx = column - light.getColumn();
+    final int dy = row - light.getRow();
+    // Light falls off with the square of the distance and reaches zero just beyond the radius
+    final int range = ( radius + 1 ) * ( radius + 1 );
+    final int distance = dx * dx + dy * dy;
+    if ( distance < range )
+    {
+      final int intensity = light.getIntensity();
+      light.getFootprint()[ ( dy + radius ) * light.getFootprintSize() + dx + radius ] =
+        intensity * ( range - distance ) / range;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package org.realityforge.saber.minimap;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A minimap buffer backed by a byte array in the same RGBA layout as an ImageData.
+ * This buffer does not depend upon the browser.
+ */
+public final class ByteMinimapBuffer
+  implements MinimapBuffer
+{
+  @Nonnull
+  private byte[] _data = new byte[ 0 ];
+  private int _width;
+  private int _height;
+
+  @Override
+  public void reset( final int width, final int height )
+  {
+    assert width >= 0 && height >= 0;
+    _width = width;
+    _height = height;
+    _data = new byte[ width * height * 4 ];
+  }
+
+  @Override
+  public void setPixel( final int index, final int color )
+  {
+    final int offset = index << 2;
+    _data[ offset ] = (byte) ( color >> 16 );
+    _data[ offset + 1 ] = (byte) ( color >> 8 );
+    _data[ offset + 2 ] = (byte) color;
+    _data[ offset + 3 ] = (byte) ( color >>> 24 );
+  }
+
+  /**
+   * Return the colour of the pixel at the specified index packed as 0xAARRGGBB.
+   */
+  public int getPixel( final int index )
+  {
+    final int offset = index << 2;
+    return ( ( _data[ offset + 3 ] & 0xFF ) << 24 ) |
+           ( ( _data[ offset ] & 0xFF ) << 16 ) |
+           ( ( _data[ offset + 1 ] & 0xFF ) << 8 ) |
+           ( _data[ offset + 2 ] & 0xFF );
+  }
+
+  public int getWidth()
+  {
+    return _width;
+  }
+
+  public int getHeight()
+  {
+    return _height;
+  }
+
+  @Nonnull
+  public byte[] getData()
+  {
+    return _data;
+  }
+}
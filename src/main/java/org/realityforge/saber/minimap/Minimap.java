@@ -0,0 +1,223 @@
+package org.realityforge.saber.minimap;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelJournal;
+import org.realityforge.saber.world.RayCaster;
+import org.realityforge.saber.world.TileType;
+
+/**
+ * Maintains an overview of the explored tiles of the current level in a buffer with one pixel per tile.
+ *
+ * <p>A tile is explored once it lies within the view radius of the viewer and is in line of sight. The
+ * colour of each explored tile is derived from the flags of its tile type. The minimap consumes the level
+ * journal so that only explored tiles that have changed are recoloured, and only revisits the tiles around
+ * the viewer when the viewer moves or a tile within the view radius changes. Unexplored tiles are left transparent.</p>
+ */
+public final class Minimap
+{
+  public static final int WALL_COLOR = 0xFF8A8A8A;
+  public static final int FLOOR_COLOR = 0xFF4A3C30;
+  public static final int DOOR_COLOR = 0xFFB07A3A;
+  @Nonnull
+  private final MinimapBuffer _buffer;
+  private final int _viewRadius;
+  @Nonnull
+  private final LevelJournal.ChangeListener _redrawTile = this::redrawTile;
+  @Nullable
+  private Level _level;
+  @Nullable
+  private LevelJournal.Cursor _cursor;
+  /**
+   * A bitset with a bit set for every tile that has been explored.
+   */
+  @Nonnull
+  private int[] _explored = new int[ 0 ];
+  private int _exploredCount;
+  private int _viewerColumn;
+  private int _viewerRow;
+  /**
+   * True if the tiles around the viewer must be revisited as the level changed since they were last visited.
+   */
+  private boolean _viewDirty;
+
+  public Minimap( @Nonnull final MinimapBuffer buffer, final int viewRadius )
+  {
+    assert viewRadius >= 0;
+    _buffer = Objects.requireNonNull( buffer );
+    _viewRadius = viewRadius;
+  }
+
+  @Nonnull
+  public MinimapBuffer getBuffer()
+  {
+    return _buffer;
+  }
+
+  public int getExploredCount()
+  {
+    return _exploredCount;
+  }
+
+  public boolean isExplored( final int index )
+  {
+    return 0 != ( _explored[ index >> 5 ] & ( 1 << ( index & 31 ) ) );
+  }
+
+  /**
+   * Bring the minimap up to date with the level and the position of the viewer.
+   * Changing the level discards the explored state of the previous level.
+   */
+  public void update( @Nonnull final Level level, final int viewerColumn, final int viewerRow )
+  {
+    if ( _level != level || null == _cursor )
+    {
+      _level = level;
+      _cursor = level.getJournal().createCursor();
+      final int tileCount = level.getTiles().length;
+      _explored = new int[ ( tileCount + 31 ) >> 5 ];
+      _exploredCount = 0;
+      _buffer.reset( level.getColumnCount(), level.getRowCount() );
+      _viewDirty = true;
+    }
+    else if ( _cursor.hasChanges() && !_cursor.sync( _redrawTile ) )
+    {
+      redrawExplored();
+      _viewDirty = true;
+    }
+    if ( _viewDirty || viewerColumn != _viewerColumn || viewerRow != _viewerRow )
+    {
+      _viewerColumn = viewerColumn;
+      _viewerRow = viewerRow;
+      _viewDirty = false;
+      reveal( level, viewerColumn, viewerRow );
+    }
+  }
+
+  /**
+   * Move the explored state to match tiles of the level that have moved by the specified offset, such as when
+   * the level is a window onto a larger world that has been recentred. The level must already contain the
+   * moved tiles. Tiles that move outside the level are forgotten.
+   */
+  public void translate( final int deltaColumn, final int deltaRow )
+  {
+    final Level level = _level;
+    if ( null != level && null != _cursor )
+    {
+      final int columnCount = level.getColumnCount();
+      final int rowCount = level.getRowCount();
+      final int[] explored = new int[ _explored.length ];
+      int exploredCount = 0;
+      for ( int row = 0; row < rowCount; row++ )
+      {
+        final int oldRow = row - deltaRow;
+        for ( int column = 0; column < columnCount; column++ )
+        {
+          final int oldColumn = column - deltaColumn;
+          if ( level.isValidTile( oldColumn, oldRow ) && isExplored( level.getIndex( oldColumn, oldRow ) ) )
+          {
+            final int index = level.getIndex( column, row );
+            explored[ index >> 5 ] |= 1 << ( index & 31 );
+            exploredCount++;
+          }
+        }
+      }
+      _explored = explored;
+      _exploredCount = exploredCount;
+      _buffer.reset( columnCount, rowCount );
+      redrawExplored();
+      // Every change to the level is reflected by the redraw
+      _cursor.skip();
+      _viewerColumn += deltaColumn;
+      _viewerRow += deltaRow;
+      _viewDirty = true;
+    }
+  }
+
+  private void reveal( @Nonnull final Level level, final int viewerColumn, final int viewerRow )
+  {
+    if ( !level.isValidTile( viewerColumn, viewerRow ) )
+    {
+      return;
+    }
+    final int radiusSquared = _viewRadius * _viewRadius;
+    final int minRow = Math.max( 0, viewerRow - _viewRadius );
+    final int maxRow = Math.min( level.getRowCount() - 1, viewerRow + _viewRadius );
+    final int minColumn = Math.max( 0, viewerColumn - _viewRadius );
+    final int maxColumn = Math.min( level.getColumnCount() - 1, viewerColumn + _viewRadius );
+    for ( int row = minRow; row <= maxRow; row++ )
+    {
+      final int dy = row - viewerRow;
+      for ( int column = minColumn; column <= maxColumn; column++ )
+      {
+        final int dx = column - viewerColumn;
+        final int index = level.getIndex( column, row );
+        if ( dx * dx + dy * dy <= radiusSquared &&
+             !isExplored( index ) &&
+             RayCaster.hasLineOfSight( level, viewerColumn, viewerRow, column, row ) )
+        {
+          _explored[ index >> 5 ] |= 1 << ( index & 31 );
+          _exploredCount++;
+          drawTile( level, index );
+        }
+      }
+    }
+  }
+
+  private void redrawExplored()
+  {
+    assert null != _level;
+    final int tileCount = _level.getTiles().length;
+    for ( int i = 0; i < tileCount; i++ )
+    {
+      if ( isExplored( i ) )
+      {
+        drawTile( _level, i );
+      }
+    }
+  }
+
+  private void redrawTile( final int index )
+  {
+    assert null != _level;
+    if ( isExplored( index ) )
+    {
+      drawTile( _level, index );
+    }
+    // A changed tile within view may have opened a line of sight to unexplored tiles
+    final int columnCount = _level.getColumnCount();
+    final int dx = index % columnCount - _viewerColumn;
+    final int dy = index / columnCount - _viewerRow;
+    if ( dx * dx + dy * dy <= _viewRadius * _viewRadius )
+    {
+      _viewDirty = true;
+    }
+  }
+
+  private void drawTile( @Nonnull final Level level, final int index )
+  {
+    _buffer.setPixel( index, colorOf( level.getTiles()[ index ].getTileType() ) );
+  }
+
+  private static int colorOf( @Nonnull final TileType tileType )
+  {
+    if ( tileType.isOpaque() )
+    {
+      return WALL_COLOR;
+    }
+    else if ( tileType.isFloor() )
+    {
+      return FLOOR_COLOR;
+    }
+    else if ( tileType.isSolid() )
+    {
+      return DOOR_COLOR;
+    }
+    else
+    {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package org.realityforge.saber.minimap;
+
+/**
+ * The pixels of a minimap, one pixel per tile.
+ * Colours are packed as 0xAARRGGBB.
+ */
+public interface MinimapBuffer
+{
+  /**
+   * Resize the buffer and clear every pixel to transparent.
+   */
+  void reset( int width, int height );
+
+  /**
+   * Set the colour of the pixel at the specified index, where index is row * width + column.
+   */
+  void setPixel( int index, int color );
+}
@@ -0,0 +1,105 @@
+package org.realityforge.saber.noise;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Fractal Brownian motion that sums octaves of a base noise with increasing frequency and decreasing amplitude.
+ * The sum is normalised so that values remain in the range [-1, 1].
+ *
+ * <p>Rows are sampled an octave at a time into a retained buffer so instances are not thread-safe.</p>
+ */
+public final class FractalNoise
+  implements Noise
+{
+  /**
+   * The offset applied to each successive octave so that the octaves do not align at the origin.
+   */
+  private static final double OCTAVE_OFFSET = 31.7;
+  @Nonnull
+  private final Noise _noise;
+  private final int _octaves;
+  private final double _lacunarity;
+  private final double _gain;
+  private final double _normalisation;
+  @Nonnull
+  private float[] _octaveRow = new float[ 0 ];
+
+  public FractalNoise( @Nonnull final Noise noise, final int octaves )
+  {
+    this( noise, octaves, 2, 0.5 );
+  }
+
+  public FractalNoise( @Nonnull final Noise noise, final int octaves, final double lacunarity, final double gain )
+  {
+    assert octaves > 0;
+    _noise = Objects.requireNonNull( noise );
+    _octaves = octaves;
+    _lacunarity = lacunarity;
+    _gain = gain;
+    double amplitude = 1;
+    double total = 0;
+    for ( int i = 0; i < octaves; i++ )
+    {
+      total += amplitude;
+      amplitude *= gain;
+    }
+    _normalisation = 1 / total;
+  }
+
+  @Override
+  public double sample( final double x, final double y )
+  {
+    double frequency = 1;
+    double amplitude = 1;
+    double sum = 0;
+    for ( int i = 0; i < _octaves; i++ )
+    {
+      final double offset = i * OCTAVE_OFFSET;
+      sum += amplitude * _noise.sample( x * frequency + offset, y * frequency + offset );
+      frequency *= _lacunarity;
+      amplitude *= _gain;
+    }
+    return sum * _normalisation;
+  }
+
+  @Override
+  public void sampleRow( final double x,
+                         final double y,
+                         final double step,
+                         @Nonnull final float[] output,
+                         final int offset,
+                         final int count )
+  {
+    if ( _octaveRow.length < count )
+    {
+      _octaveRow = new float[ count ];
+    }
+    final float[] octaveRow = _octaveRow;
+    _noise.sampleRow( x, y, step, output, offset, count );
+    double frequency = 1;
+    double amplitude = 1;
+    for ( int octave = 1; octave < _octaves; octave++ )
+    {
+      frequency *= _lacunarity;
+      amplitude *= _gain;
+      final double octaveOffset = octave * OCTAVE_OFFSET;
+      _noise.sampleRow( x * frequency + octaveOffset,
+                        y * frequency + octaveOffset,
+                        step * frequency,
+                        octaveRow,
+                        0,
+                        count );
+      final float weight = (float) amplitude;
+      for ( int i = 0; i < count; i++ )
+      {
+        output[ offset + i ] += weight * octaveRow[ i ];
+      }
+    }
+    final float normalisation = (float) _normalisation;
+    for ( int i = 0; i < count; i++ )
+    {
+      output[ offset + i ] *= normalisation;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package org.realityforge.saber.noise;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A seeded two dimensional coherent noise function with values in the range [-1, 1].
+ */
+public interface Noise
+{
+  double sample( double x, double y );
+
+  /**
+   * Sample a run of points along a row, starting at (x, y) and advancing x by step for each point.
+   * Implementations may override this to reuse work between adjacent points.
+   */
+  default void sampleRow( final double x,
+                          final double y,
+                          final double step,
+                          @Nonnull final float[] output,
+                          final int offset,
+                          final int count )
+  {
+    for ( int i = 0; i < count; i++ )
+    {
+      output[ offset + i ] = (float) sample( x + i * step, y );
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package org.realityforge.saber.noise;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Fills grids with noise a row at a time.
+ * Grids are stored in row-major order and cell (column, row) samples the noise at
+ * (x + column * frequency, y + row * frequency).
+ */
+public final class NoiseField
+{
+  private NoiseField()
+  {
+  }
+
+  /**
+   * Fill the rows [startRow, endRow) of the field with noise values in the range [-1, 1].
+   */
+  public static void fill( @Nonnull final Noise noise,
+                           @Nonnull final float[] field,
+                           final int columnCount,
+                           final int startRow,
+                           final int endRow,
+                           final double x,
+                           final double y,
+                           final double frequency )
+  {
+    assert field.length >= columnCount * endRow;
+    for ( int row = startRow; row < endRow; row++ )
+    {
+      noise.sampleRow( x, y + row * frequency, frequency, field, row * columnCount, columnCount );
+    }
+  }
+
+  public static void fill( @Nonnull final Noise noise,
+                           @Nonnull final float[] field,
+                           final int columnCount,
+                           final int rowCount,
+                           final double x,
+                           final double y,
+                           final double frequency )
+  {
+    fill( noise, field, columnCount, 0, rowCount, x, y, frequency );
+  }
+
+  /**
+   * Fill the rows [startRow, endRow) of the field with noise values quantised into the range [0, 255].
+   * Values are stored as unsigned bytes so should be read with {@code value & 0xFF}.
+   *
+   * @param rowBuffer receives the unquantised values of each row. It must hold at least columnCount values.
+   */
+  public static void fill( @Nonnull final Noise noise,
+                           @Nonnull final byte[] field,
+                           @Nonnull final float[] rowBuffer,
+                           final int columnCount,
+                           final int startRow,
+                           final int endRow,
+                           final double x,
+                           final double y,
+                           final double frequency )
+  {
+    assert field.length >= columnCount * endRow;
+    assert rowBuffer.length >= columnCount;
+    for ( int row = startRow; row < endRow; row++ )
+    {
+      noise.sampleRow( x, y + row * frequency, frequency, rowBuffer, 0, columnCount );
+      final int base = row * columnCount;
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        field[ base + column ] = quantise( rowBuffer[ column ] );
+      }
+    }
+  }
+
+  public static void fill( @Nonnull final Noise noise,
+                           @Nonnull final byte[] field,
+                           final int columnCount,
+                           final int rowCount,
+                           final double x,
+                           final double y,
+                           final double frequency )
+  {
+    fill( noise, field, new float[ columnCount ], columnCount, 0, rowCount, x, y, frequency );
+  }
+
+  /**
+   * Map a noise value in the range [-1, 1] to an unsigned byte.
+   */
+  public static byte quantise( final float value )
+  {
+    final int quantised = (int) ( ( value + 1 ) * 127.5F + 0.5F );
+    return (byte) ( quantised < 0 ? 0 : quantised > 255 ? 255 : quantised );
+  }
+}
@@ -0,0 +1,114 @@
+package org.realityforge.saber.noise;
+
+import com.google.gwt.core.shared.GwtIncompatible;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+/**
+ * Fills large noise fields on the JVM by splitting the rows into bands that are filled in parallel.
+ * Noise implementations may retain scratch buffers so each band samples from its own noise instance.
+ */
+@GwtIncompatible
+public final class ParallelNoiseField
+{
+  private static final int ROWS_PER_BAND = 64;
+  @Nonnull
+  private final Supplier<Noise> _noiseFactory;
+
+  /**
+   * Create a field filler.
+   *
+   * @param noiseFactory creates a noise instance for a band. Every instance must produce identical values.
+   */
+  public ParallelNoiseField( @Nonnull final Supplier<Noise> noiseFactory )
+  {
+    _noiseFactory = Objects.requireNonNull( noiseFactory );
+  }
+
+  public void fill( @Nonnull final float[] field,
+                    final int columnCount,
+                    final int rowCount,
+                    final double x,
+                    final double y,
+                    final double frequency )
+  {
+    ForkJoinPool.commonPool().invoke( new BandTask( field, null, columnCount, 0, rowCount, x, y, frequency ) );
+  }
+
+  public void fill( @Nonnull final byte[] field,
+                    final int columnCount,
+                    final int rowCount,
+                    final double x,
+                    final double y,
+                    final double frequency )
+  {
+    ForkJoinPool.commonPool().invoke( new BandTask( null, field, columnCount, 0, rowCount, x, y, frequency ) );
+  }
+
+  private final class BandTask
+    extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+    private final float[] _floatField;
+    private final byte[] _byteField;
+    private final int _columnCount;
+    private final int _startRow;
+    private final int _endRow;
+    private final double _x;
+    private final double _y;
+    private final double _frequency;
+
+    BandTask( final float[] floatField,
+              final byte[] byteField,
+              final int columnCount,
+              final int startRow,
+              final int endRow,
+              final double x,
+              final double y,
+              final double frequency )
+    {
+      _floatField = floatField;
+      _byteField = byteField;
+      _columnCount = columnCount;
+      _startRow = startRow;
+      _endRow = endRow;
+      _x = x;
+      _y = y;
+      _frequency = frequency;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if ( _endRow - _startRow <= ROWS_PER_BAND )
+      {
+        final Noise noise = _noiseFactory.get();
+        if ( null != _floatField )
+        {
+          NoiseField.fill( noise, _floatField, _columnCount, _startRow, _endRow, _x, _y, _frequency );
+        }
+        else
+        {
+          NoiseField.fill( noise,
+                           _byteField,
+                           new float[ _columnCount ],
+                           _columnCount,
+                           _startRow,
+                           _endRow,
+                           _x,
+                           _y,
+                           _frequency );
+        }
+      }
+      else
+      {
+        final int middle = ( _startRow + _endRow ) >>> 1;
+        invokeAll( new BandTask( _floatField, _byteField, _columnCount, _startRow, middle, _x, _y, _frequency ),
+                   new BandTask( _floatField, _byteField, _columnCount, middle, _endRow, _x, _y, _frequency ) );
+      }
+    }
+  }
+}
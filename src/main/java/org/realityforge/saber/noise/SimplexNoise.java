@@ -0,0 +1,92 @@
+package org.realityforge.saber.noise;
+
+import org.realityforge.saber.generator.Rng;
+
+/**
+ * Two dimensional simplex noise using a permutation table shuffled from the seed.
+ */
+public final class SimplexNoise
+  implements Noise
+{
+  private static final double SKEW = 0.5 * ( Math.sqrt( 3 ) - 1 );
+  private static final double UNSKEW = ( 3 - Math.sqrt( 3 ) ) / 6;
+  private static final int[] GRADIENT_X = { 1, -1, 1, -1, 1, -1, 0, 0 };
+  private static final int[] GRADIENT_Y = { 1, 1, -1, -1, 0, 0, 1, -1 };
+  /**
+   * Scales the sum of the corner contributions into the range [-1, 1].
+   */
+  private static final double SCALE = 70;
+  private final int[] _permutation = new int[ 512 ];
+  private final Rng _rng = new Rng( 0 );
+
+  public SimplexNoise( final int seed )
+  {
+    setSeed( seed );
+  }
+
+  public void setSeed( final int seed )
+  {
+    _rng.setSeed( seed );
+    for ( int i = 0; i < 256; i++ )
+    {
+      _permutation[ i ] = i;
+    }
+    for ( int i = 255; i > 0; i-- )
+    {
+      final int j = _rng.nextInt( i + 1 );
+      final int swap = _permutation[ i ];
+      _permutation[ i ] = _permutation[ j ];
+      _permutation[ j ] = swap;
+    }
+    // Duplicate the table so that lookups of the second corner never need to wrap
+    System.arraycopy( _permutation, 0, _permutation, 256, 256 );
+  }
+
+  @Override
+  public double sample( final double x, final double y )
+  {
+    // Skew the input space to find the simplex cell that contains the point
+    final double skew = ( x + y ) * SKEW;
+    final int i = floor( x + skew );
+    final int j = floor( y + skew );
+    final double unskew = ( i + j ) * UNSKEW;
+    final double x0 = x - ( i - unskew );
+    final double y0 = y - ( j - unskew );
+
+    // Determine which of the two triangles of the cell contains the point
+    final int i1 = x0 > y0 ? 1 : 0;
+    final int j1 = 1 - i1;
+    final double x1 = x0 - i1 + UNSKEW;
+    final double y1 = y0 - j1 + UNSKEW;
+    final double x2 = x0 - 1 + 2 * UNSKEW;
+    final double y2 = y0 - 1 + 2 * UNSKEW;
+
+    final int ii = i & 255;
+    final int jj = j & 255;
+    final int[] permutation = _permutation;
+    return SCALE * ( corner( permutation[ ii + permutation[ jj ] ], x0, y0 ) +
+                     corner( permutation[ ii + i1 + permutation[ jj + j1 ] ], x1, y1 ) +
+                     corner( permutation[ ii + 1 + permutation[ jj + 1 ] ], x2, y2 ) );
+  }
+
+  private static double corner( final int hash, final double x, final double y )
+  {
+    final double t = 0.5 - x * x - y * y;
+    if ( t < 0 )
+    {
+      return 0;
+    }
+    else
+    {
+      final int gradient = hash & 7;
+      final double t2 = t * t;
+      return t2 * t2 * ( GRADIENT_X[ gradient ] * x + GRADIENT_Y[ gradient ] * y );
+    }
+  }
+
+  private static int floor( final double value )
+  {
+    final int truncated = (int) value;
+    return value < truncated ? truncated - 1 : truncated;
+  }
+}
@@ -0,0 +1,106 @@
+package org.realityforge.saber.noise;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Value noise that smoothly interpolates between pseudo-random values at the integer lattice points.
+ * Sampling a row only hashes the lattice points as the row crosses into a new cell, so a row costs two hashes
+ * per cell crossed rather than four per point.
+ */
+public final class ValueNoise
+  implements Noise
+{
+  private int _seed;
+
+  public ValueNoise( final int seed )
+  {
+    setSeed( seed );
+  }
+
+  public void setSeed( final int seed )
+  {
+    _seed = seed;
+  }
+
+  @Override
+  public double sample( final double x, final double y )
+  {
+    final int cellX = floor( x );
+    final int cellY = floor( y );
+    final double sx = smooth( x - cellX );
+    final double sy = smooth( y - cellY );
+    final double v00 = lattice( cellX, cellY );
+    final double v10 = lattice( cellX + 1, cellY );
+    final double v01 = lattice( cellX, cellY + 1 );
+    final double v11 = lattice( cellX + 1, cellY + 1 );
+    final double top = v00 + sx * ( v10 - v00 );
+    final double bottom = v01 + sx * ( v11 - v01 );
+    return top + sy * ( bottom - top );
+  }
+
+  @Override
+  public void sampleRow( final double x,
+                         final double y,
+                         final double step,
+                         @Nonnull final float[] output,
+                         final int offset,
+                         final int count )
+  {
+    assert step >= 0;
+    final int cellY = floor( y );
+    final double sy = smooth( y - cellY );
+    int cellX = floor( x );
+    double fx = x - cellX;
+    double v00 = lattice( cellX, cellY );
+    double v01 = lattice( cellX, cellY + 1 );
+    double v10 = lattice( cellX + 1, cellY );
+    double v11 = lattice( cellX + 1, cellY + 1 );
+    for ( int i = 0; i < count; i++ )
+    {
+      while ( fx >= 1 )
+      {
+        // Slide the cell right, reusing the values on the shared edge
+        fx -= 1;
+        cellX++;
+        v00 = v10;
+        v01 = v11;
+        v10 = lattice( cellX + 1, cellY );
+        v11 = lattice( cellX + 1, cellY + 1 );
+      }
+      final double sx = smooth( fx );
+      final double top = v00 + sx * ( v10 - v00 );
+      final double bottom = v01 + sx * ( v11 - v01 );
+      output[ offset + i ] = (float) ( top + sy * ( bottom - top ) );
+      fx += step;
+    }
+  }
+
+  private double lattice( final int x, final int y )
+  {
+    // Only shifts, xors and additions are used so the values are identical on the JVM and when compiled by GWT
+    int hash = _seed ^ x;
+    hash ^= hash << 13;
+    hash ^= hash >>> 17;
+    hash ^= hash << 5;
+    hash += y;
+    hash ^= hash << 13;
+    hash ^= hash >>> 17;
+    hash ^= hash << 5;
+    hash += x;
+    hash ^= hash << 13;
+    hash ^= hash >>> 17;
+    hash ^= hash << 5;
+    return ( hash & 0xFFFF ) * ( 2D / 0xFFFF ) - 1;
+  }
+
+  private static double smooth( final double t )
+  {
+    return t * t * ( 3 - 2 * t );
+  }
+
+  private static int floor( final double value )
+  {
+    final int truncated = (int) value;
+    return value < truncated ? truncated - 1 : truncated;
+  }
+}
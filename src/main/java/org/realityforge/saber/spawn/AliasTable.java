@@ -0,0 +1,100 @@
+package org.realityforge.saber.spawn;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.Rng;
+
+/**
+ * Samples from a discrete weighted distribution in constant time using Vose's alias method.
+ *
+ * <p>Each column of the table holds a probability of selecting the column and an alias that is selected
+ * otherwise, so a sample needs a single uniform column and a single biased coin.</p>
+ */
+public final class AliasTable
+{
+  @Nonnull
+  private final double[] _probabilities;
+  @Nonnull
+  private final int[] _aliases;
+
+  /**
+   * Create a table from the specified weights. Weights must be non-negative and at least one weight must be
+   * positive.
+   */
+  public AliasTable( @Nonnull final double[] weights )
+  {
+    final int size = weights.length;
+    assert size > 0;
+    _probabilities = new double[ size ];
+    _aliases = new int[ size ];
+
+    double total = 0;
+    for ( final double weight : weights )
+    {
+      assert weight >= 0;
+      total += weight;
+    }
+    assert total > 0;
+
+    // Scale the weights so that the average is 1 and partition them into columns below and above the average
+    final double[] scaled = new double[ size ];
+    final int[] small = new int[ size ];
+    final int[] large = new int[ size ];
+    int smallCount = 0;
+    int largeCount = 0;
+    for ( int i = 0; i < size; i++ )
+    {
+      scaled[ i ] = weights[ i ] * size / total;
+      if ( scaled[ i ] < 1 )
+      {
+        small[ smallCount++ ] = i;
+      }
+      else
+      {
+        large[ largeCount++ ] = i;
+      }
+    }
+    while ( smallCount > 0 && largeCount > 0 )
+    {
+      final int less = small[ --smallCount ];
+      final int more = large[ --largeCount ];
+      _probabilities[ less ] = scaled[ less ];
+      _aliases[ less ] = more;
+      scaled[ more ] = ( scaled[ more ] + scaled[ less ] ) - 1;
+      if ( scaled[ more ] < 1 )
+      {
+        small[ smallCount++ ] = more;
+      }
+      else
+      {
+        large[ largeCount++ ] = more;
+      }
+    }
+    // Any remaining columns are full, although rounding error may leave them in either partition
+    while ( largeCount > 0 )
+    {
+      final int column = large[ --largeCount ];
+      _probabilities[ column ] = 1;
+      _aliases[ column ] = column;
+    }
+    while ( smallCount > 0 )
+    {
+      final int column = small[ --smallCount ];
+      _probabilities[ column ] = 1;
+      _aliases[ column ] = column;
+    }
+  }
+
+  public int size()
+  {
+    return _probabilities.length;
+  }
+
+  /**
+   * Return the index of a weight, selected with probability proportional to the weight.
+   */
+  public int sample( @Nonnull final Rng rng )
+  {
+    final int column = rng.nextInt( _probabilities.length );
+    return rng.nextDouble() < _probabilities[ column ] ? column : _aliases[ column ];
+  }
+}
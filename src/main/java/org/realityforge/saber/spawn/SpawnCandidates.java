@@ -0,0 +1,81 @@
+package org.realityforge.saber.spawn;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.Rng;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.Tile;
+
+/**
+ * An index of the floor tiles of a level that things can be spawned on.
+ * Tiles are drawn at random without replacement using a partial Fisher-Yates shuffle, so each draw costs
+ * constant time and a tile is never used twice until the level is indexed again.
+ */
+public final class SpawnCandidates
+{
+  @Nonnull
+  private int[] _candidates = new int[ 0 ];
+  /**
+   * The number of candidates that have not been drawn. The undrawn candidates are stored first.
+   */
+  private int _remaining;
+
+  /**
+   * Rebuild the index from the floor tiles of the level.
+   */
+  public void index( @Nonnull final Level level )
+  {
+    final Tile[] tiles = level.getTiles();
+    if ( _candidates.length < tiles.length )
+    {
+      _candidates = new int[ tiles.length ];
+    }
+    int count = 0;
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      if ( tiles[ i ].getTileType().isFloor() )
+      {
+        _candidates[ count++ ] = i;
+      }
+    }
+    _remaining = count;
+  }
+
+  public int getRemaining()
+  {
+    return _remaining;
+  }
+
+  /**
+   * Remove the tile from the pool, if present.
+   */
+  public void exclude( final int index )
+  {
+    for ( int i = 0; i < _remaining; i++ )
+    {
+      if ( _candidates[ i ] == index )
+      {
+        take( i );
+        return;
+      }
+    }
+  }
+
+  /**
+   * Draw a random tile from the pool.
+   *
+   * @return the index of the tile or -1 if the pool is empty.
+   */
+  public int next( @Nonnull final Rng rng )
+  {
+    return 0 == _remaining ? -1 : take( rng.nextInt( _remaining ) );
+  }
+
+  private int take( final int position )
+  {
+    final int index = _candidates[ position ];
+    _remaining--;
+    _candidates[ position ] = _candidates[ _remaining ];
+    _candidates[ _remaining ] = index;
+    return index;
+  }
+}
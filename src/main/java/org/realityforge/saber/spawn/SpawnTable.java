@@ -0,0 +1,172 @@
+package org.realityforge.saber.spawn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.braincheck.BrainCheckConfig;
+import org.realityforge.saber.generator.Rng;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * A weighted table of things to spawn.
+ *
+ * <p>An entry is either a value or a nested table that is drawn from when the entry is selected. Entries may be
+ * restricted to a range of floor depths. The entries that apply at a depth are compiled into an
+ * {@link AliasTable} the first time the depth is drawn from, so each draw costs constant time per level of
+ * nesting.</p>
+ *
+ * @param <T> the type of value spawned.
+ */
+public final class SpawnTable<T>
+{
+  private static final class Entry<T>
+  {
+    @Nullable
+    private final T _value;
+    @Nullable
+    private final SpawnTable<T> _table;
+    private final double _weight;
+    private final int _minDepth;
+    private final int _maxDepth;
+
+    private Entry( @Nullable final T value,
+                   @Nullable final SpawnTable<T> table,
+                   final double weight,
+                   final int minDepth,
+                   final int maxDepth )
+    {
+      _value = value;
+      _table = table;
+      _weight = weight;
+      _minDepth = minDepth;
+      _maxDepth = maxDepth;
+    }
+  }
+
+  private static final class CompiledTable<T>
+  {
+    @Nonnull
+    private final List<Entry<T>> _entries;
+    @Nullable
+    private final AliasTable _aliasTable;
+
+    private CompiledTable( @Nonnull final List<Entry<T>> entries, @Nullable final AliasTable aliasTable )
+    {
+      _entries = entries;
+      _aliasTable = aliasTable;
+    }
+  }
+
+  @Nonnull
+  private final List<Entry<T>> _entries = new ArrayList<>();
+  @Nonnull
+  private final Map<Integer, CompiledTable<T>> _compiledTables = new HashMap<>();
+
+  @Nonnull
+  public SpawnTable<T> add( @Nonnull final T value, final double weight )
+  {
+    return add( value, weight, 0, Integer.MAX_VALUE );
+  }
+
+  /**
+   * Add a value that can only be spawned on floors with a depth between minDepth and maxDepth inclusive.
+   */
+  @Nonnull
+  public SpawnTable<T> add( @Nonnull final T value, final double weight, final int minDepth, final int maxDepth )
+  {
+    return addEntry( new Entry<>( value, null, weight, minDepth, maxDepth ) );
+  }
+
+  @Nonnull
+  public SpawnTable<T> addTable( @Nonnull final SpawnTable<T> table, final double weight )
+  {
+    return addTable( table, weight, 0, Integer.MAX_VALUE );
+  }
+
+  /**
+   * Add a nested table that can only be drawn from on floors with a depth between minDepth and maxDepth inclusive.
+   */
+  @Nonnull
+  public SpawnTable<T> addTable( @Nonnull final SpawnTable<T> table,
+                                 final double weight,
+                                 final int minDepth,
+                                 final int maxDepth )
+  {
+    assert table != this;
+    return addEntry( new Entry<>( null, table, weight, minDepth, maxDepth ) );
+  }
+
+  @Nonnull
+  private SpawnTable<T> addEntry( @Nonnull final Entry<T> entry )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> entry._weight > 0 && entry._minDepth <= entry._maxDepth,
+                    () -> "Saber-0016: Invalid spawn table entry with weight " + entry._weight + " and depth " +
+                          "range " + entry._minDepth + "-" + entry._maxDepth );
+    }
+    _entries.add( entry );
+    _compiledTables.clear();
+    return this;
+  }
+
+  /**
+   * Return true if the table can spawn something at the specified depth.
+   */
+  public boolean canSpawn( final int depth )
+  {
+    return null != compile( depth )._aliasTable;
+  }
+
+  /**
+   * Draw a value to spawn at the specified depth.
+   *
+   * @return the value or null if no entry applies at the depth.
+   */
+  @Nullable
+  public T draw( final int depth, @Nonnull final Rng rng )
+  {
+    final CompiledTable<T> table = compile( depth );
+    final AliasTable aliasTable = table._aliasTable;
+    if ( null == aliasTable )
+    {
+      return null;
+    }
+    else
+    {
+      final Entry<T> entry = table._entries.get( aliasTable.sample( rng ) );
+      return null != entry._table ? entry._table.draw( depth, rng ) : entry._value;
+    }
+  }
+
+  @Nonnull
+  private CompiledTable<T> compile( final int depth )
+  {
+    CompiledTable<T> table = _compiledTables.get( depth );
+    if ( null == table )
+    {
+      final List<Entry<T>> entries = new ArrayList<>();
+      for ( final Entry<T> entry : _entries )
+      {
+        if ( depth >= entry._minDepth &&
+             depth <= entry._maxDepth &&
+             ( null == entry._table || entry._table.canSpawn( depth ) ) )
+        {
+          entries.add( entry );
+        }
+      }
+      final int size = entries.size();
+      final double[] weights = new double[ size ];
+      for ( int i = 0; i < size; i++ )
+      {
+        weights[ i ] = entries.get( i )._weight;
+      }
+      table = new CompiledTable<>( entries, 0 == size ? null : new AliasTable( weights ) );
+      _compiledTables.put( depth, table );
+    }
+    return table;
+  }
+}
@@ -0,0 +1,62 @@
+package org.realityforge.saber.stream;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.world.TileRunCodec;
+
+/**
+ * A square region of tiles in a {@link StreamedWorld}.
+ * Tile ids are stored in row-major order relative to the top left tile of the chunk.
+ */
+public final class Chunk
+{
+  private final int _chunkX;
+  private final int _chunkY;
+  @Nonnull
+  private final int[] _tiles;
+  /**
+   * True if the chunk has been changed since it was generated, so it must be saved rather than discarded.
+   */
+  private boolean _modified;
+
+  Chunk( final int chunkX, final int chunkY, @Nonnull final int[] tiles )
+  {
+    _chunkX = chunkX;
+    _chunkY = chunkY;
+    _tiles = tiles;
+  }
+
+  public int getChunkX()
+  {
+    return _chunkX;
+  }
+
+  public int getChunkY()
+  {
+    return _chunkY;
+  }
+
+  @Nonnull
+  int[] getTiles()
+  {
+    return _tiles;
+  }
+
+  public boolean isModified()
+  {
+    return _modified;
+  }
+
+  void markModified()
+  {
+    _modified = true;
+  }
+
+  /**
+   * Encode the tiles using the {@link TileRunCodec}.
+   */
+  @Nonnull
+  byte[] encode()
+  {
+    return TileRunCodec.encode( _tiles );
+  }
+}
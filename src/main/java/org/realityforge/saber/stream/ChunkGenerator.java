@@ -0,0 +1,111 @@
+package org.realityforge.saber.stream;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.noise.FractalNoise;
+import org.realityforge.saber.noise.ValueNoise;
+
+/**
+ * Generates the tiles of a chunk from the world seed and the position of the chunk.
+ *
+ * <p>Whether a tile is a wall is a function of the noise at the world position of the tile, so any chunk can
+ * be generated independently of its neighbours and in any order. To auto-tile the walls on the edge of a chunk
+ * the generator classifies an apron of one tile around the chunk, so walls line up across chunk seams. Every
+ * tile is sampled directly at its world position rather than incrementally along a row so that the apron of a
+ * chunk classifies exactly as the neighbouring chunk does.</p>
+ *
+ * <p>Instances retain scratch buffers and are not thread-safe.</p>
+ */
+public final class ChunkGenerator
+{
+  static final int WALL_TOP_MASK = 1;
+  static final int WALL_RIGHT_MASK = 2;
+  static final int WALL_BOTTOM_MASK = 4;
+  static final int WALL_LEFT_MASK = 8;
+  private static final double CAVE_FREQUENCY = 0.09;
+  private static final double CAVE_THRESHOLD = -0.05;
+  private static final double DETAIL_FREQUENCY = 0.3;
+  private static final double FLOOR_ALT_THRESHOLD = 0.3;
+  @Nonnull
+  private final FractalNoise _caveNoise;
+  @Nonnull
+  private final ValueNoise _detailNoise;
+  @Nonnull
+  private boolean[] _walls = new boolean[ 0 ];
+
+  public ChunkGenerator( final int seed )
+  {
+    _caveNoise = new FractalNoise( new ValueNoise( seed ), 4 );
+    // Derive an unrelated seed for the floor detail
+    _detailNoise = new ValueNoise( ~seed ^ 0x5BD1E995 );
+  }
+
+  /**
+   * Return true if the tile at the world position is a wall in the generated world.
+   */
+  public boolean isWall( final int x, final int y )
+  {
+    return _caveNoise.sample( x * CAVE_FREQUENCY, y * CAVE_FREQUENCY ) <= CAVE_THRESHOLD;
+  }
+
+  /**
+   * Generate the tiles of the chunk.
+   *
+   * @param originX the world column of the top left tile of the chunk.
+   * @param originY the world row of the top left tile of the chunk.
+   * @param size    the width and height of the chunk.
+   * @param tiles   receives the tile ids in row-major order.
+   */
+  public void generate( final int originX, final int originY, final int size, @Nonnull final int[] tiles )
+  {
+    assert tiles.length == size * size;
+    final int apronSize = size + 2;
+    if ( _walls.length < apronSize * apronSize )
+    {
+      _walls = new boolean[ apronSize * apronSize ];
+    }
+    final boolean[] walls = _walls;
+    int index = 0;
+    for ( int row = 0; row < apronSize; row++ )
+    {
+      for ( int column = 0; column < apronSize; column++ )
+      {
+        walls[ index++ ] = isWall( originX + column - 1, originY + row - 1 );
+      }
+    }
+
+    index = 0;
+    for ( int row = 0; row < size; row++ )
+    {
+      for ( int column = 0; column < size; column++ )
+      {
+        final int apronIndex = ( column + 1 ) + ( row + 1 ) * apronSize;
+        if ( walls[ apronIndex ] )
+        {
+          tiles[ index ] = wallTile( walls[ apronIndex - apronSize ],
+                                     walls[ apronIndex + 1 ],
+                                     walls[ apronIndex + apronSize ],
+                                     walls[ apronIndex - 1 ] );
+        }
+        else
+        {
+          final double detail = _detailNoise.sample( ( originX + column ) * DETAIL_FREQUENCY,
+                                                     ( originY + row ) * DETAIL_FREQUENCY );
+          tiles[ index ] = detail > FLOOR_ALT_THRESHOLD ? Tiles.FLOOR_ALT : Tiles.FLOOR;
+        }
+        index++;
+      }
+    }
+  }
+
+  /**
+   * Return the auto-tiled wall id for a wall with the specified neighbouring walls.
+   */
+  static int wallTile( final boolean top, final boolean right, final boolean bottom, final boolean left )
+  {
+    return ( top ? WALL_TOP_MASK : 0 ) |
+           ( right ? WALL_RIGHT_MASK : 0 ) |
+           ( bottom ? WALL_BOTTOM_MASK : 0 ) |
+           ( left ? WALL_LEFT_MASK : 0 );
+  }
+}
@@ -0,0 +1,18 @@
+package org.realityforge.saber.stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Persists the encoded form of chunks that have been modified and evicted from a {@link StreamedWorld}.
+ */
+public interface ChunkStore
+{
+  void save( int key, @Nonnull byte[] data );
+
+  /**
+   * Return the data saved for the chunk or null if the chunk has never been saved.
+   */
+  @Nullable
+  byte[] load( int key );
+}
@@ -0,0 +1,44 @@
+package org.realityforge.saber.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A chunk store that retains the encoded chunks in memory.
+ */
+public final class MemoryChunkStore
+  implements ChunkStore
+{
+  @Nonnull
+  private final Map<Integer, byte[]> _chunks = new HashMap<>();
+  private int _size;
+
+  @Override
+  public void save( final int key, @Nonnull final byte[] data )
+  {
+    final byte[] existing = _chunks.put( key, data );
+    _size += data.length - ( null != existing ? existing.length : 0 );
+  }
+
+  @Nullable
+  @Override
+  public byte[] load( final int key )
+  {
+    return _chunks.get( key );
+  }
+
+  public int getChunkCount()
+  {
+    return _chunks.size();
+  }
+
+  /**
+   * Return the number of bytes of encoded chunk data retained.
+   */
+  public int getSize()
+  {
+    return _size;
+  }
+}
@@ -0,0 +1,217 @@
+package org.realityforge.saber.stream;
+
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelJournal;
+import org.realityforge.saber.world.Tile;
+import org.realityforge.saber.world.TileTypeManager;
+
+/**
+ * A fixed size level that presents a window onto a streamed world.
+ * The window is recentred on the viewer whenever the viewer comes within a margin of its edge, so the rest of
+ * the game continues to operate on a bounded level while the viewer explores an unbounded world. Changes made
+ * to the level are written back to the world through the level journal, so they are retained by the world and
+ * saved with the chunk when it is evicted.
+ */
+public final class StreamedViewport
+{
+  @Nonnull
+  private final StreamedWorld _world;
+  @Nonnull
+  private final Level _level;
+  @Nonnull
+  private final TileTypeManager _tileTypeManager;
+  private final int _margin;
+  @Nonnull
+  private final LevelJournal.Cursor _cursor;
+  @Nonnull
+  private final LevelJournal.ChangeListener _storeTile = this::storeTile;
+  /**
+   * The indexes of the tiles written back to the world by the current call to {@link #store()}.
+   */
+  @Nonnull
+  private int[] _stored = new int[ 16 ];
+  private int _storedCount;
+  private int _originX;
+  private int _originY;
+
+  /**
+   * Create a viewport.
+   *
+   * @param world           the world.
+   * @param level           the level that receives the tiles in the window.
+   * @param tileTypeManager the manager used to resolve tile ids into tile types.
+   * @param margin          the distance from the edge of the level at which the viewport is recentred.
+   */
+  public StreamedViewport( @Nonnull final StreamedWorld world,
+                           @Nonnull final Level level,
+                           @Nonnull final TileTypeManager tileTypeManager,
+                           final int margin )
+  {
+    assert margin >= 0 && margin * 2 < Math.min( level.getColumnCount(), level.getRowCount() );
+    _world = Objects.requireNonNull( world );
+    _level = Objects.requireNonNull( level );
+    _tileTypeManager = Objects.requireNonNull( tileTypeManager );
+    _margin = margin;
+    _cursor = level.getJournal().createCursor();
+  }
+
+  @Nonnull
+  public StreamedWorld getWorld()
+  {
+    return _world;
+  }
+
+  @Nonnull
+  public Level getLevel()
+  {
+    return _level;
+  }
+
+  /**
+   * Return the world x coordinate of the left column of the level.
+   */
+  public int getOriginX()
+  {
+    return _originX;
+  }
+
+  /**
+   * Return the world y coordinate of the top row of the level.
+   */
+  public int getOriginY()
+  {
+    return _originY;
+  }
+
+  /**
+   * Move the window so that the world position lies at the centre of the level.
+   * Changes made to the level are written back to the world before the window moves.
+   */
+  public void centreOn( final int x, final int y )
+  {
+    store();
+    _originX = x - _level.getColumnCount() / 2;
+    _originY = y - _level.getRowCount() / 2;
+    _world.focus( x, y );
+    _world.copyTo( _level, _originX, _originY, _tileTypeManager );
+    // The copied tiles came from the world so need not be written back
+    _cursor.skip();
+  }
+
+  /**
+   * Move the window so that the floor tile nearest to the world position lies at the centre of the level.
+   * Tiles are searched in square rings of increasing radius and in row-major order within a ring, so the
+   * same tile is selected every time the world is generated from the same seed.
+   *
+   * @param maxRadius the maximum distance from the world position to search.
+   * @return true if a floor tile was found, otherwise the window is centred on the world position.
+   */
+  public boolean centreOnFloor( final int x, final int y, final int maxRadius )
+  {
+    for ( int radius = 0; radius <= maxRadius; radius++ )
+    {
+      for ( int dy = -radius; dy <= radius; dy++ )
+      {
+        for ( int dx = -radius; dx <= radius; dx++ )
+        {
+          if ( ( Math.abs( dx ) == radius || Math.abs( dy ) == radius ) &&
+               LevelLayout.isFloor( _world.getTile( x + dx, y + dy ) ) )
+          {
+            centreOn( x + dx, y + dy );
+            return true;
+          }
+        }
+      }
+    }
+    centreOn( x, y );
+    return false;
+  }
+
+  /**
+   * Recentre the window on the viewer if the viewer is within the margin of the edge of the level.
+   *
+   * @param column the column of the viewer in the level.
+   * @param row    the row of the viewer in the level.
+   * @return true if the window moved, in which case positions in the level must be translated by the change
+   * in origin.
+   */
+  public boolean follow( final int column, final int row )
+  {
+    if ( column < _margin ||
+         row < _margin ||
+         column >= _level.getColumnCount() - _margin ||
+         row >= _level.getRowCount() - _margin )
+    {
+      centreOn( _originX + column, _originY + row );
+      return true;
+    }
+    else
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Write the tiles of the level that changed since they were last written back to the world.
+   * Walls around each written tile are re-tiled by the world and the results copied back into the level.
+   */
+  public void store()
+  {
+    if ( _cursor.hasChanges() )
+    {
+      _storedCount = 0;
+      if ( !_cursor.sync( _storeTile ) )
+      {
+        // Changes were lost so write back every tile
+        final int tileCount = _level.getTiles().length;
+        for ( int i = 0; i < tileCount; i++ )
+        {
+          storeTile( i );
+        }
+      }
+      for ( int i = 0; i < _storedCount; i++ )
+      {
+        refreshNeighbours( _stored[ i ] );
+      }
+      // Skip the re-tiled walls copied back into the level
+      _cursor.skip();
+    }
+  }
+
+  private void storeTile( final int index )
+  {
+    final Tile tile = _level.getTiles()[ index ];
+    final int x = _originX + tile.getColumn();
+    final int y = _originY + tile.getRow();
+    final int tileId = tile.getTileType().getId();
+    if ( _world.getTile( x, y ) != tileId )
+    {
+      _world.setTile( x, y, tileId );
+      if ( _storedCount == _stored.length )
+      {
+        _stored = Arrays.copyOf( _stored, _storedCount * 2 );
+      }
+      _stored[ _storedCount++ ] = index;
+    }
+  }
+
+  private void refreshNeighbours( final int index )
+  {
+    final Tile tile = _level.getTiles()[ index ];
+    for ( int row = tile.getRow() - 1; row <= tile.getRow() + 1; row++ )
+    {
+      for ( int column = tile.getColumn() - 1; column <= tile.getColumn() + 1; column++ )
+      {
+        if ( _level.isValidTile( column, row ) )
+        {
+          final int tileId = _world.getTile( _originX + column, _originY + row );
+          _level.setTileType( column, row, _tileTypeManager.getTileType( tileId ) );
+        }
+      }
+    }
+  }
+}
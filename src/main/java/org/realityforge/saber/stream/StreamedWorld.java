@@ -0,0 +1,250 @@
+package org.realityforge.saber.stream;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.TileRunCodec;
+import org.realityforge.saber.world.TileTypeManager;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * An effectively unbounded world that is split into square chunks addressed by chunk coordinates.
+ *
+ * <p>Chunks are generated lazily from the world seed when first accessed and kept in an LRU cache with a fixed
+ * capacity, so the memory used by resident chunks stays constant however far the world is explored. Evicted
+ * chunks that have not been modified are discarded and regenerated if revisited. Modified chunks are encoded
+ * and saved to the {@link ChunkStore} when evicted and restored from it when revisited.</p>
+ *
+ * <p>World coordinates and chunk coordinates are signed. Chunk coordinates must fit in 16 bits so that a chunk
+ * can be identified by a single int key.</p>
+ */
+public final class StreamedWorld
+{
+  public static final int CHUNK_SHIFT = 5;
+  public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int MAX_CHUNK_COORDINATE = Short.MAX_VALUE;
+  @Nonnull
+  private final ChunkGenerator _generator;
+  @Nonnull
+  private final ChunkStore _store;
+  private final int _loadRadius;
+  private final int _maxResidentChunks;
+  @Nonnull
+  private final LinkedHashMap<Integer, Chunk> _chunks = new LinkedHashMap<>( 64, 0.75F, true );
+  private int _generatedCount;
+
+  /**
+   * Create a world.
+   *
+   * @param seed              the seed of the world.
+   * @param store             the store that modified chunks are saved to when evicted.
+   * @param loadRadius        the number of chunks around the focus chunk that are kept resident.
+   * @param maxResidentChunks the maximum number of resident chunks.
+   */
+  public StreamedWorld( final int seed,
+                        @Nonnull final ChunkStore store,
+                        final int loadRadius,
+                        final int maxResidentChunks )
+  {
+    assert loadRadius >= 0;
+    assert maxResidentChunks >= ( loadRadius * 2 + 1 ) * ( loadRadius * 2 + 1 );
+    _generator = new ChunkGenerator( seed );
+    _store = Objects.requireNonNull( store );
+    _loadRadius = loadRadius;
+    _maxResidentChunks = maxResidentChunks;
+  }
+
+  public int getResidentChunkCount()
+  {
+    return _chunks.size();
+  }
+
+  /**
+   * Return the number of chunks that have been generated, including chunks generated again after eviction.
+   */
+  public int getGeneratedCount()
+  {
+    return _generatedCount;
+  }
+
+  /**
+   * Ensure that the chunks around the world position are resident, typically the position of the player or
+   * the camera. Chunks are loaded nearest first and the least recently used chunks are evicted as required.
+   */
+  public void focus( final int x, final int y )
+  {
+    final int chunkX = x >> CHUNK_SHIFT;
+    final int chunkY = y >> CHUNK_SHIFT;
+    for ( int ring = 0; ring <= _loadRadius; ring++ )
+    {
+      for ( int dy = -ring; dy <= ring; dy++ )
+      {
+        for ( int dx = -ring; dx <= ring; dx++ )
+        {
+          if ( Math.abs( dx ) == ring || Math.abs( dy ) == ring )
+          {
+            getChunk( chunkX + dx, chunkY + dy );
+          }
+        }
+      }
+    }
+  }
+
+  public int getTile( final int x, final int y )
+  {
+    return getChunk( x >> CHUNK_SHIFT, y >> CHUNK_SHIFT ).getTiles()[ localIndex( x, y ) ];
+  }
+
+  /**
+   * Change the tile at the world position and re-tile the neighbouring walls so that they join the new tile.
+   */
+  public void setTile( final int x, final int y, final int tileId )
+  {
+    setTileInternal( x, y, tileId );
+    retile( x, y );
+    retile( x, y - 1 );
+    retile( x + 1, y );
+    retile( x, y + 1 );
+    retile( x - 1, y );
+  }
+
+  /**
+   * Copy the rectangle of the world with the specified top left world position into the level.
+   */
+  public void copyTo( @Nonnull final Level level,
+                      final int originX,
+                      final int originY,
+                      @Nonnull final TileTypeManager tileTypeManager )
+  {
+    final int columnCount = level.getColumnCount();
+    final int rowCount = level.getRowCount();
+    int index = 0;
+    for ( int row = 0; row < rowCount; row++ )
+    {
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        level.setTileType( index++, tileTypeManager.getTileType( getTile( originX + column, originY + row ) ) );
+      }
+    }
+  }
+
+  /**
+   * Save every resident modified chunk to the store.
+   */
+  public void saveAll()
+  {
+    for ( final Chunk chunk : _chunks.values() )
+    {
+      if ( chunk.isModified() )
+      {
+        _store.save( toKey( chunk.getChunkX(), chunk.getChunkY() ), chunk.encode() );
+      }
+    }
+  }
+
+  private void setTileInternal( final int x, final int y, final int tileId )
+  {
+    final Chunk chunk = getChunk( x >> CHUNK_SHIFT, y >> CHUNK_SHIFT );
+    final int[] tiles = chunk.getTiles();
+    final int index = localIndex( x, y );
+    if ( tiles[ index ] != tileId )
+    {
+      tiles[ index ] = tileId;
+      chunk.markModified();
+    }
+  }
+
+  private void retile( final int x, final int y )
+  {
+    if ( LevelLayout.isWall( getTile( x, y ) ) )
+    {
+      setTileInternal( x, y, wallTileAt( x, y ) );
+    }
+  }
+
+  private int wallTileAt( final int x, final int y )
+  {
+    return ChunkGenerator.wallTile( LevelLayout.isWall( getTile( x, y - 1 ) ),
+                                    LevelLayout.isWall( getTile( x + 1, y ) ),
+                                    LevelLayout.isWall( getTile( x, y + 1 ) ),
+                                    LevelLayout.isWall( getTile( x - 1, y ) ) );
+  }
+
+  @Nonnull
+  private Chunk getChunk( final int chunkX, final int chunkY )
+  {
+    final int key = toKey( chunkX, chunkY );
+    Chunk chunk = _chunks.get( key );
+    if ( null == chunk )
+    {
+      chunk = loadChunk( key, chunkX, chunkY );
+      _chunks.put( key, chunk );
+      evictChunks();
+    }
+    return chunk;
+  }
+
+  @Nonnull
+  private Chunk loadChunk( final int key, final int chunkX, final int chunkY )
+  {
+    final int[] tiles = new int[ CHUNK_SIZE * CHUNK_SIZE ];
+    final Chunk chunk = new Chunk( chunkX, chunkY, tiles );
+    final byte[] data = _store.load( key );
+    if ( null != data )
+    {
+      TileRunCodec.decode( data, tiles );
+      // The chunk differs from the generated chunk so must be saved again if evicted
+      chunk.markModified();
+    }
+    else
+    {
+      _generator.generate( chunkX << CHUNK_SHIFT, chunkY << CHUNK_SHIFT, CHUNK_SIZE, tiles );
+      _generatedCount++;
+    }
+    return chunk;
+  }
+
+  private void evictChunks()
+  {
+    final Iterator<Map.Entry<Integer, Chunk>> iterator = _chunks.entrySet().iterator();
+    while ( _chunks.size() > _maxResidentChunks && iterator.hasNext() )
+    {
+      final Map.Entry<Integer, Chunk> entry = iterator.next();
+      final Chunk chunk = entry.getValue();
+      if ( chunk.isModified() )
+      {
+        _store.save( entry.getKey(), chunk.encode() );
+      }
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Return a key that identifies the chunk containing the world position.
+   */
+  public static int getChunkKey( final int x, final int y )
+  {
+    return toKey( x >> CHUNK_SHIFT, y >> CHUNK_SHIFT );
+  }
+
+  private static int localIndex( final int x, final int y )
+  {
+    return ( x & CHUNK_MASK ) + ( ( y & CHUNK_MASK ) << CHUNK_SHIFT );
+  }
+
+  private static int toKey( final int chunkX, final int chunkY )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> Math.abs( chunkX ) <= MAX_CHUNK_COORDINATE && Math.abs( chunkY ) <= MAX_CHUNK_COORDINATE,
+                    () -> "Saber-0019: Chunk " + chunkX + "," + chunkY + " is outside the bounds of the world" );
+    }
+    return ( chunkX & 0xFFFF ) | ( chunkY << 16 );
+  }
+}
@@ -0,0 +1,162 @@
+package org.realityforge.saber.systems;
+
+import galdr.ComponentManager;
+import galdr.annotations.ComponentManagerRef;
+import galdr.annotations.GaldrSubSystem;
+import galdr.annotations.Processor;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.Game;
+import org.realityforge.saber.ai.Planner;
+import org.realityforge.saber.components.Monster;
+import org.realityforge.saber.turn.TurnScheduler;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.PositionStore;
+
+/**
+ * Decides the actions of the monsters that acted this turn.
+ * Decisions made here are cheap and reactive, following the monsters current plan or stepping greedily
+ * towards the player. Re-planning is requested from the {@link Planner} which computes plans between turns
+ * under a time budget, and completed plans are applied at the start of the turn they fall due.
+ */
+@GaldrSubSystem
+public abstract class AiSystem
+{
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Monster> monster();
+
+  @Processor
+  void processMonsters()
+  {
+    final Game game = Game.getGame();
+    game.getPlanner().applyPlans( this::applyPlan );
+
+    final PositionStore positions = game.getPositionStore();
+    final Level level = game.getLevel();
+    final int playerIndex = positions.getTileIndex( game.getPlayerEntityId(), level.getColumnCount() );
+
+    final TurnScheduler scheduler = game.getTurnScheduler();
+    final int actedCount = scheduler.getActedCount();
+    for ( int i = 0; i < actedCount; i++ )
+    {
+      final int entityId = scheduler.getActed( i );
+      final Monster monster = monster().find( entityId );
+      if ( null != monster && positions.has( entityId ) )
+      {
+        think( entityId, monster, positions, level, playerIndex );
+      }
+    }
+  }
+
+  private void think( final int entityId,
+                      @Nonnull final Monster monster,
+                      @Nonnull final PositionStore positions,
+                      @Nonnull final Level level,
+                      final int playerIndex )
+  {
+    final int columnCount = level.getColumnCount();
+    final int column = positions.getColumn( entityId );
+    final int row = positions.getRow( entityId );
+    final int index = column + row * columnCount;
+    final int playerColumn = playerIndex % columnCount;
+    final int playerRow = playerIndex / columnCount;
+    final int distance = Math.abs( playerColumn - column ) + Math.abs( playerRow - row );
+    if ( distance <= 1 )
+    {
+      // Adjacent to the player so hold position. Attacks will be resolved here once combat exists.
+      return;
+    }
+
+    int target = -1;
+    if ( monster.pathIndex < monster.pathLength )
+    {
+      final int step = monster.path[ monster.pathIndex ];
+      if ( isFree( level, step, playerIndex ) && isAdjacent( index, step, columnCount ) )
+      {
+        target = step;
+        monster.pathIndex++;
+      }
+      else
+      {
+        // The plan no longer fits the level so discard it
+        monster.pathLength = 0;
+      }
+    }
+    if ( -1 == target )
+    {
+      target = greedyStep( level, column, row, playerColumn, playerRow, playerIndex );
+    }
+    if ( -1 != target )
+    {
+      positions.setTileIndex( entityId, target, columnCount );
+    }
+
+    if ( !monster.planPending && ( monster.planGoal != playerIndex || monster.pathIndex >= monster.pathLength ) )
+    {
+      monster.planPending = true;
+      final int start = -1 == target ? index : target;
+      Game.getGame().getPlanner().requestPath( entityId, level, start, playerIndex, distance );
+    }
+  }
+
+  private int greedyStep( @Nonnull final Level level,
+                          final int column,
+                          final int row,
+                          final int playerColumn,
+                          final int playerRow,
+                          final int playerIndex )
+  {
+    final int columnCount = level.getColumnCount();
+    final int deltaColumn = Integer.signum( playerColumn - column );
+    final int deltaRow = Integer.signum( playerRow - row );
+    final boolean preferColumn = Math.abs( playerColumn - column ) >= Math.abs( playerRow - row );
+    final int columnStep = 0 != deltaColumn ? column + deltaColumn + row * columnCount : -1;
+    final int rowStep = 0 != deltaRow ? column + ( row + deltaRow ) * columnCount : -1;
+    final int first = preferColumn ? columnStep : rowStep;
+    final int second = preferColumn ? rowStep : columnStep;
+    if ( -1 != first && isFree( level, first, playerIndex ) )
+    {
+      return first;
+    }
+    else if ( -1 != second && isFree( level, second, playerIndex ) )
+    {
+      return second;
+    }
+    else
+    {
+      return -1;
+    }
+  }
+
+  private boolean isFree( @Nonnull final Level level, final int index, final int playerIndex )
+  {
+    return index != playerIndex && level.getTiles()[ index ].getTileType().isSolid();
+  }
+
+  private boolean isAdjacent( final int index, final int other, final int columnCount )
+  {
+    final int deltaColumn = Math.abs( index % columnCount - other % columnCount );
+    final int deltaRow = Math.abs( index / columnCount - other / columnCount );
+    return 1 == deltaColumn + deltaRow;
+  }
+
+  private void applyPlan( final int entityId,
+                          @Nonnull final Level level,
+                          final int goal,
+                          @Nonnull final int[] steps,
+                          final int stepCount )
+  {
+    final Monster monster = monster().find( entityId );
+    if ( null != monster )
+    {
+      monster.planPending = false;
+      if ( level == Game.getGame().getLevel() )
+      {
+        System.arraycopy( steps, 0, monster.path, 0, stepCount );
+        monster.pathLength = stepCount;
+        monster.pathIndex = 0;
+        monster.planGoal = goal;
+      }
+    }
+  }
+}
@@ -9,8 +9,8 @@ import org.realityforge.saber.CommandType;
 import org.realityforge.saber.Game;
 import org.realityforge.saber.components.CommandTarget;
 import org.realityforge.saber.components.Player;
-import org.realityforge.saber.components.Position;
-import org.realityforge.saber.world.LevelPosition;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.PositionStore;
 
 @GaldrSubSystem
 public abstract class CommandSystem
@@ -19,10 +19,6 @@ public abstract class CommandSystem
   @Nonnull
   abstract ComponentManager<CommandTarget> commandTarget();
 
-  @ComponentManagerRef
-  @Nonnull
-  abstract ComponentManager<Position> position();
-
   @EntityProcessor( all = Player.class )
   void attachCommandToPlayer( final int id )
   {
@@ -35,25 +31,28 @@ public abstract class CommandSystem
     final CommandTarget t = commandTarget().get( id );
     if ( null != t.command )
     {
-      final Position pc = position().find( id );
-      if ( null != pc )
+      final Game game = Game.getGame();
+      final PositionStore positions = game.getPositionStore();
+      if ( positions.has( id ) )
       {
-        final LevelPosition position = pc.position;
+        final Level level = game.getLevel();
+        final int column = positions.getColumn( id );
+        final int row = positions.getRow( id );
         if ( CommandType.MoveForward == t.command )
         {
-          position.setRow( Math.max( 0, position.getRow() - 1 ) );
+          positions.set( id, column, Math.max( 0, row - 1 ) );
         }
         else if ( CommandType.MoveBackward == t.command )
         {
-          position.setRow( Math.min( Game.getGame().getLevel().getRowCount() - 1, position.getRow() + 1 ) );
+          positions.set( id, column, Math.min( level.getRowCount() - 1, row + 1 ) );
         }
         else if ( CommandType.TurnLeft == t.command )
         {
-          position.setColumn( Math.max( 0, position.getColumn() - 1 ) );
+          positions.set( id, Math.max( 0, column - 1 ), row );
         }
         else if ( CommandType.TurnRight == t.command )
         {
-          position.setColumn( Math.min( Game.getGame().getLevel().getColumnCount() - 1, position.getColumn() + 1 ) );
+          positions.set( id, Math.min( level.getColumnCount() - 1, column + 1 ), row );
         }
       }
       t.command = null;
@@ -0,0 +1,37 @@
+package org.realityforge.saber.systems;
+
+import galdr.annotations.EntityProcessor;
+import galdr.annotations.GaldrSubSystem;
+import org.realityforge.saber.Game;
+import org.realityforge.saber.components.Player;
+import org.realityforge.saber.components.Position;
+import org.realityforge.saber.floor.Floor;
+import org.realityforge.saber.floor.FloorManager;
+import org.realityforge.saber.world.PositionStore;
+
+/**
+ * Moves the player between floors when they step onto the exit or entrance of the current floor.
+ */
+@GaldrSubSystem
+public abstract class FloorTransitionSystem
+{
+  @EntityProcessor( all = { Player.class, Position.class } )
+  void processFloorTransition( final int id )
+  {
+    final Game game = Game.getGame();
+    final FloorManager floorManager = game.getFloorManager();
+    final PositionStore positions = game.getPositionStore();
+    final Floor floor = floorManager.getCurrentFloor();
+    final int index = positions.getTileIndex( id, floor.getLevel().getColumnCount() );
+    if ( index == floor.getExitIndex() )
+    {
+      final Floor next = floorManager.descend();
+      positions.setTileIndex( id, next.getArrivalIndex(), next.getLevel().getColumnCount() );
+    }
+    else if ( index == floor.getEntranceIndex() && floor.getFloorNumber() > 1 )
+    {
+      final Floor previous = floorManager.ascend();
+      positions.setTileIndex( id, previous.getReturnIndex(), previous.getLevel().getColumnCount() );
+    }
+  }
+}
@@ -9,13 +9,13 @@ import galdr.annotations.WorldRef;
 import javax.annotation.Nonnull;
 import jsinterop.base.Js;
 import org.realityforge.saber.Game;
+import org.realityforge.saber.components.Actor;
 import org.realityforge.saber.components.CommandTarget;
 import org.realityforge.saber.components.Hello;
 import org.realityforge.saber.components.Player;
 import org.realityforge.saber.components.Position;
 import org.realityforge.saber.components.Sprite;
 import org.realityforge.saber.world.Level;
-import org.realityforge.saber.world.LevelPosition;
 
 @GaldrSubSystem
 public abstract class InitializerSystem
@@ -34,26 +34,26 @@ public abstract class InitializerSystem
       hello().get( world().createEntity( Hello.class ) ).message = "\n\rHello world!\n\r";
 
       final int playerEntityId =
-        world().createEntity( Position.class, Sprite.class, CommandTarget.class, Player.class );
+        world().createEntity( Position.class, Sprite.class, CommandTarget.class, Player.class, Actor.class );
 
-      final LevelPosition position = position().get( playerEntityId ).position;
       final Game game = Game.getGame();
       final Level level = game.getLevel();
-      position.setColumn( level.getColumnCount() / 2 );
-      position.setRow( level.getRowCount() / 2 );
+      game.getPositionStore().add( playerEntityId, level.getColumnCount() / 2, level.getRowCount() / 2 );
       sprite().get( playerEntityId ).texture =
         game.getTextureManager().getImageByName( "resources/players/warrior/spr_warrior_idle_down" );
+      game.setPlayerEntityId( playerEntityId );
+      game.getTurnScheduler().schedule( playerEntityId, actor().get( playerEntityId ).speed );
       _initialized = true;
     }
   }
 
   @ComponentManagerRef
   @Nonnull
-  abstract ComponentManager<Hello> hello();
+  abstract ComponentManager<Actor> actor();
 
   @ComponentManagerRef
   @Nonnull
-  abstract ComponentManager<Position> position();
+  abstract ComponentManager<Hello> hello();
 
   @ComponentManagerRef
   @Nonnull
@@ -2,93 +2,138 @@ package org.realityforge.saber.systems;
 
 import elemental2.dom.CanvasRenderingContext2D;
 import elemental2.dom.HTMLCanvasElement;
-import elemental2.dom.HTMLImageElement;
 import galdr.ComponentManager;
 import galdr.annotations.ComponentManagerRef;
-import galdr.annotations.EntityProcessor;
 import galdr.annotations.GaldrSubSystem;
 import galdr.annotations.Processor;
 import javax.annotation.Nonnull;
 import org.realityforge.saber.Game;
+import org.realityforge.saber.LightLayer;
 import org.realityforge.saber.Renderer;
-import org.realityforge.saber.Texture;
-import org.realityforge.saber.components.Position;
+import org.realityforge.saber.SpriteBatch;
+import org.realityforge.saber.TextureManager;
+import org.realityforge.saber.TileLayer;
 import org.realityforge.saber.components.Sprite;
+import org.realityforge.saber.light.LightMap;
 import org.realityforge.saber.world.Level;
-import org.realityforge.saber.world.Tile;
-import org.realityforge.saber.world.TileType;
+import org.realityforge.saber.world.PositionStore;
 
 @GaldrSubSystem
 public abstract class RenderSystem
 {
+  /**
+   * The size in pixels of a tile on the minimap.
+   */
+  private static final int MINIMAP_SCALE = 3;
+  /**
+   * The distance in pixels between the minimap and the edge of the canvas.
+   */
+  private static final int MINIMAP_MARGIN = 8;
   @ComponentManagerRef
   @Nonnull
   abstract ComponentManager<Sprite> sprite();
 
-  @ComponentManagerRef
-  @Nonnull
-  abstract ComponentManager<Position> position();
-
   @Processor
   void renderWorld()
   {
-    clearBackground();
-
-    drawWorld();
-  }
-
-  @EntityProcessor( all = { Position.class, Sprite.class } )
-  void renderSprite( final int id )
-  {
-    final Position position = position().get( id );
-    final Texture texture = sprite().get( id ).texture;
-
     final Game game = Game.getGame();
-    final Level level = game.getLevel();
     final Renderer renderer = game.getRenderer();
+    final Level level = game.getLevel();
 
-    final HTMLCanvasElement canvas = renderer.getCanvas();
-    final int columnWidth = canvas.width / level.getColumnCount();
-    final int rowHeight = canvas.height / level.getRowCount();
-
-    assert null != texture;
-    final HTMLImageElement image = texture.getImage();
-    renderer.getContext()
-      .drawImage( image, position.position.getColumn() * columnWidth, position.position.getRow() * rowHeight );
+    clearBackground( renderer );
+    drawWorld( renderer, level, game.getTextureManager() );
+    drawSprites( renderer, level, game.getPositionStore(), game.getTextureManager() );
+    drawLighting( game, renderer, level );
+    drawMinimap( game, renderer, level );
   }
 
-  private void clearBackground()
+  private void clearBackground( @Nonnull final Renderer renderer )
   {
-    final Game game = Game.getGame();
-    final Renderer renderer = game.getRenderer();
     final HTMLCanvasElement canvas = renderer.getCanvas();
     final CanvasRenderingContext2D context = renderer.getContext();
     context.fillStyle = CanvasRenderingContext2D.FillStyleUnionType.of( "black" );
     context.fillRect( 0, 0, canvas.width, canvas.height );
   }
 
-  private void drawWorld()
+  private void drawWorld( @Nonnull final Renderer renderer,
+                          @Nonnull final Level level,
+                          @Nonnull final TextureManager textureManager )
   {
-    final Game game = Game.getGame();
-    final Level level = game.getLevel();
-    final Renderer renderer = game.getRenderer();
+    final TileLayer tileLayer = renderer.getTileLayer();
+    tileLayer.update( level, textureManager.getLoadGeneration() );
+    renderer.getContext().drawImage( tileLayer.getCanvas(), 0, 0 );
+  }
 
-    int index = 0;
-    final int rowCount = level.getRowCount();
+  private void drawSprites( @Nonnull final Renderer renderer,
+                            @Nonnull final Level level,
+                            @Nonnull final PositionStore positions,
+                            @Nonnull final TextureManager textureManager )
+  {
+    final HTMLCanvasElement canvas = renderer.getCanvas();
     final int columnCount = level.getColumnCount();
-    final Tile[] tiles = level.getTiles();
-    for ( int i = 0; i < rowCount; i++ )
+    final int rowCount = level.getRowCount();
+    final int columnWidth = canvas.width / columnCount;
+    final int rowHeight = canvas.height / rowCount;
+
+    final SpriteBatch batch = renderer.getSpriteBatch();
+    batch.begin();
+    final int size = positions.size();
+    final int[] entities = positions.getEntities();
+    final int[] packedPositions = positions.getPackedPositions();
+    for ( int i = 0; i < size; i++ )
     {
-      for ( int j = 0; j < columnCount; j++ )
+      final Sprite sprite = sprite().find( entities[ i ] );
+      if ( null != sprite && null != sprite.texture )
       {
-        final Tile tile = tiles[ index++ ];
-        final TileType tileType = tile.getTileType();
-        final Texture texture = tileType.getTexture();
-        if ( null != texture )
+        final int position = packedPositions[ i ];
+        final int column = PositionStore.unpackColumn( position );
+        final int row = PositionStore.unpackRow( position );
+        if ( column < columnCount && row < rowCount )
         {
-          renderer.getContext().drawImage( texture.getImage(), tile.getTopLeftX(), tile.getTopLeftY() );
+          if ( !sprite.texture.isReady() )
+          {
+            // Visible sprites are loaded ahead of the rest of the catalogue
+            textureManager.requestTexture( sprite.texture );
+          }
+          batch.add( sprite.layer, column, row, sprite.texture );
         }
       }
     }
+    batch.draw( renderer.getContext(), columnWidth, rowHeight );
+  }
+
+  private void drawLighting( @Nonnull final Game game, @Nonnull final Renderer renderer, @Nonnull final Level level )
+  {
+    final PositionStore positions = game.getPositionStore();
+    final int playerId = game.getPlayerEntityId();
+    final LightMap lightMap = game.getLightMap();
+    lightMap.moveLight( game.getPlayerTorch(), positions.getColumn( playerId ), positions.getRow( playerId ) );
+    lightMap.update();
+
+    final LightLayer lightLayer = renderer.getLightLayer();
+    lightLayer.update( level, lightMap );
+    renderer.getContext().drawImage( lightLayer.getCanvas(), 0, 0 );
+  }
+
+  private void drawMinimap( @Nonnull final Game game, @Nonnull final Renderer renderer, @Nonnull final Level level )
+  {
+    final PositionStore positions = game.getPositionStore();
+    final int playerId = game.getPlayerEntityId();
+    final int playerColumn = positions.getColumn( playerId );
+    final int playerRow = positions.getRow( playerId );
+    game.getMinimap().update( level, playerColumn, playerRow );
+
+    final CanvasRenderingContext2D context = renderer.getContext();
+    final int width = level.getColumnCount() * MINIMAP_SCALE;
+    final int height = level.getRowCount() * MINIMAP_SCALE;
+    final int x = renderer.getCanvas().width - width - MINIMAP_MARGIN;
+    final int y = MINIMAP_MARGIN;
+    context.fillStyle = CanvasRenderingContext2D.FillStyleUnionType.of( "black" );
+    context.globalAlpha = 0.6;
+    context.fillRect( x, y, width, height );
+    context.globalAlpha = 1;
+    renderer.getMinimapBuffer().draw( context, x, y, width, height );
+    context.fillStyle = CanvasRenderingContext2D.FillStyleUnionType.of( "white" );
+    context.fillRect( x + playerColumn * MINIMAP_SCALE, y + playerRow * MINIMAP_SCALE, MINIMAP_SCALE, MINIMAP_SCALE );
   }
 }
@@ -0,0 +1,361 @@
+package org.realityforge.saber.systems;
+
+import galdr.ComponentManager;
+import galdr.World;
+import galdr.annotations.ComponentManagerRef;
+import galdr.annotations.GaldrSubSystem;
+import galdr.annotations.Processor;
+import galdr.annotations.WorldRef;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.realityforge.saber.Game;
+import org.realityforge.saber.Texture;
+import org.realityforge.saber.components.Actor;
+import org.realityforge.saber.components.Monster;
+import org.realityforge.saber.components.Position;
+import org.realityforge.saber.components.Sprite;
+import org.realityforge.saber.floor.Floor;
+import org.realityforge.saber.generator.Rng;
+import org.realityforge.saber.spawn.SpawnCandidates;
+import org.realityforge.saber.spawn.SpawnTable;
+import org.realityforge.saber.stream.StreamedViewport;
+import org.realityforge.saber.stream.StreamedWorld;
+import org.realityforge.saber.turn.TurnScheduler;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.PositionStore;
+
+/**
+ * Populates the current floor with items and enemies drawn from the spawn tables.
+ * The population is derived from the seed of the floor so revisiting a floor spawns the same population.
+ * Entities spawned on a floor are disposed when the player leaves the floor. Once a floor is populated the
+ * textures of the level and the entities on it are requested ahead of the remaining textures.
+ *
+ * <p>In the open world the level is a window onto the world that is recentred as the player moves. Entities
+ * that leave the window are disposed and retained as dormant entities in the chunk that contains them, and
+ * are spawned again when their position re-enters the window.</p>
+ */
+@GaldrSubSystem
+public abstract class SpawnSystem
+{
+  private static final int ITEM_COUNT = 6;
+  private static final int MIN_ENEMY_COUNT = 2;
+  private static final int MAX_ENEMY_COUNT = 8;
+  @Nonnull
+  private static final Class<?>[] ITEM_COMPONENTS = { Position.class, Sprite.class };
+  @Nonnull
+  private static final Class<?>[] ENEMY_COMPONENTS = { Position.class, Sprite.class, Monster.class, Actor.class };
+  @Nonnull
+  private final SpawnCandidates _candidates = new SpawnCandidates();
+  @Nonnull
+  private final Rng _rng = new Rng( 0 );
+  @Nullable
+  private Floor _floor;
+  @Nonnull
+  private int[] _spawned = new int[ ITEM_COUNT + MAX_ENEMY_COUNT ];
+  private int _spawnedCount;
+  /**
+   * The entities that have left the open world window, keyed by the chunk that contains them.
+   */
+  @Nonnull
+  private final Map<Integer, List<DormantEntity>> _dormant = new HashMap<>();
+
+  @WorldRef
+  @Nonnull
+  abstract World world();
+
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Actor> actor();
+
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Monster> monster();
+
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Sprite> sprite();
+
+  @Processor
+  void processSpawns()
+  {
+    final Game game = Game.getGame();
+    final Floor floor = game.getFloorManager().getCurrentFloor();
+    if ( floor != _floor )
+    {
+      despawn( game );
+      _floor = floor;
+      spawn( game, floor );
+      requestTextures( game );
+    }
+    else
+    {
+      final StreamedViewport viewport = game.getOpenWorld();
+      if ( null != viewport )
+      {
+        followPlayer( game, viewport );
+      }
+    }
+  }
+
+  /**
+   * Recentre the open world window on the player if required and move the entities in the window to match.
+   */
+  private void followPlayer( @Nonnull final Game game, @Nonnull final StreamedViewport viewport )
+  {
+    final PositionStore positions = game.getPositionStore();
+    final int playerId = game.getPlayerEntityId();
+    final int originX = viewport.getOriginX();
+    final int originY = viewport.getOriginY();
+    if ( viewport.follow( positions.getColumn( playerId ), positions.getRow( playerId ) ) )
+    {
+      final int deltaColumn = originX - viewport.getOriginX();
+      final int deltaRow = originY - viewport.getOriginY();
+      final Level level = viewport.getLevel();
+      // Iterate backwards as removing a position moves the last position, which has been visited, into its slot
+      for ( int i = positions.size() - 1; i >= 0; i-- )
+      {
+        final int entityId = positions.getEntities()[ i ];
+        final int column = positions.getColumn( entityId );
+        final int row = positions.getRow( entityId );
+        if ( level.isValidTile( column + deltaColumn, row + deltaRow ) )
+        {
+          positions.set( entityId, column + deltaColumn, row + deltaRow );
+          final Monster monster = monster().find( entityId );
+          if ( null != monster )
+          {
+            // The plan refers to tiles at their previous positions
+            monster.pathLength = 0;
+            monster.pathIndex = 0;
+            monster.planGoal = -1;
+          }
+        }
+        else
+        {
+          assert playerId != entityId;
+          makeDormant( game, entityId, originX + column, originY + row );
+        }
+      }
+      wake( game, viewport );
+      game.onOpenWorldRecentred( deltaColumn, deltaRow );
+    }
+  }
+
+  private void makeDormant( @Nonnull final Game game, final int entityId, final int x, final int y )
+  {
+    final Sprite sprite = sprite().get( entityId );
+    final Actor actor = actor().find( entityId );
+    final DormantEntity dormant =
+      new DormantEntity( x,
+                         y,
+                         sprite.texture,
+                         sprite.layer,
+                         null != monster().find( entityId ) ? ENEMY_COMPONENTS : ITEM_COMPONENTS,
+                         null != actor ? actor.speed : 0 );
+    _dormant.computeIfAbsent( StreamedWorld.getChunkKey( x, y ), key -> new ArrayList<>() ).add( dormant );
+    dispose( game, entityId );
+    for ( int i = 0; i < _spawnedCount; i++ )
+    {
+      if ( entityId == _spawned[ i ] )
+      {
+        _spawned[ i ] = _spawned[ --_spawnedCount ];
+        break;
+      }
+    }
+  }
+
+  /**
+   * Spawn the dormant entities of the chunks overlapping the window whose positions lie within the window.
+   */
+  private void wake( @Nonnull final Game game, @Nonnull final StreamedViewport viewport )
+  {
+    final Level level = viewport.getLevel();
+    final int originX = viewport.getOriginX();
+    final int originY = viewport.getOriginY();
+    final int columnCount = level.getColumnCount();
+    final int rowCount = level.getRowCount();
+    final int minChunkX = originX >> StreamedWorld.CHUNK_SHIFT;
+    final int maxChunkX = ( originX + columnCount - 1 ) >> StreamedWorld.CHUNK_SHIFT;
+    final int minChunkY = originY >> StreamedWorld.CHUNK_SHIFT;
+    final int maxChunkY = ( originY + rowCount - 1 ) >> StreamedWorld.CHUNK_SHIFT;
+    for ( int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++ )
+    {
+      for ( int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++ )
+      {
+        final int key =
+          StreamedWorld.getChunkKey( chunkX << StreamedWorld.CHUNK_SHIFT, chunkY << StreamedWorld.CHUNK_SHIFT );
+        final List<DormantEntity> entities = _dormant.get( key );
+        if ( null != entities )
+        {
+          final Iterator<DormantEntity> iterator = entities.iterator();
+          while ( iterator.hasNext() )
+          {
+            final DormantEntity dormant = iterator.next();
+            final int column = dormant._x - originX;
+            final int row = dormant._y - originY;
+            if ( level.isValidTile( column, row ) )
+            {
+              final int entityId =
+                createEntity( game, dormant._components, dormant._texture, dormant._layer, column, row );
+              final Actor actor = actor().find( entityId );
+              if ( null != actor )
+              {
+                actor.speed = dormant._speed;
+                game.getTurnScheduler().setSpeed( entityId, dormant._speed );
+              }
+              iterator.remove();
+            }
+          }
+          if ( entities.isEmpty() )
+          {
+            _dormant.remove( key );
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Request the textures of the level and of the entities on it, so that they load before other textures.
+   */
+  private void requestTextures( @Nonnull final Game game )
+  {
+    final PositionStore positions = game.getPositionStore();
+    final int size = positions.size();
+    final int[] entities = positions.getEntities();
+    final List<Texture> textures = new ArrayList<>();
+    for ( int i = 0; i < size; i++ )
+    {
+      final Sprite sprite = sprite().find( entities[ i ] );
+      if ( null != sprite && null != sprite.texture )
+      {
+        textures.add( sprite.texture );
+      }
+    }
+    game.requestLevelTextures( textures );
+  }
+
+  private void spawn( @Nonnull final Game game, @Nonnull final Floor floor )
+  {
+    final Level level = floor.getLevel();
+    final int columnCount = level.getColumnCount();
+    final int depth = floor.getFloorNumber();
+    final PositionStore positions = game.getPositionStore();
+
+    _rng.setSeed( floor.getSeed() * 31 + depth );
+    _candidates.index( level );
+    _candidates.exclude( positions.getTileIndex( game.getPlayerEntityId(), columnCount ) );
+    _candidates.exclude( floor.getArrivalIndex() );
+    _candidates.exclude( floor.getReturnIndex() );
+
+    final int enemyCount = Math.min( MAX_ENEMY_COUNT, MIN_ENEMY_COUNT + depth / 2 );
+    spawn( game, game.getItemTable(), ITEM_COMPONENTS, Sprite.ITEM_LAYER, ITEM_COUNT, depth, columnCount );
+    spawn( game, game.getEnemyTable(), ENEMY_COMPONENTS, Sprite.ACTOR_LAYER, enemyCount, depth, columnCount );
+  }
+
+  private void spawn( @Nonnull final Game game,
+                      @Nonnull final SpawnTable<Texture> table,
+                      @Nonnull final Class<?>[] components,
+                      final int layer,
+                      final int count,
+                      final int depth,
+                      final int columnCount )
+  {
+    for ( int i = 0; i < count; i++ )
+    {
+      final Texture texture = table.draw( depth, _rng );
+      final int index = null != texture ? _candidates.next( _rng ) : -1;
+      if ( -1 == index )
+      {
+        return;
+      }
+      createEntity( game, components, texture, layer, index % columnCount, index / columnCount );
+    }
+  }
+
+  private int createEntity( @Nonnull final Game game,
+                            @Nonnull final Class<?>[] components,
+                            @Nullable final Texture texture,
+                            final int layer,
+                            final int column,
+                            final int row )
+  {
+    final int entityId = world().createEntity( components );
+    game.getPositionStore().add( entityId, column, row );
+    final Sprite sprite = sprite().get( entityId );
+    sprite.texture = texture;
+    sprite.layer = layer;
+    final Actor actor = actor().find( entityId );
+    if ( null != actor )
+    {
+      game.getTurnScheduler().schedule( entityId, actor.speed );
+    }
+    if ( _spawnedCount == _spawned.length )
+    {
+      _spawned = Arrays.copyOf( _spawned, _spawned.length * 2 );
+    }
+    _spawned[ _spawnedCount++ ] = entityId;
+    return entityId;
+  }
+
+  private void despawn( @Nonnull final Game game )
+  {
+    final World world = world();
+    for ( int i = 0; i < _spawnedCount; i++ )
+    {
+      final int entityId = _spawned[ i ];
+      if ( world.isAlive( entityId ) )
+      {
+        dispose( game, entityId );
+      }
+    }
+    _spawnedCount = 0;
+    _dormant.clear();
+  }
+
+  private void dispose( @Nonnull final Game game, final int entityId )
+  {
+    final TurnScheduler scheduler = game.getTurnScheduler();
+    if ( scheduler.isScheduled( entityId ) )
+    {
+      scheduler.unschedule( entityId );
+    }
+    game.getPositionStore().remove( entityId );
+    world().disposeEntity( entityId );
+  }
+
+  /**
+   * An entity that has left the open world window.
+   */
+  private static final class DormantEntity
+  {
+    private final int _x;
+    private final int _y;
+    @Nullable
+    private final Texture _texture;
+    private final int _layer;
+    @Nonnull
+    private final Class<?>[] _components;
+    private final int _speed;
+
+    private DormantEntity( final int x,
+                           final int y,
+                           @Nullable final Texture texture,
+                           final int layer,
+                           @Nonnull final Class<?>[] components,
+                           final int speed )
+    {
+      _x = x;
+      _y = y;
+      _texture = texture;
+      _layer = layer;
+      _components = components;
+      _speed = speed;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package org.realityforge.saber.systems;
+
+import galdr.ComponentManager;
+import galdr.annotations.ComponentManagerRef;
+import galdr.annotations.GaldrSubSystem;
+import galdr.annotations.Processor;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.Game;
+import org.realityforge.saber.components.Actor;
+import org.realityforge.saber.components.Player;
+import org.realityforge.saber.turn.TurnScheduler;
+
+/**
+ * Advances the turn scheduler after the player has acted.
+ * Actors act in scheduler order until it is the players turn again, so the work performed is proportional to
+ * the number of actors that act rather than the number of actors on the floor. The scheduler is always left
+ * with the player next to act, so the player's command applies at the correct time and the speed of the
+ * player determines how much the other actors do between player turns.
+ */
+@GaldrSubSystem
+public abstract class TurnSystem
+{
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Actor> actor();
+
+  @ComponentManagerRef
+  @Nonnull
+  abstract ComponentManager<Player> player();
+
+  @Processor
+  void processTurn()
+  {
+    final Game game = Game.getGame();
+    final TurnScheduler scheduler = game.getTurnScheduler();
+    scheduler.clearActed();
+    final int playerId = game.getPlayerEntityId();
+    // If the player is not scheduled there is no player turn to wait for, so the other actors are limited to
+    // a single normal speed turn. Otherwise they act until the player has accumulated the energy to act again.
+    final boolean playerScheduled = -1 != playerId && scheduler.isScheduled( playerId );
+    final int endTime = scheduler.getTime() + TurnScheduler.ENERGY_THRESHOLD / TurnScheduler.NORMAL_SPEED;
+    boolean playerActed = false;
+    while ( !scheduler.isEmpty() )
+    {
+      final int entityId = scheduler.peek();
+      if ( player().has( entityId ) )
+      {
+        if ( playerActed )
+        {
+          // Wait for the player to issue their next command
+          break;
+        }
+        playerActed = true;
+      }
+      else if ( !playerScheduled && scheduler.peekTime() > endTime )
+      {
+        break;
+      }
+      scheduler.beginTurn();
+      final Actor actor = actor().get( entityId );
+      scheduler.endTurn( entityId, actor.actionCost, actor.speed );
+    }
+  }
+}
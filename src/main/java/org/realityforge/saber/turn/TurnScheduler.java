@@ -0,0 +1,355 @@
+package org.realityforge.saber.turn;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * Energy based scheduler that determines the order in which actors act.
+ *
+ * <p>Each actor gains energy equal to its speed every tick and acts once its energy reaches
+ * {@link #ENERGY_THRESHOLD}. Rather than adding energy to every actor each tick, the scheduler calculates
+ * the tick at which each actor will next reach the threshold and keeps the actors in an indexed 4-ary
+ * min-heap keyed by that tick. Selecting the next actor, rescheduling it and changing its speed are all
+ * O(log n) and actors that are not acting are never visited.</p>
+ *
+ * <p>Actors that are due in the same tick act in the order they were scheduled so that the order is
+ * independent of entity ids and is reproduced exactly when a game is replayed.</p>
+ */
+public final class TurnScheduler
+{
+  public static final int ENERGY_THRESHOLD = 1000;
+  public static final int NORMAL_SPEED = 100;
+  private static final int ARITY = 4;
+  private static final int INITIAL_CAPACITY = 16;
+  /**
+   * The entity ids in heap order.
+   */
+  @Nonnull
+  private int[] _heap = new int[ INITIAL_CAPACITY ];
+  private int _size;
+  /**
+   * The position of each entity in the heap, indexed by entity id. -1 if the entity is not scheduled.
+   */
+  @Nonnull
+  private int[] _positions = newPositions( INITIAL_CAPACITY );
+  /**
+   * The tick at which each entity next acts, indexed by entity id.
+   */
+  @Nonnull
+  private int[] _times = new int[ INITIAL_CAPACITY ];
+  /**
+   * The order in which each entity was scheduled, used to break ties, indexed by entity id.
+   */
+  @Nonnull
+  private int[] _sequences = new int[ INITIAL_CAPACITY ];
+  /**
+   * The energy each entity will have when it next acts, indexed by entity id.
+   */
+  @Nonnull
+  private int[] _energy = new int[ INITIAL_CAPACITY ];
+  /**
+   * The speed each entity was scheduled with, indexed by entity id.
+   */
+  @Nonnull
+  private int[] _speeds = new int[ INITIAL_CAPACITY ];
+  private int _nextSequence;
+  private int _time;
+  /**
+   * The entity currently taking its turn or -1 if no entity is acting.
+   */
+  private int _activeEntity = -1;
+  /**
+   * The entities that have begun a turn since the last call to {@link #clearActed()}, in the order they acted.
+   */
+  @Nonnull
+  private int[] _acted = new int[ INITIAL_CAPACITY ];
+  private int _actedCount;
+
+  /**
+   * Return the current tick.
+   */
+  public int getTime()
+  {
+    return _time;
+  }
+
+  public int size()
+  {
+    return _size;
+  }
+
+  public boolean isEmpty()
+  {
+    return 0 == _size;
+  }
+
+  public boolean isScheduled( final int entityId )
+  {
+    return entityId < _positions.length && _positions[ entityId ] >= 0;
+  }
+
+  /**
+   * Add an actor that starts with no energy.
+   */
+  public void schedule( final int entityId, final int speed )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> !isScheduled( entityId ),
+                    () -> "Saber-0009: Attempted to schedule entity " + entityId + " that is already scheduled" );
+      apiInvariant( () -> speed > 0,
+                    () -> "Saber-0010: Attempted to schedule entity " + entityId + " with invalid speed " + speed );
+    }
+    ensureCapacity( entityId );
+    _energy[ entityId ] = 0;
+    insert( entityId, speed );
+  }
+
+  /**
+   * Remove an actor from the scheduler, typically because the entity has been disposed.
+   */
+  public void unschedule( final int entityId )
+  {
+    if ( _activeEntity == entityId )
+    {
+      _activeEntity = -1;
+    }
+    else if ( isScheduled( entityId ) )
+    {
+      removeAt( _positions[ entityId ] );
+    }
+  }
+
+  /**
+   * Change the speed of a scheduled actor, bringing forward or delaying its next action.
+   */
+  public void setSpeed( final int entityId, final int speed )
+  {
+    assert speed > 0;
+    if ( isScheduled( entityId ) )
+    {
+      // Determine the energy that will have been accumulated by now and reschedule from that point
+      final int remainingTicks = _times[ entityId ] - _time;
+      final int energy = _energy[ entityId ] - remainingTicks * _speeds[ entityId ];
+      removeAt( _positions[ entityId ] );
+      _energy[ entityId ] = energy;
+      insert( entityId, speed );
+    }
+  }
+
+  /**
+   * Return the entity that will act next without removing it or -1 if no actors are scheduled.
+   */
+  public int peek()
+  {
+    return 0 == _size ? -1 : _heap[ 0 ];
+  }
+
+  /**
+   * Return the tick at which the next actor will act or -1 if no actors are scheduled.
+   */
+  public int peekTime()
+  {
+    return 0 == _size ? -1 : _times[ _heap[ 0 ] ];
+  }
+
+  /**
+   * Advance time to the next action and start the turn of the actor that acts.
+   * The actor is removed from the scheduler until {@link #endTurn(int, int, int)} is invoked.
+   *
+   * @return the entity id of the actor.
+   */
+  public int beginTurn()
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> -1 == _activeEntity,
+                    () -> "Saber-0011: Attempted to begin a turn while entity " + _activeEntity + " is acting" );
+      apiInvariant( () -> 0 != _size, () -> "Saber-0012: Attempted to begin a turn when no actors are scheduled" );
+    }
+    final int entityId = _heap[ 0 ];
+    _time = _times[ entityId ];
+    removeAt( 0 );
+    _activeEntity = entityId;
+    if ( _actedCount == _acted.length )
+    {
+      _acted = Arrays.copyOf( _acted, _actedCount * 2 );
+    }
+    _acted[ _actedCount++ ] = entityId;
+    return entityId;
+  }
+
+  /**
+   * Complete the turn of the acting actor, spending the energy consumed by its action and rescheduling it.
+   */
+  public void endTurn( final int entityId, final int actionCost, final int speed )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> entityId == _activeEntity,
+                    () -> "Saber-0013: Attempted to end the turn of entity " + entityId + " when the " +
+                          "acting entity is " + _activeEntity );
+    }
+    _activeEntity = -1;
+    _energy[ entityId ] -= actionCost;
+    insert( entityId, speed );
+  }
+
+  /**
+   * Return the number of entities that have acted since the last call to {@link #clearActed()}.
+   */
+  public int getActedCount()
+  {
+    return _actedCount;
+  }
+
+  /**
+   * Return the entity that acted at the specified position in the acting order.
+   */
+  public int getActed( final int index )
+  {
+    assert index < _actedCount;
+    return _acted[ index ];
+  }
+
+  public void clearActed()
+  {
+    _actedCount = 0;
+  }
+
+  private void insert( final int entityId, final int speed )
+  {
+    final int energy = _energy[ entityId ];
+    // Calculate the number of ticks until the actor reaches the threshold, rounding up
+    final int deficit = ENERGY_THRESHOLD - energy;
+    final int ticks = deficit <= 0 ? 0 : ( deficit + speed - 1 ) / speed;
+    _times[ entityId ] = _time + ticks;
+    _energy[ entityId ] = energy + ticks * speed;
+    _speeds[ entityId ] = speed;
+    _sequences[ entityId ] = _nextSequence++;
+
+    if ( _size == _heap.length )
+    {
+      _heap = Arrays.copyOf( _heap, _size * 2 );
+    }
+    _heap[ _size ] = entityId;
+    _positions[ entityId ] = _size;
+    siftUp( _size++ );
+  }
+
+  private void removeAt( final int position )
+  {
+    final int entityId = _heap[ position ];
+    _positions[ entityId ] = -1;
+    _size--;
+    if ( position != _size )
+    {
+      final int last = _heap[ _size ];
+      _heap[ position ] = last;
+      _positions[ last ] = position;
+      if ( position > 0 && isBefore( last, _heap[ ( position - 1 ) / ARITY ] ) )
+      {
+        siftUp( position );
+      }
+      else
+      {
+        siftDown( position );
+      }
+    }
+  }
+
+  private boolean isBefore( final int entityId, final int otherEntityId )
+  {
+    final int time = _times[ entityId ];
+    final int otherTime = _times[ otherEntityId ];
+    return time < otherTime || ( time == otherTime && _sequences[ entityId ] < _sequences[ otherEntityId ] );
+  }
+
+  private void siftUp( final int start )
+  {
+    final int entityId = _heap[ start ];
+    int position = start;
+    while ( position > 0 )
+    {
+      final int parentPosition = ( position - 1 ) / ARITY;
+      final int parent = _heap[ parentPosition ];
+      if ( isBefore( entityId, parent ) )
+      {
+        _heap[ position ] = parent;
+        _positions[ parent ] = position;
+        position = parentPosition;
+      }
+      else
+      {
+        break;
+      }
+    }
+    _heap[ position ] = entityId;
+    _positions[ entityId ] = position;
+  }
+
+  private void siftDown( final int start )
+  {
+    final int entityId = _heap[ start ];
+    int position = start;
+    while ( true )
+    {
+      final int firstChild = position * ARITY + 1;
+      if ( firstChild >= _size )
+      {
+        break;
+      }
+      final int lastChild = Math.min( firstChild + ARITY, _size );
+      int bestPosition = firstChild;
+      for ( int child = firstChild + 1; child < lastChild; child++ )
+      {
+        if ( isBefore( _heap[ child ], _heap[ bestPosition ] ) )
+        {
+          bestPosition = child;
+        }
+      }
+      final int best = _heap[ bestPosition ];
+      if ( isBefore( best, entityId ) )
+      {
+        _heap[ position ] = best;
+        _positions[ best ] = position;
+        position = bestPosition;
+      }
+      else
+      {
+        break;
+      }
+    }
+    _heap[ position ] = entityId;
+    _positions[ entityId ] = position;
+  }
+
+  private void ensureCapacity( final int entityId )
+  {
+    if ( entityId >= _positions.length )
+    {
+      final int oldLength = _positions.length;
+      int newLength = oldLength;
+      while ( newLength <= entityId )
+      {
+        newLength *= 2;
+      }
+      _positions = Arrays.copyOf( _positions, newLength );
+      Arrays.fill( _positions, oldLength, newLength, -1 );
+      _times = Arrays.copyOf( _times, newLength );
+      _sequences = Arrays.copyOf( _sequences, newLength );
+      _energy = Arrays.copyOf( _energy, newLength );
+      _speeds = Arrays.copyOf( _speeds, newLength );
+    }
+  }
+
+  @Nonnull
+  private static int[] newPositions( final int length )
+  {
+    final int[] positions = new int[ length ];
+    Arrays.fill( positions, -1 );
+    return positions;
+  }
+}
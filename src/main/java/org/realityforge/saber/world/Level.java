@@ -10,6 +10,13 @@ public final class Level
   private final int _rowCount;
   @Nonnull
   private final Tile[] _tiles;
+  /**
+   * A bitset with a bit set for every tile whose type is opaque.
+   */
+  @Nonnull
+  private final int[] _opacity;
+  @Nonnull
+  private final LevelJournal _journal;
 
   public Level( final int columnCount, final int rowCount, @Nonnull final TileType defaultTileType )
   {
@@ -26,6 +33,15 @@ public final class Level
         _tiles[ index++ ] = new Tile( j, i, defaultTileType );
       }
     }
+    _opacity = new int[ ( _tiles.length + 31 ) >> 5 ];
+    if ( defaultTileType.isOpaque() )
+    {
+      for ( int i = 0; i < _tiles.length; i++ )
+      {
+        _opacity[ i >> 5 ] |= 1 << ( i & 31 );
+      }
+    }
+    _journal = new LevelJournal( _tiles.length );
   }
 
   public boolean isValidTile( final int column, final int row )
@@ -49,7 +65,71 @@ public final class Level
                                  "outside of bounds of " + _columnCount + "x" + _rowCount );
     }
     assert isValidTile( column, row );
-    return _tiles[ column + row * _rowCount ];
+    return _tiles[ getIndex( column, row ) ];
+  }
+
+  public int getIndex( final int column, final int row )
+  {
+    return column + row * _columnCount;
+  }
+
+  public void setTileType( final int column, final int row, @Nonnull final TileType tileType )
+  {
+    setTileType( getTile( column, row ), tileType );
+  }
+
+  public void setTileType( final int index, @Nonnull final TileType tileType )
+  {
+    setTileType( _tiles[ index ], tileType );
+  }
+
+  private void setTileType( @Nonnull final Tile tile, @Nonnull final TileType tileType )
+  {
+    if ( tile.getTileType() != tileType )
+    {
+      tile.setTileType( tileType );
+      final int index = getIndex( tile.getColumn(), tile.getRow() );
+      if ( tileType.isOpaque() )
+      {
+        _opacity[ index >> 5 ] |= 1 << ( index & 31 );
+      }
+      else
+      {
+        _opacity[ index >> 5 ] &= ~( 1 << ( index & 31 ) );
+      }
+      _journal.recordChange( index );
+    }
+  }
+
+  /**
+   * Return true if the tile at the specified index blocks light.
+   */
+  public boolean isOpaque( final int index )
+  {
+    return 0 != ( _opacity[ index >> 5 ] & ( 1 << ( index & 31 ) ) );
+  }
+
+  @Nonnull
+  int[] getOpacity()
+  {
+    return _opacity;
+  }
+
+  /**
+   * Return true if the tile at the specified coordinates blocks light.
+   */
+  public boolean isOpaque( final int column, final int row )
+  {
+    return isOpaque( getIndex( column, row ) );
+  }
+
+  /**
+   * Return the journal that records changes to the tiles of the level.
+   */
+  @Nonnull
+  public LevelJournal getJournal()
+  {
+    return _journal;
   }
 
   public int getColumnCount()
@@ -0,0 +1,297 @@
+package org.realityforge.saber.world;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * Records versions of the tile types of a level using copy-on-write storage with structural sharing.
+ *
+ * <p>Tile type ids are stored in chunks of {@link #CHUNK_SIZE} tiles. Chunks are grouped into pages of
+ * {@link #PAGE_SIZE} chunks and a version is a root array of pages. Every page and chunk is stamped with the
+ * generation that created it and can only be modified in that generation. Committing a version freezes the
+ * current root by advancing the generation, which is constant time. The next change copies only the root and
+ * the page and chunk that contain the changed tile, so a version costs memory proportional to the number of
+ * chunks that changed rather than the size of the level.</p>
+ *
+ * <p>The history follows the level through a journal cursor so it observes every change to the level.</p>
+ */
+public final class LevelHistory
+{
+  public static final int CHUNK_SHIFT = 6;
+  public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  public static final int PAGE_SHIFT = 5;
+  public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private static final class Page
+  {
+    private final int _generation;
+    @Nonnull
+    private final int[][] _chunks;
+    @Nonnull
+    private final int[] _chunkGenerations;
+
+    private Page( final int generation, @Nonnull final int[][] chunks, @Nonnull final int[] chunkGenerations )
+    {
+      _generation = generation;
+      _chunks = chunks;
+      _chunkGenerations = chunkGenerations;
+    }
+  }
+
+  /**
+   * An immutable version of the tile types of the level.
+   */
+  public static final class Version
+  {
+    private final int _number;
+    @Nonnull
+    private final Page[] _pages;
+
+    private Version( final int number, @Nonnull final Page[] pages )
+    {
+      _number = number;
+      _pages = pages;
+    }
+
+    public int getNumber()
+    {
+      return _number;
+    }
+
+    /**
+     * Return the id of the tile type at the specified index in this version.
+     */
+    public int getTileTypeId( final int index )
+    {
+      final int chunk = index >> CHUNK_SHIFT;
+      return _pages[ chunk >> PAGE_SHIFT ]._chunks[ chunk & PAGE_MASK ][ index & CHUNK_MASK ];
+    }
+  }
+
+  @Nonnull
+  private final Level _level;
+  @Nonnull
+  private final LevelJournal.Cursor _cursor;
+  @Nonnull
+  private final LevelJournal.ChangeListener _onTileChanged = this::onTileChanged;
+  private final int _tileCount;
+  /**
+   * The retained versions in a ring buffer, starting at _firstVersion.
+   */
+  @Nonnull
+  private final Version[] _versions;
+  private int _firstVersion;
+  private int _versionCount;
+  @Nonnull
+  private Page[] _pages;
+  private int _rootGeneration;
+  private int _generation;
+  private int _nextVersionNumber;
+
+  /**
+   * Create a history of the level.
+   *
+   * @param level       the level.
+   * @param maxVersions the number of versions retained. The oldest versions are discarded once exceeded.
+   */
+  public LevelHistory( @Nonnull final Level level, final int maxVersions )
+  {
+    assert maxVersions > 0;
+    _level = Objects.requireNonNull( level );
+    _cursor = level.getJournal().createCursor();
+    _versions = new Version[ maxVersions ];
+    final Tile[] tiles = level.getTiles();
+    _tileCount = tiles.length;
+    final int chunkCount = ( ( _tileCount - 1 ) >> CHUNK_SHIFT ) + 1;
+    final int pageCount = ( ( chunkCount - 1 ) >> PAGE_SHIFT ) + 1;
+    _pages = new Page[ pageCount ];
+    for ( int i = 0; i < pageCount; i++ )
+    {
+      _pages[ i ] = new Page( 0, new int[ PAGE_SIZE ][], new int[ PAGE_SIZE ] );
+    }
+    for ( int chunk = 0; chunk < chunkCount; chunk++ )
+    {
+      _pages[ chunk >> PAGE_SHIFT ]._chunks[ chunk & PAGE_MASK ] = new int[ CHUNK_SIZE ];
+    }
+    for ( int i = 0; i < _tileCount; i++ )
+    {
+      write( i, tiles[ i ].getTileType().getId() );
+    }
+  }
+
+  @Nonnull
+  public Level getLevel()
+  {
+    return _level;
+  }
+
+  /**
+   * Record the current state of the level as a new version.
+   */
+  @Nonnull
+  public Version commit()
+  {
+    update();
+    final Version version = new Version( _nextVersionNumber++, _pages );
+    // Freeze every page and chunk reachable from the version
+    _generation++;
+    if ( _versionCount == _versions.length )
+    {
+      // Overwrite the oldest version
+      _versions[ _firstVersion ] = version;
+      _firstVersion = ( _firstVersion + 1 ) % _versions.length;
+    }
+    else
+    {
+      _versions[ ( _firstVersion + _versionCount ) % _versions.length ] = version;
+      _versionCount++;
+    }
+    return version;
+  }
+
+  public int getVersionCount()
+  {
+    return _versionCount;
+  }
+
+  /**
+   * Return the retained version at the specified position, where 0 is the oldest version.
+   */
+  @Nonnull
+  public Version getVersion( final int index )
+  {
+    assert index >= 0 && index < _versionCount;
+    return _versions[ ( _firstVersion + index ) % _versions.length ];
+  }
+
+  @Nonnull
+  public Version getLatestVersion()
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> 0 != _versionCount,
+                    () -> "Saber-0018: Attempted to access the latest version of a LevelHistory with no versions" );
+    }
+    return getVersion( _versionCount - 1 );
+  }
+
+  /**
+   * Report the index of every tile whose type differs between the two versions.
+   * Pages and chunks shared by both versions are skipped so the cost is proportional to the changes.
+   */
+  public void diff( @Nonnull final Version from,
+                    @Nonnull final Version to,
+                    @Nonnull final LevelJournal.ChangeListener listener )
+  {
+    diff( from._pages, to._pages, listener );
+  }
+
+  /**
+   * Restore the level to the specified version.
+   * The history itself is not rewound; the restore is recorded like any other change when next committed.
+   */
+  public void restore( @Nonnull final Version version, @Nonnull final TileTypeManager tileTypeManager )
+  {
+    update();
+    final Page[] pages = version._pages;
+    diff( _pages,
+          pages,
+          index -> _level.setTileType( index, tileTypeManager.getTileType( version.getTileTypeId( index ) ) ) );
+    // Adopt the frozen pages of the version so that the restored level shares storage with it
+    _pages = pages;
+    _rootGeneration = -1;
+    // Consume the changes made by the restore. They match the adopted pages so nothing is copied.
+    update();
+  }
+
+  /**
+   * Bring the working state up to date with the changes made to the level.
+   */
+  public void update()
+  {
+    if ( _cursor.hasChanges() && !_cursor.sync( _onTileChanged ) )
+    {
+      // Too many changes to track so compare every tile, only copying chunks that differ
+      final Tile[] tiles = _level.getTiles();
+      for ( int i = 0; i < _tileCount; i++ )
+      {
+        write( i, tiles[ i ].getTileType().getId() );
+      }
+    }
+  }
+
+  private void onTileChanged( final int index )
+  {
+    write( index, _level.getTiles()[ index ].getTileType().getId() );
+  }
+
+  private void write( final int index, final int tileTypeId )
+  {
+    final int chunkIndex = index >> CHUNK_SHIFT;
+    final int pageIndex = chunkIndex >> PAGE_SHIFT;
+    final int slot = chunkIndex & PAGE_MASK;
+    final int offset = index & CHUNK_MASK;
+    Page page = _pages[ pageIndex ];
+    if ( page._chunks[ slot ][ offset ] == tileTypeId )
+    {
+      return;
+    }
+    final int generation = _generation;
+    if ( _rootGeneration != generation )
+    {
+      _pages = _pages.clone();
+      _rootGeneration = generation;
+    }
+    if ( page._generation != generation )
+    {
+      page = new Page( generation, page._chunks.clone(), page._chunkGenerations.clone() );
+      _pages[ pageIndex ] = page;
+    }
+    int[] chunk = page._chunks[ slot ];
+    if ( page._chunkGenerations[ slot ] != generation )
+    {
+      chunk = chunk.clone();
+      page._chunks[ slot ] = chunk;
+      page._chunkGenerations[ slot ] = generation;
+    }
+    chunk[ offset ] = tileTypeId;
+  }
+
+  private void diff( @Nonnull final Page[] from,
+                     @Nonnull final Page[] to,
+                     @Nonnull final LevelJournal.ChangeListener listener )
+  {
+    if ( from == to )
+    {
+      return;
+    }
+    for ( int pageIndex = 0; pageIndex < from.length; pageIndex++ )
+    {
+      final Page fromPage = from[ pageIndex ];
+      final Page toPage = to[ pageIndex ];
+      if ( fromPage != toPage )
+      {
+        for ( int slot = 0; slot < PAGE_SIZE; slot++ )
+        {
+          final int[] fromChunk = fromPage._chunks[ slot ];
+          final int[] toChunk = toPage._chunks[ slot ];
+          if ( fromChunk != toChunk )
+          {
+            final int base = ( ( pageIndex << PAGE_SHIFT ) + slot ) << CHUNK_SHIFT;
+            for ( int offset = 0; offset < CHUNK_SIZE; offset++ )
+            {
+              if ( fromChunk[ offset ] != toChunk[ offset ] )
+              {
+                listener.onTileChanged( base + offset );
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+}
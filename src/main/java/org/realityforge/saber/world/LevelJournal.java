@@ -0,0 +1,176 @@
+package org.realityforge.saber.world;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Records which tiles of a level have changed so that consumers can update incrementally.
+ *
+ * <p>Changed tile indexes are appended to a bounded ring buffer. A dirty bitset ensures that a tile changed
+ * several times within an epoch is only appended once. An epoch ends whenever a cursor is positioned at the
+ * end of the journal (when it is created, synchronised or skips), so a consumer never misses a change made
+ * after that point. Consumers register a {@link Cursor} and
+ * periodically synchronise it to receive the indexes of the tiles changed since their previous
+ * synchronisation. If a consumer falls so far behind that the ring buffer has been overwritten, the cursor
+ * reports that the consumer must rebuild from the complete level.</p>
+ */
+public final class LevelJournal
+{
+  /**
+   * Receives the indexes of changed tiles.
+   */
+  @FunctionalInterface
+  public interface ChangeListener
+  {
+    void onTileChanged( int index );
+  }
+
+  private static final int MIN_CAPACITY = 64;
+  @Nonnull
+  private final int[] _dirty;
+  @Nonnull
+  private final int[] _changes;
+  private final int _mask;
+  /**
+   * The total number of changes appended. Only differences between sequences are meaningful so overflow is benign.
+   */
+  private int _sequence;
+  /**
+   * The sequence at the start of the current epoch.
+   */
+  private int _epochStart;
+  private int _epoch;
+
+  LevelJournal( final int tileCount )
+  {
+    _dirty = new int[ ( tileCount + 31 ) >> 5 ];
+    // A quarter of the level can change between synchronisations before consumers are forced to rebuild
+    int capacity = MIN_CAPACITY;
+    while ( capacity < tileCount / 4 )
+    {
+      capacity <<= 1;
+    }
+    _changes = new int[ capacity ];
+    _mask = capacity - 1;
+  }
+
+  void recordChange( final int index )
+  {
+    final int word = index >> 5;
+    final int bit = 1 << ( index & 31 );
+    if ( 0 == ( _dirty[ word ] & bit ) )
+    {
+      _dirty[ word ] |= bit;
+      _changes[ _sequence & _mask ] = index;
+      _sequence++;
+    }
+  }
+
+  /**
+   * Return true if the tile has changed during the current epoch.
+   */
+  public boolean isDirty( final int index )
+  {
+    return 0 != ( _dirty[ index >> 5 ] & ( 1 << ( index & 31 ) ) );
+  }
+
+  public int getEpoch()
+  {
+    return _epoch;
+  }
+
+  /**
+   * Complete the current epoch, clearing the dirty bitset.
+   */
+  public void advanceEpoch()
+  {
+    final int count = _sequence - _epochStart;
+    if ( count > _changes.length )
+    {
+      Arrays.fill( _dirty, 0 );
+    }
+    else
+    {
+      for ( int i = _epochStart; i != _sequence; i++ )
+      {
+        final int index = _changes[ i & _mask ];
+        _dirty[ index >> 5 ] &= ~( 1 << ( index & 31 ) );
+      }
+    }
+    _epochStart = _sequence;
+    _epoch++;
+  }
+
+  /**
+   * Create a cursor positioned at the current end of the journal.
+   */
+  @Nonnull
+  public Cursor createCursor()
+  {
+    final Cursor cursor = new Cursor( _sequence );
+    endEpochAtCursor();
+    return cursor;
+  }
+
+  /**
+   * End the epoch when a cursor moves to the end of the journal.
+   * Tiles dirty in the epoch lie behind the cursor so later changes to them must be appended again.
+   */
+  private void endEpochAtCursor()
+  {
+    if ( _sequence != _epochStart )
+    {
+      advanceEpoch();
+    }
+  }
+
+  public final class Cursor
+  {
+    private int _position;
+
+    private Cursor( final int position )
+    {
+      _position = position;
+    }
+
+    /**
+     * Return true if changes have been recorded since the cursor was last synchronised.
+     */
+    public boolean hasChanges()
+    {
+      return _position != _sequence;
+    }
+
+    /**
+     * Deliver the tiles changed since the previous synchronisation to the listener.
+     * A tile may be delivered more than once if it changed repeatedly.
+     *
+     * @return true if the changes were delivered, false if changes were lost and the consumer must rebuild
+     * from the complete level. In either case the cursor is positioned at the end of the journal.
+     */
+    public boolean sync( @Nonnull final ChangeListener listener )
+    {
+      final int end = _sequence;
+      final boolean complete = end - _position <= _changes.length;
+      if ( complete )
+      {
+        for ( int i = _position; i != end; i++ )
+        {
+          listener.onTileChanged( _changes[ i & _mask ] );
+        }
+      }
+      _position = end;
+      endEpochAtCursor();
+      return complete;
+    }
+
+    /**
+     * Skip any outstanding changes, typically after the consumer has rebuilt from the complete level.
+     */
+    public void skip()
+    {
+      _position = _sequence;
+      endEpochAtCursor();
+    }
+  }
+}
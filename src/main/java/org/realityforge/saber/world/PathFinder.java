@@ -0,0 +1,135 @@
+package org.realityforge.saber.world;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Breadth first path finder over the walkable tiles of a level.
+ * The path finder retains its scratch buffers between searches and uses a visit stamp rather than clearing
+ * them, so a search only touches the tiles that it visits. Instances are not thread-safe.
+ */
+public final class PathFinder
+{
+  @Nonnull
+  private int[] _parents = new int[ 0 ];
+  @Nonnull
+  private int[] _queue = new int[ 0 ];
+  @Nonnull
+  private int[] _visited = new int[ 0 ];
+  private int _stamp;
+
+  /**
+   * Find the shortest walkable path between two tiles.
+   * The search gives up after visiting maxNodes tiles so that the cost of a single search is bounded.
+   *
+   * @param level    the level to search.
+   * @param start    the index of the tile to start from. The start tile need not be walkable.
+   * @param goal     the index of the tile to reach. The goal tile need not be walkable.
+   * @param maxNodes the maximum number of tiles to visit.
+   * @param steps    receives the indexes of the first tiles along the path, excluding the start tile.
+   * @return the length of the path or -1 if no path was found.
+   */
+  public int findPath( @Nonnull final Level level,
+                       final int start,
+                       final int goal,
+                       final int maxNodes,
+                       @Nonnull final int[] steps )
+  {
+    final Tile[] tiles = level.getTiles();
+    final int columnCount = level.getColumnCount();
+    ensureCapacity( tiles.length );
+    if ( start == goal )
+    {
+      return 0;
+    }
+    final int stamp = nextStamp();
+    final int[] parents = _parents;
+    final int[] queue = _queue;
+    final int[] visited = _visited;
+
+    // Search backwards from the goal so that following the parents from the start yields the path in order
+    int head = 0;
+    int tail = 0;
+    visited[ goal ] = stamp;
+    parents[ goal ] = -1;
+    queue[ tail++ ] = goal;
+    while ( head < tail && head < maxNodes )
+    {
+      final int index = queue[ head++ ];
+      final int column = index % columnCount;
+      for ( int direction = 0; direction < 4; direction++ )
+      {
+        final int neighbour;
+        if ( 0 == direction )
+        {
+          neighbour = index >= columnCount ? index - columnCount : -1;
+        }
+        else if ( 1 == direction )
+        {
+          neighbour = column < columnCount - 1 ? index + 1 : -1;
+        }
+        else if ( 2 == direction )
+        {
+          neighbour = index + columnCount < tiles.length ? index + columnCount : -1;
+        }
+        else
+        {
+          neighbour = column > 0 ? index - 1 : -1;
+        }
+        if ( neighbour >= 0 && stamp != visited[ neighbour ] )
+        {
+          visited[ neighbour ] = stamp;
+          parents[ neighbour ] = index;
+          if ( neighbour == start )
+          {
+            return tracePath( start, steps );
+          }
+          else if ( tiles[ neighbour ].getTileType().isSolid() )
+          {
+            queue[ tail++ ] = neighbour;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  private int tracePath( final int start, @Nonnull final int[] steps )
+  {
+    int length = 0;
+    int index = _parents[ start ];
+    while ( -1 != index )
+    {
+      if ( length < steps.length )
+      {
+        steps[ length ] = index;
+      }
+      length++;
+      index = _parents[ index ];
+    }
+    return length;
+  }
+
+  private int nextStamp()
+  {
+    _stamp++;
+    if ( 0 == _stamp )
+    {
+      // The stamp wrapped so reset the buffer to avoid matching stale stamps
+      Arrays.fill( _visited, 0 );
+      _stamp = 1;
+    }
+    return _stamp;
+  }
+
+  private void ensureCapacity( final int tileCount )
+  {
+    if ( _parents.length < tileCount )
+    {
+      _parents = new int[ tileCount ];
+      _queue = new int[ tileCount ];
+      _visited = new int[ tileCount ];
+      _stamp = 0;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package org.realityforge.saber.world;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import org.realityforge.braincheck.BrainCheckConfig;
+import static org.realityforge.braincheck.Guards.*;
+
+/**
+ * Packed storage for the level positions of entities.
+ *
+ * <p>Positions are stored as a sparse set. The dense arrays hold the entity id and the packed position of
+ * each positioned entity contiguously, so systems that process every positioned entity can scan the dense
+ * arrays directly via {@link #size()}, {@link #getEntities()} and {@link #getPackedPositions()} rather than
+ * looking up a component for each entity. The sparse array maps an entity id to its slot in the dense
+ * arrays. Each positioned entity costs twelve bytes.</p>
+ *
+ * <p>The column is stored in the low 16 bits of the packed position and the row in the high 16 bits.</p>
+ */
+public final class PositionStore
+{
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int COORDINATE_MASK = 0xFFFF;
+  private static final int ROW_SHIFT = 16;
+  /**
+   * The slot of each entity in the dense arrays, indexed by entity id. -1 if the entity has no position.
+   */
+  @Nonnull
+  private int[] _slots = newSlots( INITIAL_CAPACITY );
+  @Nonnull
+  private int[] _entities = new int[ INITIAL_CAPACITY ];
+  @Nonnull
+  private int[] _positions = new int[ INITIAL_CAPACITY ];
+  private int _size;
+
+  public static int pack( final int column, final int row )
+  {
+    assert column >= 0 && column <= COORDINATE_MASK;
+    assert row >= 0 && row <= COORDINATE_MASK;
+    return column | ( row << ROW_SHIFT );
+  }
+
+  public static int unpackColumn( final int position )
+  {
+    return position & COORDINATE_MASK;
+  }
+
+  public static int unpackRow( final int position )
+  {
+    return position >>> ROW_SHIFT;
+  }
+
+  public boolean has( final int entityId )
+  {
+    return entityId < _slots.length && _slots[ entityId ] >= 0;
+  }
+
+  public void add( final int entityId, final int column, final int row )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> !has( entityId ),
+                    () -> "Saber-0014: Attempted to add position for entity " + entityId + " that has a position" );
+    }
+    if ( entityId >= _slots.length )
+    {
+      final int oldLength = _slots.length;
+      int newLength = oldLength;
+      while ( newLength <= entityId )
+      {
+        newLength *= 2;
+      }
+      _slots = Arrays.copyOf( _slots, newLength );
+      Arrays.fill( _slots, oldLength, newLength, -1 );
+    }
+    if ( _size == _entities.length )
+    {
+      _entities = Arrays.copyOf( _entities, _size * 2 );
+      _positions = Arrays.copyOf( _positions, _size * 2 );
+    }
+    _slots[ entityId ] = _size;
+    _entities[ _size ] = entityId;
+    _positions[ _size ] = pack( column, row );
+    _size++;
+  }
+
+  /**
+   * Remove the position of the entity, moving the last entity into the vacated slot.
+   */
+  public void remove( final int entityId )
+  {
+    if ( has( entityId ) )
+    {
+      final int slot = _slots[ entityId ];
+      _slots[ entityId ] = -1;
+      _size--;
+      if ( slot != _size )
+      {
+        final int lastEntity = _entities[ _size ];
+        _entities[ slot ] = lastEntity;
+        _positions[ slot ] = _positions[ _size ];
+        _slots[ lastEntity ] = slot;
+      }
+    }
+  }
+
+  public int getPosition( final int entityId )
+  {
+    return _positions[ slotOf( entityId ) ];
+  }
+
+  public int getColumn( final int entityId )
+  {
+    return unpackColumn( getPosition( entityId ) );
+  }
+
+  public int getRow( final int entityId )
+  {
+    return unpackRow( getPosition( entityId ) );
+  }
+
+  public void set( final int entityId, final int column, final int row )
+  {
+    _positions[ slotOf( entityId ) ] = pack( column, row );
+  }
+
+  /**
+   * Return the index of the entities tile in a level with the specified number of columns.
+   */
+  public int getTileIndex( final int entityId, final int columnCount )
+  {
+    final int position = getPosition( entityId );
+    return unpackColumn( position ) + unpackRow( position ) * columnCount;
+  }
+
+  /**
+   * Place the entity on the tile with the specified index in a level with the specified number of columns.
+   */
+  public void setTileIndex( final int entityId, final int index, final int columnCount )
+  {
+    set( entityId, index % columnCount, index / columnCount );
+  }
+
+  /**
+   * Return the number of positioned entities.
+   */
+  public int size()
+  {
+    return _size;
+  }
+
+  /**
+   * Return the ids of the positioned entities. Only the first {@link #size()} elements are valid and the array
+   * may be replaced when entities are added.
+   */
+  @Nonnull
+  public int[] getEntities()
+  {
+    return _entities;
+  }
+
+  /**
+   * Return the packed positions of the positioned entities, parallel to {@link #getEntities()}.
+   */
+  @Nonnull
+  public int[] getPackedPositions()
+  {
+    return _positions;
+  }
+
+  private int slotOf( final int entityId )
+  {
+    if ( BrainCheckConfig.checkApiInvariants() )
+    {
+      apiInvariant( () -> has( entityId ),
+                    () -> "Saber-0015: Attempted to access position of entity " + entityId + " that has no position" );
+    }
+    return _slots[ entityId ];
+  }
+
+  @Nonnull
+  private static int[] newSlots( final int length )
+  {
+    final int[] slots = new int[ length ];
+    Arrays.fill( slots, -1 );
+    return slots;
+  }
+}
@@ -0,0 +1,146 @@
+package org.realityforge.saber.world;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Traces straight lines across the tiles of a level using the opacity bitset of the level.
+ *
+ * <p>Lines are rasterised with Bresenham's algorithm, stepping through tile indexes directly, and a trace stops
+ * at the first opaque tile. The line from A to B may visit different tiles to the line from B to A so callers
+ * that need symmetric results should always trace in the same direction. No method allocates.</p>
+ */
+public final class RayCaster
+{
+  private RayCaster()
+  {
+  }
+
+  /**
+   * Return true if no opaque tile lies on the line between the two tiles, excluding the tiles themselves.
+   */
+  public static boolean hasLineOfSight( @Nonnull final Level level,
+                                        final int fromColumn,
+                                        final int fromRow,
+                                        final int toColumn,
+                                        final int toRow )
+  {
+    return -1 == trace( level, fromColumn, fromRow, toColumn, toRow, false );
+  }
+
+  /**
+   * Return true if no opaque tile lies on the line between the two tiles, excluding the tiles themselves.
+   *
+   * @param level the level.
+   * @param from  the index of the tile to trace from.
+   * @param to    the index of the tile to trace to.
+   */
+  public static boolean hasLineOfSight( @Nonnull final Level level, final int from, final int to )
+  {
+    final int columnCount = level.getColumnCount();
+    return -1 == trace( level, from % columnCount, from / columnCount, to % columnCount, to / columnCount, false );
+  }
+
+  /**
+   * Determine line of sight for many pairs of tiles in a single call.
+   * Bit i of the results bitset is set if the i-th pair has line of sight and cleared otherwise.
+   *
+   * @param level   the level.
+   * @param from    the indexes of the tiles to trace from.
+   * @param to      the indexes of the tiles to trace to.
+   * @param count   the number of pairs.
+   * @param results the bitset that receives the results. It must contain at least (count + 31) / 32 elements.
+   * @return the number of pairs that have line of sight.
+   */
+  public static int hasLineOfSight( @Nonnull final Level level,
+                                    @Nonnull final int[] from,
+                                    @Nonnull final int[] to,
+                                    final int count,
+                                    @Nonnull final int[] results )
+  {
+    assert from.length >= count && to.length >= count;
+    assert results.length >= ( count + 31 ) >> 5;
+    final int columnCount = level.getColumnCount();
+    int visible = 0;
+    int word = 0;
+    for ( int i = 0; i < count; i++ )
+    {
+      final int source = from[ i ];
+      final int target = to[ i ];
+      if ( -1 == trace( level,
+                        source % columnCount,
+                        source / columnCount,
+                        target % columnCount,
+                        target / columnCount,
+                        false ) )
+      {
+        word |= 1 << ( i & 31 );
+        visible++;
+      }
+      if ( 31 == ( i & 31 ) )
+      {
+        results[ i >> 5 ] = word;
+        word = 0;
+      }
+    }
+    if ( 0 != ( count & 31 ) )
+    {
+      results[ count >> 5 ] = word;
+    }
+    return visible;
+  }
+
+  /**
+   * Trace the path of a projectile from one tile towards another.
+   * The origin tile is not tested so a projectile may be launched from within an opaque tile.
+   *
+   * @return the index of the first opaque tile on the line, including the target tile, or -1 if the projectile
+   * reaches the target unobstructed.
+   */
+  public static int traceProjectile( @Nonnull final Level level,
+                                     final int fromColumn,
+                                     final int fromRow,
+                                     final int toColumn,
+                                     final int toRow )
+  {
+    return trace( level, fromColumn, fromRow, toColumn, toRow, true );
+  }
+
+  private static int trace( @Nonnull final Level level,
+                            final int fromColumn,
+                            final int fromRow,
+                            final int toColumn,
+                            final int toRow,
+                            final boolean includeTarget )
+  {
+    assert level.isValidTile( fromColumn, fromRow );
+    assert level.isValidTile( toColumn, toRow );
+    final int[] opacity = level.getOpacity();
+    final int columnCount = level.getColumnCount();
+    final int dx = Math.abs( toColumn - fromColumn );
+    final int dy = -Math.abs( toRow - fromRow );
+    final int stepX = fromColumn < toColumn ? 1 : -1;
+    final int stepY = fromRow < toRow ? columnCount : -columnCount;
+    final int target = toColumn + toRow * columnCount;
+    int index = fromColumn + fromRow * columnCount;
+    int error = dx + dy;
+    while ( index != target )
+    {
+      final int error2 = 2 * error;
+      if ( error2 >= dy )
+      {
+        error += dy;
+        index += stepX;
+      }
+      if ( error2 <= dx )
+      {
+        error += dx;
+        index += stepY;
+      }
+      if ( ( includeTarget || index != target ) && 0 != ( opacity[ index >> 5 ] & ( 1 << ( index & 31 ) ) ) )
+      {
+        return index;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,146 @@
+package org.realityforge.saber.world;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Determines the tiles visible from a tile using recursive shadowcasting.
+ *
+ * <p>The square around the origin is split into eight octants and each octant is scanned row by row outwards
+ * from the origin. Opaque tiles narrow the range of slopes that later rows are scanned over, so tiles in shadow
+ * are never visited. Computing the visible tiles within a radius r costs O(r^2) rather than the O(r^3) of
+ * tracing a line to every tile. Opaque tiles that bound the visible area are themselves visible. No method
+ * allocates.</p>
+ */
+public final class ShadowCaster
+{
+  /**
+   * Receives the visible tiles.
+   */
+  @FunctionalInterface
+  public interface Visitor
+  {
+    /**
+     * Invoked for each visible tile. Tiles on the boundary between octants may be visited more than once.
+     */
+    void visit( int column, int row );
+  }
+
+  /**
+   * The transformation of each octant as (xx, xy, yx, yy) tuples.
+   */
+  private static final int[] OCTANTS =
+    {
+      1, 0, 0, -1,
+      0, 1, -1, 0,
+      0, -1, -1, 0,
+      -1, 0, 0, -1,
+      -1, 0, 0, 1,
+      0, -1, 1, 0,
+      0, 1, 1, 0,
+      1, 0, 0, 1
+    };
+
+  private ShadowCaster()
+  {
+  }
+
+  /**
+   * Visit every tile that lies within the square of the specified radius centred on the origin and is
+   * visible from the origin. The origin is always visited.
+   */
+  public static void castLight( @Nonnull final Level level,
+                                final int column,
+                                final int row,
+                                final int radius,
+                                @Nonnull final Visitor visitor )
+  {
+    assert level.isValidTile( column, row );
+    visitor.visit( column, row );
+    for ( int i = 0; i < OCTANTS.length; i += 4 )
+    {
+      castOctant( level,
+                  column,
+                  row,
+                  radius,
+                  1,
+                  1D,
+                  0D,
+                  OCTANTS[ i ],
+                  OCTANTS[ i + 1 ],
+                  OCTANTS[ i + 2 ],
+                  OCTANTS[ i + 3 ],
+                  visitor );
+    }
+  }
+
+  private static void castOctant( @Nonnull final Level level,
+                                  final int column,
+                                  final int row,
+                                  final int radius,
+                                  final int startDistance,
+                                  final double startSlope,
+                                  final double endSlope,
+                                  final int xx,
+                                  final int xy,
+                                  final int yx,
+                                  final int yy,
+                                  @Nonnull final Visitor visitor )
+  {
+    double start = startSlope;
+    if ( start < endSlope )
+    {
+      return;
+    }
+    double nextStart = 0D;
+    for ( int distance = startDistance; distance <= radius; distance++ )
+    {
+      final int dy = -distance;
+      boolean blocked = false;
+      for ( int dx = -distance; dx <= 0; dx++ )
+      {
+        final double leftSlope = ( dx - 0.5D ) / ( dy + 0.5D );
+        final double rightSlope = ( dx + 0.5D ) / ( dy - 0.5D );
+        if ( start < rightSlope )
+        {
+          continue;
+        }
+        else if ( endSlope > leftSlope )
+        {
+          break;
+        }
+        final int c = column + dx * xx + dy * xy;
+        final int r = row + dx * yx + dy * yy;
+        final boolean valid = level.isValidTile( c, r );
+        if ( valid )
+        {
+          visitor.visit( c, r );
+        }
+        // Tiles outside the level block light
+        final boolean opaque = !valid || level.isOpaque( c, r );
+        if ( blocked )
+        {
+          if ( opaque )
+          {
+            nextStart = rightSlope;
+          }
+          else
+          {
+            blocked = false;
+            start = nextStart;
+          }
+        }
+        else if ( opaque && distance < radius )
+        {
+          // Scan the visible range to the left of the opaque tile in later rows
+          blocked = true;
+          castOctant( level, column, row, radius, distance + 1, start, leftSlope, xx, xy, yx, yy, visitor );
+          nextStart = rightSlope;
+        }
+      }
+      if ( blocked )
+      {
+        break;
+      }
+    }
+  }
+}
@@ -37,7 +37,7 @@ public final class Tile
     return _tileType;
   }
 
-  public void setTileType( @Nonnull final TileType tileType )
+  void setTileType( @Nonnull final TileType tileType )
   {
     _tileType = Objects.requireNonNull( tileType );
   }
@@ -0,0 +1,67 @@
+package org.realityforge.saber.world;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Run-length encoding of tile ids used to store tiles compactly.
+ * Tiles are encoded as pairs of (run length, tile id) bytes so tile ids must lie in the range [0, 255].
+ * Generated tiles are dominated by long runs of floor and horizontal wall so they typically compact well.
+ */
+public final class TileRunCodec
+{
+  private static final int MAX_RUN_LENGTH = 0xFF;
+
+  private TileRunCodec()
+  {
+  }
+
+  /**
+   * Encode the tile ids.
+   */
+  @Nonnull
+  public static byte[] encode( @Nonnull final int[] tileIds )
+  {
+    byte[] data = new byte[ 64 ];
+    int length = 0;
+    int index = 0;
+    while ( index < tileIds.length )
+    {
+      final int tileId = tileIds[ index ];
+      assert tileId >= 0 && tileId <= 0xFF;
+      int runLength = 1;
+      while ( index + runLength < tileIds.length &&
+              runLength < MAX_RUN_LENGTH &&
+              tileIds[ index + runLength ] == tileId )
+      {
+        runLength++;
+      }
+      if ( length + 2 > data.length )
+      {
+        data = Arrays.copyOf( data, data.length * 2 );
+      }
+      data[ length++ ] = (byte) runLength;
+      data[ length++ ] = (byte) tileId;
+      index += runLength;
+    }
+    return Arrays.copyOf( data, length );
+  }
+
+  /**
+   * Decode tile ids previously produced by {@link #encode(int[])}.
+   *
+   * @param data    the encoded tiles.
+   * @param tileIds receives the tile ids. The length must match the number of tiles that were encoded.
+   */
+  public static void decode( @Nonnull final byte[] data, @Nonnull final int[] tileIds )
+  {
+    int index = 0;
+    for ( int i = 0; i < data.length; i += 2 )
+    {
+      final int runLength = data[ i ] & 0xFF;
+      Arrays.fill( tileIds, index, index + runLength, data[ i + 1 ] & 0xFF );
+      index += runLength;
+    }
+    assert tileIds.length == index;
+  }
+}
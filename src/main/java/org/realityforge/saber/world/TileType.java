@@ -47,10 +47,19 @@ public final class TileType
     return ( Flags.FLOOR & _flags ) == Flags.FLOOR;
   }
 
+  /**
+   * Return true if the tile blocks light.
+   */
+  public boolean isOpaque()
+  {
+    return ( Flags.OPAQUE & _flags ) == Flags.OPAQUE;
+  }
+
   public static final class Flags
   {
     public static final int SOLID = 1 << 1;
     public static final int FLOOR = 1 << 2;
-    private static final int MASK = SOLID | FLOOR;
+    public static final int OPAQUE = 1 << 3;
+    private static final int MASK = SOLID | FLOOR | OPAQUE;
   }
 }
@@ -0,0 +1,87 @@
+package org.realityforge.saber;
+
+import elemental2.dom.HTMLImageElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * An image backend that records load requests and completes them when instructed.
+ * This allows the texture loader to be exercised without a browser. Textures completed by this
+ * backend are supplied with an image element that stands in for the loaded image.
+ */
+public final class FakeImageBackend
+  implements ImageBackend
+{
+  private static final class PendingLoad
+  {
+    @Nonnull
+    private final Texture _texture;
+    @Nonnull
+    private final Runnable _onLoad;
+    @Nonnull
+    private final Runnable _onError;
+
+    PendingLoad( @Nonnull final Texture texture, @Nonnull final Runnable onLoad, @Nonnull final Runnable onError )
+    {
+      _texture = Objects.requireNonNull( texture );
+      _onLoad = Objects.requireNonNull( onLoad );
+      _onError = Objects.requireNonNull( onError );
+    }
+  }
+
+  @Nonnull
+  private final List<PendingLoad> _pending = new ArrayList<>();
+
+  @Override
+  public void load( @Nonnull final Texture texture, @Nonnull final Runnable onLoad, @Nonnull final Runnable onError )
+  {
+    _pending.add( new PendingLoad( texture, onLoad, onError ) );
+  }
+
+  public int getPendingCount()
+  {
+    return _pending.size();
+  }
+
+  /**
+   * Return the texture of the pending load at the specified index, in the order the loads were started.
+   */
+  @Nonnull
+  public Texture getPendingTexture( final int index )
+  {
+    return _pending.get( index )._texture;
+  }
+
+  /**
+   * Complete the oldest pending load successfully.
+   */
+  public void completeNext()
+  {
+    final PendingLoad load = _pending.remove( 0 );
+    final HTMLImageElement image = new HTMLImageElement();
+    image.src = load._texture.getName() + ".png";
+    load._texture.setImage( image );
+    load._onLoad.run();
+  }
+
+  /**
+   * Fail the oldest pending load.
+   */
+  public void failNext()
+  {
+    _pending.remove( 0 )._onError.run();
+  }
+
+  /**
+   * Complete pending loads until none remain, including loads started as a consequence of earlier completions.
+   */
+  public void completeAll()
+  {
+    while ( !_pending.isEmpty() )
+    {
+      completeNext();
+    }
+  }
+}
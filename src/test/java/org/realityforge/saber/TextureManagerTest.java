@@ -0,0 +1,125 @@
+package org.realityforge.saber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class TextureManagerTest
+{
+  @Test
+  public void priorityLoadsRunBeforeBackgroundLoads()
+  {
+    final FakeImageBackend backend = new FakeImageBackend();
+    final TextureManager manager = new TextureManager( backend );
+    final List<Texture> textures = register( manager, 10 );
+
+    manager.loadAll();
+    assertEquals( backend.getPendingCount(), TextureManager.MAX_CONCURRENT_LOADS );
+    manager.requestTexture( textures.get( 9 ) );
+    assertEquals( textures.get( 9 ).getState(), Texture.State.QUEUED );
+
+    // The first free slot goes to the priority load rather than the next background load
+    backend.completeNext();
+    assertEquals( backend.getPendingTexture( TextureManager.MAX_CONCURRENT_LOADS - 1 ), textures.get( 9 ) );
+    backend.completeNext();
+    assertEquals( backend.getPendingTexture( TextureManager.MAX_CONCURRENT_LOADS - 1 ), textures.get( 6 ) );
+
+    backend.completeAll();
+    assertEquals( manager.getLoadedCount(), 10 );
+    for ( final Texture texture : textures )
+    {
+      assertTrue( texture.isReady() );
+      assertNotNull( texture.getImage() );
+    }
+  }
+
+  @Test
+  public void concurrentLoadsAreBounded()
+  {
+    final FakeImageBackend backend = new FakeImageBackend();
+    final TextureManager manager = new TextureManager( backend );
+    final List<Texture> textures = register( manager, 20 );
+
+    manager.requestTextures( textures.subList( 0, 8 ) );
+    manager.loadAll();
+    int loadCount = 0;
+    while ( 0 != backend.getPendingCount() )
+    {
+      assertTrue( backend.getPendingCount() <= TextureManager.MAX_CONCURRENT_LOADS );
+      backend.completeNext();
+      loadCount++;
+    }
+    assertEquals( loadCount, 20 );
+    assertEquals( manager.getLoadedCount(), 20 );
+  }
+
+  @Test
+  public void failedLoadsAreCounted()
+  {
+    final FakeImageBackend backend = new FakeImageBackend();
+    final TextureManager manager = new TextureManager( backend );
+    final List<Texture> textures = register( manager, 3 );
+    final TextureGroup group = manager.requestTextures( textures );
+
+    backend.failNext();
+    backend.completeAll();
+    assertEquals( textures.get( 0 ).getState(), Texture.State.FAILED );
+    assertEquals( manager.getFailedCount(), 1 );
+    assertEquals( manager.getFailedTextures(), Arrays.asList( textures.get( 0 ) ) );
+    assertEquals( manager.getLoadedCount(), 2 );
+    assertEquals( group.getFailedCount(), 1 );
+    assertEquals( group.getFailedTextures(), Arrays.asList( textures.get( 0 ) ) );
+    assertEquals( group.getLoadedCount(), 2 );
+    assertTrue( group.isComplete() );
+  }
+
+  @Test
+  public void groupReportsProgressAndCompletes()
+  {
+    final FakeImageBackend backend = new FakeImageBackend();
+    final TextureManager manager = new TextureManager( backend );
+    final List<Texture> textures = register( manager, 3 );
+    // Duplicate textures are only counted once
+    final List<Texture> requested = new ArrayList<>( textures );
+    requested.add( textures.get( 1 ) );
+    final TextureGroup group = manager.requestTextures( requested );
+    final List<TextureGroup> completed = new ArrayList<>();
+    // The promise of the group is resolved by this callback
+    group.whenComplete( () -> completed.add( group ) );
+
+    assertEquals( group.getTextureCount(), 3 );
+    assertEquals( group.getLoadedCount(), 0 );
+    backend.completeNext();
+    assertEquals( group.getLoadedCount(), 1 );
+    backend.completeNext();
+    assertEquals( group.getLoadedCount(), 2 );
+    assertFalse( group.isComplete() );
+    assertTrue( completed.isEmpty() );
+
+    backend.completeNext();
+    assertEquals( group.getLoadedCount(), 3 );
+    assertTrue( group.isComplete() );
+    assertEquals( completed.size(), 1 );
+
+    // A group of settled textures is complete as soon as it is requested
+    final TextureGroup settled = manager.requestTextures( textures );
+    assertTrue( settled.isComplete() );
+    assertEquals( backend.getPendingCount(), 0 );
+    settled.whenComplete( () -> completed.add( settled ) );
+    assertEquals( completed.size(), 2 );
+  }
+
+  @Nonnull
+  private static List<Texture> register( @Nonnull final TextureManager manager, final int count )
+  {
+    final List<Texture> textures = new ArrayList<>();
+    for ( int i = 0; i < count; i++ )
+    {
+      textures.add( manager.registerTexture( "resources/texture" + i ) );
+    }
+    return textures;
+  }
+}
@@ -0,0 +1,130 @@
+package org.realityforge.saber.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class PlannerTest
+{
+  @Test
+  public void planCompletedAheadOfTimeIsAppliedOnTheTurnItIsDue()
+  {
+    final Level level = new LevelFixture().newRoom( 19, 19 );
+    final Planner planner = new Planner( () -> 0 );
+    planner.requestPath( 1, level, level.getIndex( 1, 1 ), level.getIndex( 5, 1 ), 4 );
+
+    planner.process( 1 );
+    assertEquals( planner.getPendingCount(), 0 );
+    assertEquals( apply( planner ), new ArrayList<>() );
+
+    planner.beginTurn();
+    final List<Integer> steps = new ArrayList<>();
+    planner.applyPlans( ( entityId, plannedLevel, goal, path, stepCount ) -> {
+      assertEquals( entityId, 1 );
+      assertEquals( goal, level.getIndex( 5, 1 ) );
+      for ( int i = 0; i < stepCount; i++ )
+      {
+        steps.add( path[ i ] );
+      }
+    } );
+    assertEquals( steps, LevelFixture.listOf( level.getIndex( 2, 1 ),
+                                              level.getIndex( 3, 1 ),
+                                              level.getIndex( 4, 1 ),
+                                              level.getIndex( 5, 1 ) ) );
+  }
+
+  @Test
+  public void turnPlansAtMostMaxPlansPerTurn()
+  {
+    final Level level = new LevelFixture().newRoom( 19, 19 );
+    final Planner planner = new Planner( () -> 0 );
+    final int requestCount = Planner.MAX_PLANS_PER_TURN * 2 + 3;
+    request( planner, level, requestCount );
+
+    planner.beginTurn();
+    assertEquals( planner.getPendingCount(), requestCount - Planner.MAX_PLANS_PER_TURN );
+    assertEquals( apply( planner ), range( 0, Planner.MAX_PLANS_PER_TURN ) );
+
+    planner.beginTurn();
+    assertEquals( planner.getPendingCount(), 3 );
+    assertEquals( apply( planner ), range( Planner.MAX_PLANS_PER_TURN, Planner.MAX_PLANS_PER_TURN * 2 ) );
+
+    planner.beginTurn();
+    assertEquals( planner.getPendingCount(), 0 );
+    assertEquals( apply( planner ), range( Planner.MAX_PLANS_PER_TURN * 2, requestCount ) );
+  }
+
+  @Test
+  public void planningBudgetDoesNotChangeWhenPlansAreApplied()
+  {
+    final Level level = new LevelFixture().newRoom( 19, 19 );
+    final Planner unbudgeted = new Planner( () -> 0 );
+    final Planner budgeted = new Planner( () -> 0 );
+    final int requestCount = Planner.MAX_PLANS_PER_TURN * 3;
+    request( unbudgeted, level, requestCount );
+    request( budgeted, level, requestCount );
+
+    budgeted.process( 1 );
+    assertEquals( budgeted.getPendingCount(), 0 );
+    for ( int turn = 0; turn < 3; turn++ )
+    {
+      unbudgeted.beginTurn();
+      budgeted.beginTurn();
+      assertEquals( apply( budgeted ), apply( unbudgeted ) );
+    }
+  }
+
+  @Test
+  public void invalidatedRequestsAreAppliedWithoutSteps()
+  {
+    final Level level = new LevelFixture().newRoom( 19, 19 );
+    final Planner planner = new Planner( () -> 0 );
+    planner.requestPath( 1, level, level.getIndex( 1, 1 ), level.getIndex( 5, 1 ), 4 );
+    planner.requestPath( 2, level, level.getIndex( 1, 1 ), level.getIndex( 9, 1 ), 8 );
+    planner.process( 1 );
+    planner.requestPath( 3, level, level.getIndex( 1, 1 ), level.getIndex( 1, 5 ), 4 );
+
+    planner.invalidate();
+    assertEquals( planner.getPendingCount(), 0 );
+    planner.beginTurn();
+    final List<Integer> entities = new ArrayList<>();
+    planner.applyPlans( ( entityId, plannedLevel, goal, steps, stepCount ) -> {
+      assertEquals( goal, -1 );
+      assertEquals( stepCount, 0 );
+      entities.add( entityId );
+    } );
+    assertEquals( entities, LevelFixture.listOf( 1, 2, 3 ) );
+  }
+
+  private static void request( @Nonnull final Planner planner, @Nonnull final Level level, final int count )
+  {
+    for ( int i = 0; i < count; i++ )
+    {
+      // Later requests have a higher priority so planning order differs from request order
+      planner.requestPath( i, level, level.getIndex( 1, 1 ), level.getIndex( 1 + i % 17, 17 ), count - i );
+    }
+  }
+
+  @Nonnull
+  private static List<Integer> apply( @Nonnull final Planner planner )
+  {
+    final List<Integer> entities = new ArrayList<>();
+    planner.applyPlans( ( entityId, level, goal, steps, stepCount ) -> entities.add( entityId ) );
+    return entities;
+  }
+
+  @Nonnull
+  private static List<Integer> range( final int start, final int end )
+  {
+    final List<Integer> list = new ArrayList<>();
+    for ( int i = start; i < end; i++ )
+    {
+      list.add( i );
+    }
+    return list;
+  }
+}
@@ -0,0 +1,114 @@
+package org.realityforge.saber.floor;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.generator.LevelGenerator;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.generator.SeedIndex;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.realityforge.saber.world.Tile;
+import org.realityforge.saber.world.TileTypeManager;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class FloorManagerTest
+{
+  private static final int SIZE = 19;
+
+  @Nonnull
+  private final TileTypeManager _tileTypeManager = LevelFixture.newGameTileTypeManager();
+  @Nonnull
+  private final List<Floor> _entered = new ArrayList<>();
+
+  @Test
+  public void evictedFloorsAreRestoredWithTheSameTiles()
+  {
+    // Room for the current floor and one other so moving two floors away evicts the first floor
+    final FloorManager manager = newManager( SIZE * SIZE * 2 );
+    final Floor first = newFloor( 1, 42 );
+    final int[] firstTileIds = tileIds( first.getLevel() );
+    manager.enterFloor( first );
+
+    final Floor second = manager.descend();
+    manager.descend();
+    assertTrue( manager.hasVisitedFloor( 1 ) );
+    assertTrue( manager.hasVisitedFloor( 2 ) );
+
+    assertSame( manager.ascend(), second );
+    final Floor restored = manager.ascend();
+    assertNotSame( restored, first );
+    assertEquals( restored.getFloorNumber(), 1 );
+    assertEquals( restored.getSeed(), first.getSeed() );
+    assertEquals( restored.getEntranceIndex(), first.getEntranceIndex() );
+    assertEquals( restored.getExitIndex(), first.getExitIndex() );
+    assertEquals( restored.getLevel().getColumnCount(), SIZE );
+    assertEquals( restored.getLevel().getRowCount(), SIZE );
+    assertEquals( tileIds( restored.getLevel() ), firstTileIds );
+    assertSame( manager.getCurrentFloor(), restored );
+    assertSame( _entered.get( _entered.size() - 1 ), restored );
+  }
+
+  @Test
+  public void residentFloorsAreNotCompacted()
+  {
+    final FloorManager manager = newManager( Integer.MAX_VALUE );
+    final Floor first = newFloor( 1, 42 );
+    manager.enterFloor( first );
+    manager.descend();
+    manager.descend();
+
+    manager.ascend();
+    assertSame( manager.ascend(), first );
+  }
+
+  @Test
+  public void floorsAreGeneratedFromTheMasterSeed()
+  {
+    final FloorManager manager = newManager( Integer.MAX_VALUE );
+    final FloorManager other = newManager( Integer.MAX_VALUE );
+    manager.enterFloor( newFloor( 1, 42 ) );
+    other.enterFloor( newFloor( 1, 42 ) );
+
+    assertEquals( tileIds( manager.descend().getLevel() ), tileIds( other.descend().getLevel() ) );
+  }
+
+  @Nonnull
+  private FloorManager newManager( final int maxResidentTiles )
+  {
+    // Floors are generated on demand by the manager rather than ahead of time
+    return new FloorManager( floor -> {
+    },
+                             _tileTypeManager,
+                             _tileTypeManager.getTileType( Tiles.EMPTY ),
+                             SeedIndex.decode( "" ),
+                             7,
+                             SIZE,
+                             SIZE,
+                             maxResidentTiles,
+                             _entered::add );
+  }
+
+  @Nonnull
+  private Floor newFloor( final int floorNumber, final int seed )
+  {
+    final LevelLayout layout = new LevelGenerator().generate( seed, SIZE, SIZE );
+    final Level level = new Level( SIZE, SIZE, _tileTypeManager.getTileType( Tiles.EMPTY ) );
+    layout.applyTo( level, _tileTypeManager );
+    return new Floor( floorNumber, seed, level, layout.getEntranceIndex(), layout.getExitIndex() );
+  }
+
+  @Nonnull
+  private static int[] tileIds( @Nonnull final Level level )
+  {
+    final Tile[] tiles = level.getTiles();
+    final int[] tileIds = new int[ tiles.length ];
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      tileIds[ i ] = tiles[ i ].getTileType().getId();
+    }
+    return tileIds;
+  }
+}
@@ -0,0 +1,52 @@
+package org.realityforge.saber.game;
+
+import java.io.File;
+import org.realityforge.saber.world.TileType;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class TileRegistryTest
+{
+  @Test
+  public void everyTileIsRegisteredOnce()
+  {
+    assertEquals( TileRegistry.COUNT, Tiles.COUNT );
+    final boolean[] registered = new boolean[ Tiles.COUNT ];
+    for ( int i = 0; i < TileRegistry.COUNT; i++ )
+    {
+      final int id = TileRegistry.getId( i );
+      assertFalse( registered[ id ] );
+      registered[ id ] = true;
+    }
+  }
+
+  @Test
+  public void everyTextureIsUsedAndExists()
+  {
+    final boolean[] used = new boolean[ TileRegistry.TEXTURE_COUNT ];
+    for ( int i = 0; i < TileRegistry.COUNT; i++ )
+    {
+      final int textureIndex = TileRegistry.getTextureIndex( TileRegistry.getId( i ) );
+      assertTrue( textureIndex >= -1 && textureIndex < TileRegistry.TEXTURE_COUNT );
+      if ( -1 != textureIndex )
+      {
+        used[ textureIndex ] = true;
+      }
+    }
+    for ( int i = 0; i < TileRegistry.TEXTURE_COUNT; i++ )
+    {
+      assertTrue( used[ i ] );
+      final String texture = TileRegistry.getTexture( i );
+      assertTrue( new File( "src/main/java/org/realityforge/saber/public/" + texture + ".png" ).isFile() );
+    }
+  }
+
+  @Test
+  public void flagsMatchTheTileKinds()
+  {
+    assertEquals( TileRegistry.getFlags( Tiles.FLOOR ), TileType.Flags.SOLID | TileType.Flags.FLOOR );
+    assertEquals( TileRegistry.getFlags( Tiles.WALL_SINGLE ), TileType.Flags.OPAQUE );
+    assertEquals( TileRegistry.getFlags( Tiles.EMPTY ), 0 );
+    assertEquals( TileRegistry.getTextureIndex( Tiles.EMPTY ), -1 );
+  }
+}
@@ -0,0 +1,33 @@
+package org.realityforge.saber.generator;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class LevelGeneratorTest
+{
+  @Test
+  public void exitIsReachableWithVaultsStamped()
+  {
+    final SeedEvaluator evaluator = new SeedEvaluator( 19, 19 );
+    for ( int seed = 0; seed < 20_000; seed++ )
+    {
+      final LevelMetrics metrics = evaluator.evaluate( seed );
+      if ( !metrics.isExitReachable() )
+      {
+        fail( "Exit unreachable for seed " + seed + ": " + metrics );
+      }
+    }
+  }
+
+  @Test
+  public void sameSeedGeneratesSameLayout()
+  {
+    final LevelGenerator generator = new LevelGenerator();
+    final LevelLayout layout = generator.generate( 123, 19, 19 );
+    generator.generate( 456, 19, 19 );
+    final LevelLayout other = generator.generate( 123, 19, 19 );
+    assertEquals( other.getTiles(), layout.getTiles() );
+    assertEquals( other.getEntranceIndex(), layout.getEntranceIndex() );
+    assertEquals( other.getExitIndex(), layout.getExitIndex() );
+  }
+}
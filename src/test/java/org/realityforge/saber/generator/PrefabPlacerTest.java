@@ -0,0 +1,135 @@
+package org.realityforge.saber.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Vaults;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class PrefabPlacerTest
+{
+  @Test
+  public void findPlacementsMatchesBruteForce()
+  {
+    final Random random = new Random( 17 );
+    final PrefabPlacer placer = new PrefabPlacer();
+    // Widths either side of the word size so that shifts across word boundaries are exercised
+    final int[] columnCounts = { 7, 31, 32, 33, 64, 70, 97 };
+    for ( final int columnCount : columnCounts )
+    {
+      for ( int i = 0; i < 20; i++ )
+      {
+        final int rowCount = 5 + random.nextInt( 40 );
+        placer.reset( columnCount, rowCount );
+        final int blockCount = random.nextInt( 12 );
+        for ( int b = 0; b < blockCount; b++ )
+        {
+          final int column = random.nextInt( columnCount );
+          final int row = random.nextInt( rowCount );
+          placer.block( column,
+                        row,
+                        1 + random.nextInt( Math.min( 6, columnCount - column ) ),
+                        1 + random.nextInt( Math.min( 6, rowCount - row ) ) );
+        }
+        final Prefab prefab = randomPrefab( random, Math.min( columnCount, Prefab.MAX_SIZE ) );
+        final int alignment = 1 + random.nextInt( 3 );
+        assertEquals( placements( placer, prefab, alignment ), bruteForce( placer, columnCount, rowCount, prefab, alignment ) );
+      }
+    }
+  }
+
+  @Test
+  public void vaultPlacementsMatchBruteForce()
+  {
+    final PrefabPlacer placer = new PrefabPlacer();
+    placer.reset( 45, 39 );
+    placer.block( 10, 8, 9, 3 );
+    placer.block( 30, 20, 2, 12 );
+    for ( int i = 0; i < Vaults.LIBRARY.size(); i++ )
+    {
+      final Prefab vault = Vaults.LIBRARY.get( i );
+      assertEquals( placements( placer, vault, 2 ), bruteForce( placer, 45, 39, vault, 2 ) );
+    }
+  }
+
+  @Test
+  public void stampedPrefabsBlockLaterPlacements()
+  {
+    final PrefabPlacer placer = new PrefabPlacer();
+    final LevelLayout layout = new LevelLayout( 11, 11 );
+    placer.reset( 11, 11 );
+    final Prefab prefab = Prefab.parse( "[19][19][19]\n[19][19][19]\n[19][19][19]\n" );
+    assertEquals( placer.findPlacements( prefab, 1 ), 49 );
+
+    placer.stamp( layout, prefab, 4, 4 );
+    assertEquals( layout.getTile( 5, 5 ), 19 );
+    assertTrue( placer.isBlocked( 6, 6 ) );
+    assertFalse( placer.isBlocked( 7, 7 ) );
+    assertEquals( placements( placer, prefab, 1 ), bruteForce( placer, 11, 11, prefab, 1 ) );
+    // Only the placements along the outer edge of the interior remain clear of the stamped prefab
+    assertEquals( placer.findPlacements( prefab, 1 ), 24 );
+  }
+
+  @Nonnull
+  private static Prefab randomPrefab( @Nonnull final Random random, final int maxColumnCount )
+  {
+    // Occasionally use the widest prefab the layout allows
+    final int columnCount =
+      0 == random.nextInt( 4 ) ? maxColumnCount : 1 + random.nextInt( Math.min( 8, maxColumnCount ) );
+    final int rowCount = 1 + random.nextInt( 4 );
+    final int[] tiles = new int[ columnCount * rowCount ];
+    for ( int i = 0; i < tiles.length; i++ )
+    {
+      tiles[ i ] = 0 == random.nextInt( 3 ) ? Prefab.WILDCARD : 19;
+    }
+    return new Prefab( columnCount, rowCount, tiles );
+  }
+
+  @Nonnull
+  private static List<Integer> placements( @Nonnull final PrefabPlacer placer,
+                                           @Nonnull final Prefab prefab,
+                                           final int alignment )
+  {
+    final int count = placer.findPlacements( prefab, alignment );
+    final List<Integer> placements = new ArrayList<>();
+    for ( int i = 0; i < count; i++ )
+    {
+      placements.add( placer.getPlacement( i ) );
+    }
+    return placements;
+  }
+
+  /**
+   * Find the placements by testing every cell of every aligned placement.
+   */
+  @Nonnull
+  private static List<Integer> bruteForce( @Nonnull final PrefabPlacer placer,
+                                           final int columnCount,
+                                           final int rowCount,
+                                           @Nonnull final Prefab prefab,
+                                           final int alignment )
+  {
+    final List<Integer> placements = new ArrayList<>();
+    for ( int row = 0; row <= rowCount - prefab.getRowCount(); row += alignment )
+    {
+      for ( int column = 0; column <= columnCount - prefab.getColumnCount(); column += alignment )
+      {
+        boolean legal = true;
+        for ( int r = 0; r < prefab.getRowCount() && legal; r++ )
+        {
+          for ( int c = 0; c < prefab.getColumnCount() && legal; c++ )
+          {
+            legal = Prefab.WILDCARD == prefab.getTile( c, r ) || !placer.isBlocked( column + c, row + r );
+          }
+        }
+        if ( legal )
+        {
+          placements.add( column + row * columnCount );
+        }
+      }
+    }
+    return placements;
+  }
+}
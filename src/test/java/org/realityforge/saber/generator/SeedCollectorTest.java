@@ -0,0 +1,144 @@
+package org.realityforge.saber.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class SeedCollectorTest
+{
+  @Test
+  public void retainsTheBestSeedsInOrder()
+  {
+    final Random random = new Random( 7 );
+    final SeedCollector collector = new SeedCollector( 25 );
+    final double[] scores = new double[ 1000 ];
+    for ( int seed = 0; seed < scores.length; seed++ )
+    {
+      // A coarse score so that many seeds tie
+      scores[ seed ] = random.nextInt( 200 );
+      collector.offer( seed, scores[ seed ] );
+    }
+    assertEquals( collector.size(), 25 );
+
+    final List<Integer> expected = new ArrayList<>();
+    for ( int seed = 0; seed < scores.length; seed++ )
+    {
+      expected.add( seed );
+    }
+    expected.sort( ( a, b ) -> scores[ a ] != scores[ b ] ? Double.compare( scores[ b ], scores[ a ] ) : a - b );
+
+    final SeedIndex index = collector.toIndex();
+    assertEquals( index.size(), 25 );
+    for ( int i = 0; i < index.size(); i++ )
+    {
+      assertEquals( index.getSeed( i ), (int) expected.get( i ) );
+      assertEquals( index.getScore( i ), scores[ expected.get( i ) ], 0 );
+    }
+  }
+
+  @Test
+  public void tiesAreBrokenInFavourOfTheLowerSeed()
+  {
+    final SeedCollector collector = new SeedCollector( 3 );
+    for ( int seed = 10; seed >= -10; seed-- )
+    {
+      collector.offer( seed, 1 );
+    }
+    collector.offer( 50, 2 );
+    assertEquals( seeds( collector.toIndex() ), listOf( 50, -10, -9 ) );
+  }
+
+  @Test
+  public void resultDoesNotDependOnOfferOrMergeOrder()
+  {
+    final Random random = new Random( 3 );
+    final List<Integer> seeds = new ArrayList<>();
+    for ( int seed = 0; seed < 500; seed++ )
+    {
+      seeds.add( seed );
+    }
+    final SeedCollector expected = collect( seeds, 0, seeds.size() );
+    for ( int i = 0; i < 5; i++ )
+    {
+      Collections.shuffle( seeds, random );
+      final int split = random.nextInt( seeds.size() );
+      final SeedCollector left = collect( seeds, 0, split );
+      final SeedCollector right = collect( seeds, split, seeds.size() );
+      if ( random.nextBoolean() )
+      {
+        left.merge( right );
+        assertEquals( seeds( left.toIndex() ), seeds( expected.toIndex() ) );
+      }
+      else
+      {
+        right.merge( left );
+        assertEquals( seeds( right.toIndex() ), seeds( expected.toIndex() ) );
+      }
+    }
+  }
+
+  @Test
+  public void rejectsUnscorableSeeds()
+  {
+    final SeedCollector collector = new SeedCollector( 4 );
+    assertFalse( collector.offer( 1, Double.NaN ) );
+    assertFalse( collector.offer( 2, Double.NEGATIVE_INFINITY ) );
+    assertTrue( collector.offer( 3, -1000 ) );
+    assertEquals( collector.size(), 1 );
+  }
+
+  @Test
+  public void filterRestrictsTheRetainedSeeds()
+  {
+    final SeedCollector collector = new SeedCollector( 4, LevelMetrics::isDoorPlacementValid );
+    final LevelMetrics metrics = new LevelMetrics();
+    metrics._seed = 1;
+    metrics._doorPlacementValid = false;
+    assertFalse( collector.offer( metrics, 10 ) );
+    metrics._seed = 2;
+    metrics._doorPlacementValid = true;
+    assertTrue( collector.offer( metrics, 5 ) );
+    assertEquals( seeds( collector.toIndex() ), listOf( 2 ) );
+  }
+
+  /**
+   * Collect the seeds in the specified range of the list, scoring each seed by a fixed function of the seed.
+   */
+  @Nonnull
+  private static SeedCollector collect( @Nonnull final List<Integer> seeds, final int start, final int end )
+  {
+    final SeedCollector collector = new SeedCollector( 20 );
+    for ( int i = start; i < end; i++ )
+    {
+      final int seed = seeds.get( i );
+      collector.offer( seed, ( seed * 37 ) % 11 );
+    }
+    return collector;
+  }
+
+  @Nonnull
+  private static List<Integer> seeds( @Nonnull final SeedIndex index )
+  {
+    final List<Integer> seeds = new ArrayList<>();
+    for ( int i = 0; i < index.size(); i++ )
+    {
+      seeds.add( index.getSeed( i ) );
+    }
+    return seeds;
+  }
+
+  @Nonnull
+  private static List<Integer> listOf( final int... values )
+  {
+    final List<Integer> list = new ArrayList<>();
+    for ( final int value : values )
+    {
+      list.add( value );
+    }
+    return list;
+  }
+}
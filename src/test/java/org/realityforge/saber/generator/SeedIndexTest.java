@@ -0,0 +1,58 @@
+package org.realityforge.saber.generator;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.realityforge.saber.game.SeedData;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class SeedIndexTest
+{
+  @Test
+  public void encodedIndexesDecodeToTheSameSeeds()
+  {
+    final int[] seeds = { 0, 1, -1, 35, 36, -36, 123456789, Integer.MAX_VALUE, Integer.MIN_VALUE };
+    final SeedIndex index = new SeedIndex( seeds, new double[ seeds.length ] );
+    final String encoded = index.encode();
+    final SeedIndex decoded = SeedIndex.decode( encoded );
+    assertEquals( decoded.size(), seeds.length );
+    for ( int i = 0; i < seeds.length; i++ )
+    {
+      assertEquals( decoded.getSeed( i ), seeds[ i ] );
+      // Scores are not retained by the textual form
+      assertEquals( decoded.getScore( i ), 0, 0 );
+    }
+    assertEquals( decoded.encode(), encoded );
+  }
+
+  @Test
+  public void emptyIndexesRoundTrip()
+  {
+    final SeedIndex index = new SeedIndex( new int[ 0 ], new double[ 0 ] );
+    assertEquals( index.encode(), "" );
+    assertTrue( SeedIndex.decode( "" ).isEmpty() );
+  }
+
+  @Test
+  public void embeddedFloorSeedsRoundTrip()
+  {
+    final String data = SeedData.FLOOR_SEEDS;
+    final SeedIndex index = SeedIndex.decode( data );
+    assertFalse( index.isEmpty() );
+    assertEquals( index.encode(), data );
+  }
+
+  @Test
+  public void pickReturnsSeedsFromTheIndex()
+  {
+    final SeedIndex index = new SeedIndex( new int[]{ 5, 7, 11 }, new double[ 3 ] );
+    final Rng rng = new Rng( 2 );
+    final Set<Integer> picked = new HashSet<>();
+    for ( int i = 0; i < 100; i++ )
+    {
+      picked.add( index.pick( rng ) );
+    }
+    assertEquals( picked.size(), 3 );
+    assertTrue( picked.contains( 5 ) && picked.contains( 7 ) && picked.contains( 11 ) );
+  }
+}
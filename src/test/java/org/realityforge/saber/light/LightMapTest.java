@@ -0,0 +1,63 @@
+package org.realityforge.saber.light;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class LightMapTest
+{
+  @Test
+  public void syncChangesReportsOnlyTilesWhoseLightChanged()
+  {
+    final Level level = new Level( 32, 32, new LevelFixture().getFloor() );
+    final LightMap lightMap = new LightMap( 40 );
+    lightMap.setLevel( level );
+    final Light light = new Light( 5, 5, 3, 200 );
+    lightMap.addLight( light );
+    lightMap.update();
+
+    // The level changed so every tile must be redrawn
+    assertFalse( lightMap.syncChanges( index -> fail() ) );
+    assertTrue( lightMap.syncChanges( index -> fail() ) );
+
+    lightMap.moveLight( light, 6, 5 );
+    lightMap.update();
+    final List<Integer> changes = new ArrayList<>();
+    assertTrue( lightMap.syncChanges( changes::add ) );
+    assertFalse( changes.isEmpty() );
+    for ( final int index : changes )
+    {
+      final int column = index % 32;
+      final int row = index / 32;
+      assertTrue( Math.abs( column - 5 ) <= 4 && Math.abs( row - 5 ) <= 3 );
+    }
+    assertTrue( lightMap.syncChanges( index -> fail() ) );
+  }
+
+  @Test
+  public void wallsBlockLight()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 20, 20 );
+    for ( int row = 1; row < 19; row++ )
+    {
+      level.setTileType( 8, row, fixture.getWall() );
+    }
+    final LightMap lightMap = new LightMap( 40 );
+    lightMap.setLevel( level );
+    lightMap.addLight( new Light( 6, 5, 4, 200 ) );
+    lightMap.update();
+
+    assertTrue( lightMap.getLight( 7, 5 ) > 40 );
+    assertTrue( lightMap.getLight( 8, 5 ) > 40 );
+    assertEquals( lightMap.getLight( 9, 5 ), 40 );
+
+    // Opening the wall lets the light through
+    level.setTileType( 8, 5, fixture.getFloor() );
+    lightMap.update();
+    assertTrue( lightMap.getLight( 9, 5 ) > 40 );
+  }
+}
@@ -0,0 +1,72 @@
+package org.realityforge.saber.minimap;
+
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.realityforge.saber.world.TileType;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class MinimapTest
+{
+  @Test
+  public void changesRecolourExploredTilesAndRevealWithinView()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final TileType wall = fixture.getWall();
+    final TileType floor = fixture.getFloor();
+    final Level level = fixture.newRoom( 20, 20 );
+    for ( int row = 1; row < 19; row++ )
+    {
+      level.setTileType( 8, row, wall );
+    }
+    final ByteMinimapBuffer buffer = new ByteMinimapBuffer();
+    final Minimap minimap = new Minimap( buffer, 5 );
+
+    minimap.update( level, 5, 5 );
+    final int wallIndex = level.getIndex( 8, 5 );
+    final int hiddenIndex = level.getIndex( 9, 5 );
+    assertTrue( minimap.isExplored( wallIndex ) );
+    assertFalse( minimap.isExplored( hiddenIndex ) );
+    assertEquals( buffer.getPixel( wallIndex ), Minimap.WALL_COLOR );
+    assertEquals( buffer.getPixel( hiddenIndex ), 0 );
+
+    // Opening the wall recolours it and reveals the tile behind it
+    level.setTileType( wallIndex, floor );
+    minimap.update( level, 5, 5 );
+    assertEquals( buffer.getPixel( wallIndex ), Minimap.FLOOR_COLOR );
+    assertTrue( minimap.isExplored( hiddenIndex ) );
+
+    // Changes outside the view are not revealed
+    final int exploredCount = minimap.getExploredCount();
+    level.setTileType( level.getIndex( 15, 15 ), wall );
+    minimap.update( level, 5, 5 );
+    assertEquals( minimap.getExploredCount(), exploredCount );
+    assertEquals( buffer.getPixel( level.getIndex( 15, 15 ) ), 0 );
+  }
+
+  @Test
+  public void translateMovesExploredTiles()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 20, 20 );
+    final ByteMinimapBuffer buffer = new ByteMinimapBuffer();
+    final Minimap minimap = new Minimap( buffer, 2 );
+    minimap.update( level, 5, 5 );
+    assertTrue( minimap.isExplored( level.getIndex( 3, 5 ) ) );
+    assertFalse( minimap.isExplored( level.getIndex( 6, 8 ) ) );
+
+    // The tiles of the level move up and left by three, pushing the left most explored tiles out of the level
+    minimap.translate( -3, -3 );
+    assertTrue( minimap.isExplored( level.getIndex( 2, 2 ) ) );
+    assertTrue( minimap.isExplored( level.getIndex( 0, 2 ) ) );
+    assertFalse( minimap.isExplored( level.getIndex( 5, 5 ) ) );
+    assertEquals( buffer.getPixel( level.getIndex( 5, 5 ) ), 0 );
+    assertEquals( buffer.getPixel( level.getIndex( 2, 2 ) ), Minimap.FLOOR_COLOR );
+    final int exploredCount = minimap.getExploredCount();
+
+    // The viewer was translated with the tiles so the view is revisited without moving
+    minimap.update( level, 2, 2 );
+    assertTrue( minimap.getExploredCount() >= exploredCount );
+    assertTrue( minimap.isExplored( level.getIndex( 2, 0 ) ) );
+  }
+}
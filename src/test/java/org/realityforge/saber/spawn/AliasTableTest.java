@@ -0,0 +1,86 @@
+package org.realityforge.saber.spawn;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.Rng;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class AliasTableTest
+{
+  private static final int SAMPLE_COUNT = 200_000;
+
+  @Test
+  public void samplesFollowTheWeights()
+  {
+    assertDistribution( new double[]{ 1, 2, 3, 4 } );
+    assertDistribution( new double[]{ 0.5, 10, 0.25, 3, 1, 1, 7.75 } );
+    assertDistribution( new double[]{ 1, 1, 1 } );
+  }
+
+  @Test
+  public void zeroWeightsAreNeverSampled()
+  {
+    final int[] counts = sample( new double[]{ 0, 5, 0, 1, 0 }, 7 );
+    assertEquals( counts[ 0 ], 0 );
+    assertEquals( counts[ 2 ], 0 );
+    assertEquals( counts[ 4 ], 0 );
+    assertEquals( counts[ 1 ] + counts[ 3 ], SAMPLE_COUNT );
+  }
+
+  @Test
+  public void singleWeightIsAlwaysSampled()
+  {
+    final AliasTable table = new AliasTable( new double[]{ 3 } );
+    assertEquals( table.size(), 1 );
+    final Rng rng = new Rng( 1 );
+    for ( int i = 0; i < 100; i++ )
+    {
+      assertEquals( table.sample( rng ), 0 );
+    }
+  }
+
+  @Test
+  public void sameSeedSamplesSameSequence()
+  {
+    final AliasTable table = new AliasTable( new double[]{ 1, 2, 3, 4 } );
+    final Rng rng = new Rng( 99 );
+    final Rng other = new Rng( 99 );
+    for ( int i = 0; i < 1000; i++ )
+    {
+      assertEquals( table.sample( rng ), table.sample( other ) );
+    }
+  }
+
+  /**
+   * Assert that the observed frequency of each weight is within five standard deviations of its expectation.
+   */
+  private static void assertDistribution( @Nonnull final double[] weights )
+  {
+    double total = 0;
+    for ( final double weight : weights )
+    {
+      total += weight;
+    }
+    final int[] counts = sample( weights, 42 );
+    for ( int i = 0; i < weights.length; i++ )
+    {
+      final double probability = weights[ i ] / total;
+      final double expected = SAMPLE_COUNT * probability;
+      final double deviation = Math.sqrt( SAMPLE_COUNT * probability * ( 1 - probability ) );
+      assertEquals( counts[ i ], expected, 5 * deviation + 1 );
+    }
+  }
+
+  @Nonnull
+  private static int[] sample( @Nonnull final double[] weights, final int seed )
+  {
+    final AliasTable table = new AliasTable( weights );
+    final Rng rng = new Rng( seed );
+    final int[] counts = new int[ weights.length ];
+    for ( int i = 0; i < SAMPLE_COUNT; i++ )
+    {
+      counts[ table.sample( rng ) ]++;
+    }
+    return counts;
+  }
+}
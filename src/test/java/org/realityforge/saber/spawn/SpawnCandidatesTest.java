@@ -0,0 +1,91 @@
+package org.realityforge.saber.spawn;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.generator.Rng;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class SpawnCandidatesTest
+{
+  @Test
+  public void drawsEveryFloorTileOnce()
+  {
+    final Level level = new LevelFixture().newRoom( 7, 6 );
+    final SpawnCandidates candidates = new SpawnCandidates();
+    candidates.index( level );
+    assertEquals( candidates.getRemaining(), 5 * 4 );
+
+    final Set<Integer> drawn = drawAll( candidates, new Rng( 3 ) );
+    assertEquals( drawn.size(), 5 * 4 );
+    for ( final int index : drawn )
+    {
+      assertTrue( level.getTiles()[ index ].getTileType().isFloor() );
+    }
+    assertEquals( candidates.getRemaining(), 0 );
+    assertEquals( candidates.next( new Rng( 3 ) ), -1 );
+  }
+
+  @Test
+  public void excludedTilesAreNeverDrawn()
+  {
+    final Level level = new LevelFixture().newRoom( 5, 5 );
+    final SpawnCandidates candidates = new SpawnCandidates();
+    candidates.index( level );
+    candidates.exclude( level.getIndex( 2, 2 ) );
+    // Excluding a wall or an already excluded tile does nothing
+    candidates.exclude( level.getIndex( 0, 0 ) );
+    candidates.exclude( level.getIndex( 2, 2 ) );
+    assertEquals( candidates.getRemaining(), 8 );
+
+    final Set<Integer> drawn = drawAll( candidates, new Rng( 11 ) );
+    assertEquals( drawn.size(), 8 );
+    assertFalse( drawn.contains( level.getIndex( 2, 2 ) ) );
+  }
+
+  @Test
+  public void indexingRestoresThePool()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 5, 5 );
+    final SpawnCandidates candidates = new SpawnCandidates();
+    candidates.index( level );
+    drawAll( candidates, new Rng( 1 ) );
+
+    level.setTileType( 1, 1, fixture.getWall() );
+    candidates.index( level );
+    assertEquals( candidates.getRemaining(), 8 );
+    assertFalse( drawAll( candidates, new Rng( 1 ) ).contains( level.getIndex( 1, 1 ) ) );
+  }
+
+  @Test
+  public void sameSeedDrawsSameSequence()
+  {
+    final Level level = new LevelFixture().newRoom( 9, 9 );
+    final SpawnCandidates candidates = new SpawnCandidates();
+    final SpawnCandidates other = new SpawnCandidates();
+    candidates.index( level );
+    other.index( level );
+    final Rng rng = new Rng( 5 );
+    final Rng otherRng = new Rng( 5 );
+    for ( int i = 0; i < 49; i++ )
+    {
+      assertEquals( candidates.next( rng ), other.next( otherRng ) );
+    }
+  }
+
+  @Nonnull
+  private static Set<Integer> drawAll( @Nonnull final SpawnCandidates candidates, @Nonnull final Rng rng )
+  {
+    final Set<Integer> drawn = new HashSet<>();
+    int index;
+    while ( -1 != ( index = candidates.next( rng ) ) )
+    {
+      assertTrue( drawn.add( index ) );
+    }
+    return drawn;
+  }
+}
@@ -0,0 +1,94 @@
+package org.realityforge.saber.stream;
+
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.generator.LevelLayout;
+import org.realityforge.saber.world.Level;
+import org.realityforge.saber.world.LevelFixture;
+import org.realityforge.saber.world.TileTypeManager;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class StreamedViewportTest
+{
+  @Test
+  public void centreOnFloorCentresTheWindowOnAFloorTile()
+  {
+    final TileTypeManager tileTypeManager = LevelFixture.newGameTileTypeManager();
+    for ( int seed = 0; seed < 20; seed++ )
+    {
+      final StreamedViewport viewport = newViewport( seed, tileTypeManager );
+      assertTrue( viewport.centreOnFloor( 0, 0, StreamedWorld.CHUNK_SIZE ) );
+      final Level level = viewport.getLevel();
+      final int centre = level.getTile( level.getColumnCount() / 2, level.getRowCount() / 2 )
+        .getTileType()
+        .getId();
+      assertTrue( LevelLayout.isFloor( centre ) );
+    }
+  }
+
+  @Test
+  public void followRecentresOnlyWithinTheMargin()
+  {
+    final StreamedViewport viewport = newViewport( 1, LevelFixture.newGameTileTypeManager() );
+    viewport.centreOn( 100, 100 );
+    assertEquals( viewport.getOriginX(), 91 );
+    assertEquals( viewport.getOriginY(), 91 );
+
+    assertFalse( viewport.follow( 4, 14 ) );
+    assertTrue( viewport.follow( 3, 14 ) );
+    assertEquals( viewport.getOriginX(), 85 );
+    assertEquals( viewport.getOriginY(), 96 );
+    final Level level = viewport.getLevel();
+    for ( int row = 0; row < level.getRowCount(); row++ )
+    {
+      for ( int column = 0; column < level.getColumnCount(); column++ )
+      {
+        assertEquals( level.getTile( column, row ).getTileType().getId(),
+                      viewport.getWorld().getTile( 85 + column, 96 + row ) );
+      }
+    }
+  }
+
+  @Test
+  public void changesToTheLevelPersistInTheWorld()
+  {
+    final TileTypeManager tileTypeManager = LevelFixture.newGameTileTypeManager();
+    final MemoryChunkStore store = new MemoryChunkStore();
+    final StreamedWorld world = new StreamedWorld( 7, store, 1, 9 );
+    final Level level = new Level( 19, 19, tileTypeManager.getTileType( Tiles.EMPTY ) );
+    final StreamedViewport viewport = new StreamedViewport( world, level, tileTypeManager, 4 );
+    assertTrue( viewport.centreOnFloor( 0, 0, StreamedWorld.CHUNK_SIZE ) );
+    final int x = viewport.getOriginX() + 9;
+    final int y = viewport.getOriginY() + 9;
+
+    level.setTileType( 9, 9, tileTypeManager.getTileType( Tiles.WALL_SINGLE ) );
+    viewport.store();
+    assertTrue( LevelLayout.isWall( world.getTile( x, y ) ) );
+    // The wall is re-tiled to join its neighbours and the level reflects the world
+    for ( int row = 8; row <= 10; row++ )
+    {
+      for ( int column = 8; column <= 10; column++ )
+      {
+        assertEquals( level.getTile( column, row ).getTileType().getId(),
+                      world.getTile( viewport.getOriginX() + column, viewport.getOriginY() + row ) );
+      }
+    }
+    final int wallTileId = world.getTile( x, y );
+
+    // Moving far away evicts the modified chunk to the store
+    viewport.centreOn( 10000, 10000 );
+    assertTrue( store.getChunkCount() > 0 );
+
+    viewport.centreOn( x, y );
+    assertEquals( level.getTile( 9, 9 ).getTileType().getId(), wallTileId );
+  }
+
+  @Nonnull
+  private static StreamedViewport newViewport( final int seed, @Nonnull final TileTypeManager tileTypeManager )
+  {
+    final StreamedWorld world = new StreamedWorld( seed, new MemoryChunkStore(), 1, 16 );
+    final Level level = new Level( 19, 19, tileTypeManager.getTileType( Tiles.EMPTY ) );
+    return new StreamedViewport( world, level, tileTypeManager, 4 );
+  }
+}
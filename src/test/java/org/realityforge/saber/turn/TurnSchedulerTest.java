@@ -0,0 +1,187 @@
+package org.realityforge.saber.turn;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class TurnSchedulerTest
+{
+  private static final int COST = TurnScheduler.ENERGY_THRESHOLD;
+
+  @Test
+  public void actorsActInProportionToTheirSpeed()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    final int[] speeds = { 50, 100, 200, 150 };
+    for ( int entityId = 0; entityId < speeds.length; entityId++ )
+    {
+      scheduler.schedule( entityId, speeds[ entityId ] );
+    }
+    final int[] counts = new int[ speeds.length ];
+    for ( int i = 0; i < 1000; i++ )
+    {
+      final int entityId = scheduler.beginTurn();
+      counts[ entityId ]++;
+      scheduler.endTurn( entityId, COST, speeds[ entityId ] );
+    }
+    // The speeds sum to 500 so each actor receives speed / 500 of the turns, give or take the final round
+    for ( int entityId = 0; entityId < speeds.length; entityId++ )
+    {
+      assertEquals( counts[ entityId ], 1000.0 * speeds[ entityId ] / 500, 1 );
+    }
+  }
+
+  @Test
+  public void actorsActWhenTheirEnergyReachesTheThreshold()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    scheduler.schedule( 1, 100 );
+    scheduler.schedule( 2, 300 );
+
+    // Speed 300 reaches 1000 energy after 4 ticks, carrying 200 energy into its next turn
+    assertEquals( takeTurn( scheduler, 300 ), 2 );
+    assertEquals( scheduler.getTime(), 4 );
+    assertEquals( takeTurn( scheduler, 300 ), 2 );
+    assertEquals( scheduler.getTime(), 7 );
+    assertEquals( takeTurn( scheduler, 100 ), 1 );
+    assertEquals( scheduler.getTime(), 10 );
+    assertEquals( takeTurn( scheduler, 300 ), 2 );
+    assertEquals( scheduler.getTime(), 10 );
+  }
+
+  @Test
+  public void setSpeedKeepsTheEnergyAlreadyGained()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    scheduler.schedule( 1, 100 );
+    scheduler.schedule( 2, 100 );
+    scheduler.schedule( 3, 200 );
+    assertEquals( takeTurn( scheduler, 200 ), 3 );
+    assertEquals( scheduler.getTime(), 5 );
+
+    // Both have 500 energy, so a speed of 500 acts next tick and a speed of 50 takes 10 more ticks
+    scheduler.setSpeed( 1, 50 );
+    scheduler.setSpeed( 2, 500 );
+    assertEquals( scheduler.peek(), 2 );
+    assertEquals( scheduler.peekTime(), 6 );
+    assertEquals( takeTurn( scheduler, 500 ), 2 );
+    assertEquals( takeTurn( scheduler, 500 ), 2 );
+    assertEquals( scheduler.getTime(), 8 );
+    assertEquals( takeTurn( scheduler, 200 ), 3 );
+    assertEquals( scheduler.getTime(), 10 );
+    assertEquals( takeTurn( scheduler, 500 ), 2 );
+    assertEquals( takeTurn( scheduler, 500 ), 2 );
+    assertEquals( takeTurn( scheduler, 500 ), 2 );
+    assertEquals( scheduler.getTime(), 14 );
+    // Actor 1 was rescheduled before actor 3 so acts first when both are due
+    assertEquals( takeTurn( scheduler, 50 ), 1 );
+    assertEquals( scheduler.getTime(), 15 );
+    assertEquals( takeTurn( scheduler, 200 ), 3 );
+    assertEquals( scheduler.getTime(), 15 );
+
+    // Changing the speed of an actor that is not scheduled does nothing
+    scheduler.setSpeed( 99, 100 );
+    assertFalse( scheduler.isScheduled( 99 ) );
+  }
+
+  @Test
+  public void unscheduledActorsNeverAct()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    for ( int entityId = 0; entityId < 40; entityId++ )
+    {
+      scheduler.schedule( entityId, 100 + entityId * 7 );
+    }
+    for ( int entityId = 0; entityId < 40; entityId += 3 )
+    {
+      scheduler.unschedule( entityId );
+      assertFalse( scheduler.isScheduled( entityId ) );
+    }
+    // Unscheduling an unknown entity does nothing
+    scheduler.unschedule( 1000 );
+    assertEquals( scheduler.size(), 26 );
+
+    int previousTime = 0;
+    for ( int i = 0; i < 500; i++ )
+    {
+      final int entityId = scheduler.beginTurn();
+      assertTrue( 0 != entityId % 3 );
+      assertTrue( scheduler.getTime() >= previousTime );
+      previousTime = scheduler.getTime();
+      scheduler.endTurn( entityId, COST, 100 + entityId * 7 );
+    }
+  }
+
+  @Test
+  public void actorsUnscheduledDuringTheirTurnAreNotRescheduled()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    scheduler.schedule( 1, 200 );
+    scheduler.schedule( 2, 100 );
+    assertEquals( scheduler.beginTurn(), 1 );
+    scheduler.unschedule( 1 );
+    assertFalse( scheduler.isScheduled( 1 ) );
+    assertEquals( takeTurn( scheduler, 100 ), 2 );
+    assertEquals( takeTurn( scheduler, 100 ), 2 );
+    assertEquals( scheduler.size(), 1 );
+  }
+
+  @Test
+  public void tiedActorsActInTheOrderTheyWereScheduled()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    // Ids beyond the initial capacity and out of numeric order
+    final int[] entityIds = { 40, 3, 17, 0, 9 };
+    for ( final int entityId : entityIds )
+    {
+      scheduler.schedule( entityId, TurnScheduler.NORMAL_SPEED );
+    }
+    final List<Integer> expected = new ArrayList<>();
+    for ( int round = 0; round < 3; round++ )
+    {
+      for ( final int entityId : entityIds )
+      {
+        expected.add( entityId );
+      }
+    }
+    assertEquals( run( scheduler, 15 ), expected );
+  }
+
+  @Test
+  public void actedActorsAreRecordedUntilCleared()
+  {
+    final TurnScheduler scheduler = new TurnScheduler();
+    scheduler.schedule( 5, 100 );
+    scheduler.schedule( 6, 100 );
+    run( scheduler, 3 );
+    assertEquals( scheduler.getActedCount(), 3 );
+    assertEquals( scheduler.getActed( 0 ), 5 );
+    assertEquals( scheduler.getActed( 1 ), 6 );
+    assertEquals( scheduler.getActed( 2 ), 5 );
+    scheduler.clearActed();
+    assertEquals( scheduler.getActedCount(), 0 );
+  }
+
+  private static int takeTurn( @Nonnull final TurnScheduler scheduler, final int speed )
+  {
+    final int entityId = scheduler.beginTurn();
+    scheduler.endTurn( entityId, COST, speed );
+    return entityId;
+  }
+
+  /**
+   * Run the specified number of turns at normal speed and return the actors in the order they acted.
+   */
+  @Nonnull
+  private static List<Integer> run( @Nonnull final TurnScheduler scheduler, final int turns )
+  {
+    final List<Integer> order = new ArrayList<>();
+    for ( int i = 0; i < turns; i++ )
+    {
+      order.add( takeTurn( scheduler, TurnScheduler.NORMAL_SPEED ) );
+    }
+    return order;
+  }
+}
@@ -0,0 +1,119 @@
+package org.realityforge.saber.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.realityforge.saber.game.Tiles;
+import org.realityforge.saber.generator.LevelLayout;
+import static org.testng.Assert.*;
+
+/**
+ * Tile types and levels shared by the tests that operate on a level.
+ * Only two tile types are registered, an opaque wall and a walkable floor, unless the tile types of the game
+ * are requested.
+ */
+public final class LevelFixture
+{
+  public static final int WALL = 0;
+  public static final int FLOOR = 1;
+  @Nonnull
+  private final TileTypeManager _tileTypeManager = new TileTypeManager();
+  @Nonnull
+  private final TileType _wall = _tileTypeManager.registerEmptyTileType( WALL, TileType.Flags.OPAQUE );
+  @Nonnull
+  private final TileType _floor =
+    _tileTypeManager.registerEmptyTileType( FLOOR, TileType.Flags.SOLID | TileType.Flags.FLOOR );
+
+  /**
+   * Create a tile type manager with an untextured tile type for every tile id of the game.
+   */
+  @Nonnull
+  public static TileTypeManager newGameTileTypeManager()
+  {
+    final TileTypeManager tileTypeManager = new TileTypeManager();
+    for ( int id = 0; id < Tiles.COUNT; id++ )
+    {
+      final int flags =
+        LevelLayout.isWall( id ) ? TileType.Flags.OPAQUE :
+        LevelLayout.isFloor( id ) ? TileType.Flags.SOLID | TileType.Flags.FLOOR :
+        0;
+      tileTypeManager.registerEmptyTileType( id, flags );
+    }
+    return tileTypeManager;
+  }
+
+  @Nonnull
+  public TileTypeManager getTileTypeManager()
+  {
+    return _tileTypeManager;
+  }
+
+  @Nonnull
+  public TileType getWall()
+  {
+    return _wall;
+  }
+
+  @Nonnull
+  public TileType getFloor()
+  {
+    return _floor;
+  }
+
+  /**
+   * Create a level where every tile is a wall.
+   */
+  @Nonnull
+  public Level newLevel( final int columnCount, final int rowCount )
+  {
+    return new Level( columnCount, rowCount, _wall );
+  }
+
+  /**
+   * Create a level that is a single floor room surrounded by a one tile wall.
+   */
+  @Nonnull
+  public Level newRoom( final int columnCount, final int rowCount )
+  {
+    final Level level = newLevel( columnCount, rowCount );
+    for ( int row = 1; row < rowCount - 1; row++ )
+    {
+      for ( int column = 1; column < columnCount - 1; column++ )
+      {
+        level.setTileType( column, row, _floor );
+      }
+    }
+    return level;
+  }
+
+  public static void fill( @Nonnull final Level level, @Nonnull final TileType tileType )
+  {
+    final int tileCount = level.getTiles().length;
+    for ( int i = 0; i < tileCount; i++ )
+    {
+      level.setTileType( i, tileType );
+    }
+  }
+
+  /**
+   * Sync the cursor and return the indexes of the changed tiles in the order they were delivered.
+   */
+  @Nonnull
+  public static List<Integer> sync( @Nonnull final LevelJournal.Cursor cursor )
+  {
+    final List<Integer> changes = new ArrayList<>();
+    assertTrue( cursor.sync( changes::add ) );
+    return changes;
+  }
+
+  @Nonnull
+  public static List<Integer> listOf( final int... values )
+  {
+    final List<Integer> list = new ArrayList<>();
+    for ( final int value : values )
+    {
+      list.add( value );
+    }
+    return list;
+  }
+}
@@ -0,0 +1,40 @@
+package org.realityforge.saber.world;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class LevelHistoryTest
+{
+  @Test
+  public void editAfterRestoreIsCommitted()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newLevel( 19, 19 );
+    final LevelHistory history = new LevelHistory( level, 10 );
+    final LevelHistory.Version initial = history.commit();
+
+    level.setTileType( 12, fixture.getFloor() );
+    assertEquals( history.commit().getTileTypeId( 12 ), LevelFixture.FLOOR );
+
+    history.restore( initial, fixture.getTileTypeManager() );
+    assertEquals( level.getTiles()[ 12 ].getTileType(), fixture.getWall() );
+    assertEquals( history.commit().getTileTypeId( 12 ), LevelFixture.WALL );
+
+    level.setTileType( 12, fixture.getFloor() );
+    assertEquals( history.commit().getTileTypeId( 12 ), LevelFixture.FLOOR );
+  }
+
+  @Test
+  public void oldestVersionsAreDiscarded()
+  {
+    final Level level = new LevelFixture().newLevel( 19, 19 );
+    final LevelHistory history = new LevelHistory( level, 3 );
+    for ( int i = 0; i < 5; i++ )
+    {
+      history.commit();
+    }
+    assertEquals( history.getVersionCount(), 3 );
+    assertEquals( history.getVersion( 0 ).getNumber(), 2 );
+    assertEquals( history.getLatestVersion().getNumber(), 4 );
+  }
+}
@@ -0,0 +1,57 @@
+package org.realityforge.saber.world;
+
+import org.testng.annotations.Test;
+import static org.realityforge.saber.world.LevelFixture.*;
+import static org.testng.Assert.*;
+
+public final class LevelJournalTest
+{
+  @Test
+  public void cursorCreatedAfterBulkFillSeesNextChange()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newLevel( 19, 19 );
+    fill( level, fixture.getFloor() );
+
+    final LevelJournal.Cursor cursor = level.getJournal().createCursor();
+    assertFalse( cursor.hasChanges() );
+
+    level.setTileType( 12, fixture.getWall() );
+
+    assertTrue( cursor.hasChanges() );
+    assertEquals( sync( cursor ), listOf( 12 ) );
+  }
+
+  @Test
+  public void skippedCursorSeesNextChange()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newLevel( 19, 19 );
+    final LevelJournal.Cursor cursor = level.getJournal().createCursor();
+    fill( level, fixture.getFloor() );
+
+    cursor.skip();
+    assertFalse( cursor.hasChanges() );
+
+    level.setTileType( 12, fixture.getWall() );
+
+    assertTrue( cursor.hasChanges() );
+    assertEquals( sync( cursor ), listOf( 12 ) );
+  }
+
+  @Test
+  public void laggingCursorSeesChangesDeliveredToAnotherCursor()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newLevel( 19, 19 );
+    final LevelJournal.Cursor first = level.getJournal().createCursor();
+    final LevelJournal.Cursor second = level.getJournal().createCursor();
+
+    level.setTileType( 3, fixture.getFloor() );
+    assertEquals( sync( first ), listOf( 3 ) );
+    level.setTileType( 3, fixture.getWall() );
+
+    assertEquals( sync( second ), listOf( 3, 3 ) );
+    assertEquals( sync( first ), listOf( 3 ) );
+  }
+}
@@ -0,0 +1,49 @@
+package org.realityforge.saber.world;
+
+import java.util.Random;
+
+/**
+ * Measures the throughput of batched line of sight queries on the JVM.
+ * Usage: RayCasterBenchmark [size] [pairCount] [iterations]
+ */
+public final class RayCasterBenchmark
+{
+  private RayCasterBenchmark()
+  {
+  }
+
+  public static void main( final String[] args )
+  {
+    final int size = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 64;
+    final int count = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 4096;
+    final int iterations = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 2000;
+    final Level level = RayCasterTest.newScatteredLevel( size, size, 1 );
+    final Random random = new Random( 1 );
+    final int tileCount = level.getTiles().length;
+    final int[] from = new int[ count ];
+    final int[] to = new int[ count ];
+    for ( int i = 0; i < count; i++ )
+    {
+      from[ i ] = random.nextInt( tileCount );
+      to[ i ] = random.nextInt( tileCount );
+    }
+    final int[] results = new int[ ( count + 31 ) >> 5 ];
+
+    // Warm up so that the measured runs use compiled code
+    int visible = 0;
+    for ( int i = 0; i < iterations; i++ )
+    {
+      visible += RayCaster.hasLineOfSight( level, from, to, count, results );
+    }
+    final long startedAt = System.nanoTime();
+    for ( int i = 0; i < iterations; i++ )
+    {
+      visible += RayCaster.hasLineOfSight( level, from, to, count, results );
+    }
+    final long duration = System.nanoTime() - startedAt;
+    final long queries = (long) count * iterations;
+    System.out.println( "Traced " + queries + " lines on a " + size + "x" + size + " level in " +
+                        ( duration / 1_000_000L ) + "ms (" + ( queries * 1_000_000_000L / duration ) +
+                        " per second, " + visible + " visible)" );
+  }
+}
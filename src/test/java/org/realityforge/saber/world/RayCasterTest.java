@@ -0,0 +1,119 @@
+package org.realityforge.saber.world;
+
+import java.util.Random;
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class RayCasterTest
+{
+  @Test
+  public void openRoomsHaveLineOfSightInBothDirections()
+  {
+    final Level level = new LevelFixture().newRoom( 12, 12 );
+    assertTrue( RayCaster.hasLineOfSight( level, 1, 1, 10, 7 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 10, 7, 1, 1 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 5, 5, 5, 5 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 5, 5, 6, 6 ) );
+  }
+
+  @Test
+  public void opaqueTilesBlockLineOfSight()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 12, 12 );
+    level.setTileType( 5, 5, fixture.getWall() );
+
+    assertFalse( RayCaster.hasLineOfSight( level, 2, 5, 9, 5 ) );
+    assertFalse( RayCaster.hasLineOfSight( level, 9, 5, 2, 5 ) );
+    assertFalse( RayCaster.hasLineOfSight( level, 3, 3, 7, 7 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 2, 4, 9, 4 ) );
+    // The end points are excluded so walls can see and be seen
+    assertTrue( RayCaster.hasLineOfSight( level, 5, 5, 9, 5 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 2, 5, 5, 5 ) );
+    // Lines that run through the outer wall are blocked by it
+    assertFalse( RayCaster.hasLineOfSight( level, 0, 0, 11, 0 ) );
+    assertTrue( RayCaster.hasLineOfSight( level, 0, 1, 11, 1 ) );
+  }
+
+  @Test
+  public void indexQueriesMatchColumnRowQueries()
+  {
+    final Level level = newScatteredLevel( 24, 17, 7 );
+    final Random random = new Random( 3 );
+    final int tileCount = level.getTiles().length;
+    for ( int i = 0; i < 500; i++ )
+    {
+      final int from = random.nextInt( tileCount );
+      final int to = random.nextInt( tileCount );
+      assertEquals( RayCaster.hasLineOfSight( level, from, to ),
+                    RayCaster.hasLineOfSight( level, from % 24, from / 24, to % 24, to / 24 ) );
+    }
+  }
+
+  @Test
+  public void batchQueriesMatchSingleQueries()
+  {
+    final Level level = newScatteredLevel( 32, 32, 11 );
+    final Random random = new Random( 5 );
+    final int tileCount = level.getTiles().length;
+    // Not a multiple of 32 so the final partial word is exercised
+    final int count = 77;
+    final int[] from = new int[ count ];
+    final int[] to = new int[ count ];
+    for ( int i = 0; i < count; i++ )
+    {
+      from[ i ] = random.nextInt( tileCount );
+      to[ i ] = random.nextInt( tileCount );
+    }
+    final int[] results = new int[ ( count + 31 ) / 32 ];
+    final int visible = RayCaster.hasLineOfSight( level, from, to, count, results );
+
+    int expectedVisible = 0;
+    for ( int i = 0; i < count; i++ )
+    {
+      final boolean expected = RayCaster.hasLineOfSight( level, from[ i ], to[ i ] );
+      assertEquals( 0 != ( results[ i >> 5 ] & ( 1 << ( i & 31 ) ) ), expected );
+      expectedVisible += expected ? 1 : 0;
+    }
+    assertEquals( visible, expectedVisible );
+    assertTrue( visible > 0 && visible < count );
+    // Bits beyond the pairs are left clear
+    assertEquals( results[ 2 ] >>> ( count & 31 ), 0 );
+  }
+
+  @Test
+  public void projectilesStopAtTheFirstOpaqueTile()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 12, 12 );
+    level.setTileType( 6, 3, fixture.getWall() );
+    level.setTileType( 8, 3, fixture.getWall() );
+
+    assertEquals( RayCaster.traceProjectile( level, 2, 3, 10, 3 ), level.getIndex( 6, 3 ) );
+    assertEquals( RayCaster.traceProjectile( level, 10, 3, 2, 3 ), level.getIndex( 8, 3 ) );
+    assertEquals( RayCaster.traceProjectile( level, 2, 5, 10, 5 ), -1 );
+    // Unlike line of sight the target tile is tested
+    assertEquals( RayCaster.traceProjectile( level, 2, 3, 6, 3 ), level.getIndex( 6, 3 ) );
+    // The origin tile is not tested so a projectile can be launched from within a wall
+    assertEquals( RayCaster.traceProjectile( level, 6, 3, 6, 8 ), -1 );
+    assertEquals( RayCaster.traceProjectile( level, 5, 5, 5, 5 ), -1 );
+  }
+
+  /**
+   * Create a floor room with walls scattered through it.
+   */
+  @Nonnull
+  static Level newScatteredLevel( final int columnCount, final int rowCount, final long seed )
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( columnCount, rowCount );
+    final Random random = new Random( seed );
+    final int tileCount = level.getTiles().length;
+    for ( int i = 0; i < tileCount / 8; i++ )
+    {
+      level.setTileType( random.nextInt( tileCount ), fixture.getWall() );
+    }
+    return level;
+  }
+}
@@ -0,0 +1,54 @@
+package org.realityforge.saber.world;
+
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class ShadowCasterTest
+{
+  @Test
+  public void everyTileOfAnOpenAreaIsVisibleAndVisitedAtMostTwice()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newLevel( 61, 61 );
+    LevelFixture.fill( level, fixture.getFloor() );
+    final int radius = 30;
+    final int[] visits = visits( level, 30, 30, radius );
+    for ( int i = 0; i < visits.length; i++ )
+    {
+      assertTrue( visits[ i ] >= 1 && visits[ i ] <= 2 );
+    }
+    assertEquals( visits[ level.getIndex( 30, 30 ) ], 1 );
+  }
+
+  @Test
+  public void opaqueTilesCastShadows()
+  {
+    final LevelFixture fixture = new LevelFixture();
+    final Level level = fixture.newRoom( 20, 20 );
+    for ( int row = 3; row <= 7; row++ )
+    {
+      level.setTileType( 8, row, fixture.getWall() );
+    }
+    final int[] visits = visits( level, 5, 5, 8 );
+
+    // The wall itself is visible but the tiles directly behind it are not
+    assertTrue( visits[ level.getIndex( 8, 5 ) ] > 0 );
+    assertEquals( visits[ level.getIndex( 9, 5 ) ], 0 );
+    assertEquals( visits[ level.getIndex( 12, 5 ) ], 0 );
+    // Tiles beyond the end of the wall and in other directions remain visible
+    assertTrue( visits[ level.getIndex( 9, 9 ) ] > 0 );
+    assertTrue( visits[ level.getIndex( 5, 12 ) ] > 0 );
+    assertTrue( visits[ level.getIndex( 1, 1 ) ] > 0 );
+    // Tiles outside the radius are never visited
+    assertEquals( visits[ level.getIndex( 5, 14 ) ], 0 );
+  }
+
+  @Nonnull
+  private static int[] visits( @Nonnull final Level level, final int column, final int row, final int radius )
+  {
+    final int[] visits = new int[ level.getTiles().length ];
+    ShadowCaster.castLight( level, column, row, radius, ( c, r ) -> visits[ level.getIndex( c, r ) ]++ );
+    return visits;
+  }
+}
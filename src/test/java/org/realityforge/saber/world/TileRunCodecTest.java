@@ -0,0 +1,36 @@
+package org.realityforge.saber.world;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public final class TileRunCodecTest
+{
+  @Test
+  public void roundTrip()
+  {
+    final int[] tileIds = new int[ 19 * 19 ];
+    for ( int i = 0; i < tileIds.length; i++ )
+    {
+      tileIds[ i ] = i % 7 == 0 ? 255 : i / 40;
+    }
+    final int[] decoded = new int[ tileIds.length ];
+    TileRunCodec.decode( TileRunCodec.encode( tileIds ), decoded );
+    assertEquals( decoded, tileIds );
+  }
+
+  @Test
+  public void runsLongerThanAByteAreSplit()
+  {
+    final int[] tileIds = new int[ 600 ];
+    final byte[] data = TileRunCodec.encode( tileIds );
+    assertEquals( data.length, 6 );
+    assertEquals( data[ 0 ] & 0xFF, 255 );
+    assertEquals( data[ 2 ] & 0xFF, 255 );
+    assertEquals( data[ 4 ] & 0xFF, 90 );
+
+    final int[] decoded = new int[ tileIds.length ];
+    decoded[ 599 ] = 3;
+    TileRunCodec.decode( data, decoded );
+    assertEquals( decoded, tileIds );
+  }
+}